@@ -0,0 +1,79 @@
+package com.crm.benchmark;
+
+import com.crm.customers.model.Customer;
+import com.crm.customers.model.CustomerStatus;
+import com.crm.offers.model.Offer;
+import com.crm.offers.model.OfferStatus;
+import com.crm.tasks.model.Task;
+import com.crm.tasks.model.TaskPriority;
+import com.crm.tasks.model.TaskStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Deterministic entity fixtures shared by the benchmarks.
+ */
+final class BenchmarkData {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 1, 15, 10, 30);
+
+    private BenchmarkData() {
+    }
+
+    static List<Customer> customers(int count) {
+        List<Customer> customers = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            customers.add(Customer.builder()
+                    .id((long) i)
+                    .firstName("Jan" + i)
+                    .lastName("Kowalski" + i)
+                    .email("jan.kowalski" + i + "@example.pl")
+                    .phone("+48 501 234 " + String.format("%03d", i % 1000))
+                    .status(CustomerStatus.values()[i % CustomerStatus.values().length])
+                    .createdAt(ZonedDateTime.now())
+                    .updatedAt(ZonedDateTime.now())
+                    .build());
+        }
+        return customers;
+    }
+
+    static List<Offer> offers(List<Customer> customers) {
+        List<Offer> offers = new ArrayList<>(customers.size());
+        for (Customer customer : customers) {
+            offers.add(Offer.builder()
+                    .id(customer.getId())
+                    .title("Wdrożenie CRM " + customer.getId())
+                    .description("Licencje, konfiguracja i szkolenie zespołu sprzedaży")
+                    .price(new BigDecimal("12500.00"))
+                    .status(OfferStatus.values()[(int) (customer.getId() % OfferStatus.values().length)])
+                    .customer(customer)
+                    .createdAt(NOW)
+                    .updatedAt(NOW)
+                    .build());
+        }
+        return offers;
+    }
+
+    static List<Task> tasks(List<Offer> offers) {
+        List<Task> tasks = new ArrayList<>(offers.size());
+        for (Offer offer : offers) {
+            Task task = new Task();
+            task.setId(offer.getId());
+            task.setTitle("Follow-up call " + offer.getId());
+            task.setDescription("Omówić warunki oferty i termin podpisania umowy");
+            task.setDueDate(NOW.plusDays(7));
+            task.setStatus(TaskStatus.values()[(int) (offer.getId() % TaskStatus.values().length)]);
+            task.setPriority(TaskPriority.values()[(int) (offer.getId() % TaskPriority.values().length)]);
+            task.setCustomer(offer.getCustomer());
+            task.setOffer(offer.getId() % 2 == 0 ? offer : null);
+            task.setCreatedAt(NOW);
+            task.setUpdatedAt(NOW);
+            tasks.add(task);
+        }
+        return tasks;
+    }
+}
@@ -0,0 +1,69 @@
+package com.crm.benchmark;
+
+import com.crm.config.RedisConfig;
+import com.crm.customers.dto.CustomerResponseDTO;
+import com.crm.customers.mapper.CustomerMapper;
+import com.crm.tasks.dto.TaskResponseDTO;
+import com.crm.tasks.mapper.TaskMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encode/decode cost of cache values through the serializer configured for the Redis cache manager:
+ * a single entry (cache key "#id") and a full list (cache key "'all'").
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CacheCodecBenchmark {
+
+    @Param({"1000"})
+    private int size;
+
+    private GenericJackson2JsonRedisSerializer serializer;
+
+    private CustomerResponseDTO customer;
+    private List<TaskResponseDTO> tasks;
+    private byte[] encodedCustomer;
+    private byte[] encodedTasks;
+
+    @Setup
+    public void setUp() {
+        serializer = new GenericJackson2JsonRedisSerializer(new RedisConfig().redisObjectMapper());
+
+        customer = new CustomerMapper().toResponseDTO(BenchmarkData.customers(1).get(0));
+        TaskMapper taskMapper = new TaskMapper();
+        tasks = new ArrayList<>(BenchmarkData.tasks(BenchmarkData.offers(BenchmarkData.customers(size)))
+                .stream().map(taskMapper::toDTO).toList());
+
+        encodedCustomer = serializer.serialize(customer);
+        encodedTasks = serializer.serialize(tasks);
+    }
+
+    @Benchmark
+    public byte[] encodeEntry() {
+        return serializer.serialize(customer);
+    }
+
+    @Benchmark
+    public Object decodeEntry() {
+        return serializer.deserialize(encodedCustomer);
+    }
+
+    @Benchmark
+    public byte[] encodeList() {
+        return serializer.serialize(tasks);
+    }
+
+    @Benchmark
+    public Object decodeList() {
+        return serializer.deserialize(encodedTasks);
+    }
+}
@@ -0,0 +1,76 @@
+package com.crm.benchmark;
+
+import com.crm.config.RedisConfig;
+import com.crm.tasks.dto.TaskResponseDTO;
+import com.crm.tasks.mapper.TaskMapper;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson (de)serialization of task lists with the plain mapper versus the
+ * default-typing mapper from {@link RedisConfig}, which adds an @class hint to every object.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JacksonBenchmark {
+
+    private static final TypeReference<List<TaskResponseDTO>> TASK_LIST = new TypeReference<>() {
+    };
+
+    @Param({"100", "1000"})
+    private int size;
+
+    private ObjectMapper plainMapper;
+    private ObjectMapper typedMapper;
+
+    private List<TaskResponseDTO> tasks;
+    private byte[] plainJson;
+    private byte[] typedJson;
+
+    @Setup
+    public void setUp() throws Exception {
+        plainMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        typedMapper = new RedisConfig().redisObjectMapper();
+
+        TaskMapper taskMapper = new TaskMapper();
+        // ArrayList rather than an immutable list, matching what services put into the cache
+        tasks = new ArrayList<>(BenchmarkData.tasks(BenchmarkData.offers(BenchmarkData.customers(size)))
+                .stream().map(taskMapper::toDTO).toList());
+
+        plainJson = plainMapper.writeValueAsBytes(tasks);
+        typedJson = typedMapper.writeValueAsBytes(tasks);
+    }
+
+    @Benchmark
+    public byte[] serializePlain() throws Exception {
+        return plainMapper.writeValueAsBytes(tasks);
+    }
+
+    @Benchmark
+    public byte[] serializeDefaultTyping() throws Exception {
+        return typedMapper.writeValueAsBytes(tasks);
+    }
+
+    @Benchmark
+    public List<TaskResponseDTO> deserializePlain() throws Exception {
+        return plainMapper.readValue(plainJson, TASK_LIST);
+    }
+
+    @Benchmark
+    public Object deserializeDefaultTyping() throws Exception {
+        return typedMapper.readValue(typedJson, Object.class);
+    }
+}
@@ -0,0 +1,60 @@
+package com.crm.benchmark;
+
+import com.crm.customers.dto.CustomerResponseDTO;
+import com.crm.customers.mapper.CustomerMapper;
+import com.crm.customers.model.Customer;
+import com.crm.offers.dto.OfferResponseDTO;
+import com.crm.offers.mapper.OfferMapper;
+import com.crm.offers.model.Offer;
+import com.crm.tasks.dto.TaskResponseDTO;
+import com.crm.tasks.mapper.TaskMapper;
+import com.crm.tasks.model.Task;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to response DTO mapping throughput, as done for every list endpoint on a cache miss.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MapperBenchmark {
+
+    @Param({"100", "1000"})
+    private int size;
+
+    private final CustomerMapper customerMapper = new CustomerMapper();
+    private final OfferMapper offerMapper = new OfferMapper();
+    private final TaskMapper taskMapper = new TaskMapper();
+
+    private List<Customer> customers;
+    private List<Offer> offers;
+    private List<Task> tasks;
+
+    @Setup
+    public void setUp() {
+        customers = BenchmarkData.customers(size);
+        offers = BenchmarkData.offers(customers);
+        tasks = BenchmarkData.tasks(offers);
+    }
+
+    @Benchmark
+    public List<CustomerResponseDTO> customerToResponseDTO() {
+        return customers.stream().map(customerMapper::toResponseDTO).toList();
+    }
+
+    @Benchmark
+    public List<OfferResponseDTO> offerToResponseDTO() {
+        return offers.stream().map(offerMapper::toResponseDTO).toList();
+    }
+
+    @Benchmark
+    public List<TaskResponseDTO> taskToDTO() {
+        return tasks.stream().map(taskMapper::toDTO).toList();
+    }
+}
@@ -0,0 +1,22 @@
+package com.crm.common.cache;
+
+import org.springframework.cache.Cache;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cache that reads, writes and evicts many keys in one round trip instead of one per key.
+ */
+public interface BatchCache extends Cache {
+
+    /**
+     * @return one wrapper per key in key order, {@code null} for misses
+     */
+    List<ValueWrapper> getAll(List<?> keys);
+
+    void putAll(Map<?, ?> entries);
+
+    void evictAll(Collection<?> keys);
+}
@@ -0,0 +1,114 @@
+package com.crm.common.cache;
+
+import org.springframework.cache.interceptor.CacheErrorHandler;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link RedisCache} with batch reads, writes and evictions, passed to the cache writer as one call.
+ *
+ * Failed writes and evictions are reported to the {@link CacheErrorHandler} here instead of being
+ * thrown: in a transaction the transaction-aware decorator applies them after commit, where no
+ * caller could handle the exception and a committed change would turn into an error response.
+ * Lost evictions are made up for by the circuit breaker writer clearing the region later.
+ */
+public class BatchRedisCache extends RedisCache implements BatchCache {
+
+    private final CacheErrorHandler errorHandler;
+
+    public BatchRedisCache(String name, RedisCacheWriter cacheWriter, RedisCacheConfiguration cacheConfiguration,
+                           CacheErrorHandler errorHandler) {
+        super(name, cacheWriter, cacheConfiguration);
+        this.errorHandler = errorHandler;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        try {
+            super.put(key, value);
+        } catch (RuntimeException e) {
+            errorHandler.handleCachePutError(e, this, key, value);
+        }
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        try {
+            return super.putIfAbsent(key, value);
+        } catch (RuntimeException e) {
+            errorHandler.handleCachePutError(e, this, key, value);
+            return null;
+        }
+    }
+
+    @Override
+    public void evict(Object key) {
+        try {
+            super.evict(key);
+        } catch (RuntimeException e) {
+            errorHandler.handleCacheEvictError(e, this, key);
+        }
+    }
+
+    @Override
+    public void clear() {
+        try {
+            super.clear();
+        } catch (RuntimeException e) {
+            errorHandler.handleCacheClearError(e, this);
+        }
+    }
+
+    @Override
+    public List<ValueWrapper> getAll(List<?> keys) {
+        List<byte[]> cacheKeys = keys.stream().map(this::cacheKey).toList();
+        List<byte[]> values = DelegatingRedisCacheWriter.getAll(getCacheWriter(), getName(), cacheKeys);
+
+        List<ValueWrapper> wrappers = new ArrayList<>(values.size());
+        for (byte[] value : values) {
+            wrappers.add(value != null ? toValueWrapper(deserializeCacheValue(value)) : null);
+        }
+        return wrappers;
+    }
+
+    /**
+     * Null values are skipped, the regions do not cache them. Entries are written in one batch
+     * per distinct TTL, which with a fixed TTL is a single one.
+     */
+    @Override
+    public void putAll(Map<?, ?> entries) {
+        Map<Duration, List<Map.Entry<?, ?>>> byTtl = new LinkedHashMap<>();
+        for (Map.Entry<?, ?> entry : entries.entrySet()) {
+            if (entry.getValue() != null) {
+                Duration ttl = getCacheConfiguration().getTtlFunction().getTimeToLive(entry.getKey(), entry.getValue());
+                byTtl.computeIfAbsent(ttl, t -> new ArrayList<>()).add(entry);
+            }
+        }
+        byTtl.forEach((ttl, batch) -> DelegatingRedisCacheWriter.putAll(getCacheWriter(), getName(),
+                batch.stream().map(entry -> cacheKey(entry.getKey())).toList(),
+                batch.stream().map(entry -> serializeCacheValue(toStoreValue(entry.getValue()))).toList(),
+                ttl));
+    }
+
+    @Override
+    public void evictAll(Collection<?> keys) {
+        try {
+            DelegatingRedisCacheWriter.removeAll(getCacheWriter(), getName(),
+                    keys.stream().map(this::cacheKey).toList());
+        } catch (RuntimeException e) {
+            errorHandler.handleCacheEvictError(e, this, keys);
+        }
+    }
+
+    private byte[] cacheKey(Object key) {
+        return serializeCacheKey(createCacheKey(key));
+    }
+}
@@ -0,0 +1,27 @@
+package com.crm.common.cache;
+
+import org.springframework.cache.interceptor.CacheErrorHandler;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+
+/**
+ * {@link RedisCacheManager} creating {@link BatchRedisCache}s.
+ */
+public class BatchRedisCacheManager extends RedisCacheManager {
+
+    private final CacheErrorHandler errorHandler;
+
+    public BatchRedisCacheManager(RedisCacheWriter cacheWriter, RedisCacheConfiguration defaultCacheConfiguration,
+                                  CacheErrorHandler errorHandler) {
+        super(cacheWriter, defaultCacheConfiguration);
+        this.errorHandler = errorHandler;
+    }
+
+    @Override
+    protected RedisCache createRedisCache(String name, RedisCacheConfiguration cacheConfiguration) {
+        return new BatchRedisCache(name, getCacheWriter(),
+                cacheConfiguration != null ? cacheConfiguration : getDefaultCacheConfiguration(), errorHandler);
+    }
+}
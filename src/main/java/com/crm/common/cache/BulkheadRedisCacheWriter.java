@@ -0,0 +1,112 @@
+package com.crm.common.cache;
+
+import com.crm.common.resilience.Bulkhead;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Runs every Redis cache command inside a {@link Bulkhead}, capping concurrent Redis access.
+ */
+public class BulkheadRedisCacheWriter extends DelegatingRedisCacheWriter {
+
+    private final Bulkhead bulkhead;
+
+    public BulkheadRedisCacheWriter(RedisCacheWriter delegate, Bulkhead bulkhead) {
+        super(delegate);
+        this.bulkhead = bulkhead;
+    }
+
+    @Override
+    protected RedisCacheWriter decorate(RedisCacheWriter writer) {
+        return new BulkheadRedisCacheWriter(writer, bulkhead);
+    }
+
+    @Override
+    public byte[] get(String name, byte[] key) {
+        return bulkhead.execute(() -> delegate.get(name, key));
+    }
+
+    @Override
+    public byte[] get(String name, byte[] key, Duration ttl) {
+        return bulkhead.execute(() -> delegate.get(name, key, ttl));
+    }
+
+    /**
+     * The value loader runs outside the bulkhead: only the Redis round trips hold a permit,
+     * not the database load in between.
+     */
+    @Override
+    public byte[] get(String name, byte[] key, Supplier<byte[]> valueLoader, Duration ttl, boolean timeToIdleEnabled) {
+        byte[] cached = timeToIdleEnabled ? get(name, key, ttl) : get(name, key);
+        if (cached != null) {
+            return cached;
+        }
+        byte[] value = valueLoader.get();
+        put(name, key, value, ttl);
+        return value;
+    }
+
+    @Override
+    public CompletableFuture<byte[]> retrieve(String name, byte[] key, Duration ttl) {
+        bulkhead.acquire();
+        try {
+            return delegate.retrieve(name, key, ttl).whenComplete((value, error) -> bulkhead.release());
+        } catch (RuntimeException e) {
+            bulkhead.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public void put(String name, byte[] key, byte[] value, Duration ttl) {
+        bulkhead.execute(() -> delegate.put(name, key, value, ttl));
+    }
+
+    @Override
+    public CompletableFuture<Void> store(String name, byte[] key, byte[] value, Duration ttl) {
+        bulkhead.acquire();
+        try {
+            return delegate.store(name, key, value, ttl).whenComplete((result, error) -> bulkhead.release());
+        } catch (RuntimeException e) {
+            bulkhead.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public byte[] putIfAbsent(String name, byte[] key, byte[] value, Duration ttl) {
+        return bulkhead.execute(() -> delegate.putIfAbsent(name, key, value, ttl));
+    }
+
+    /**
+     * A batch holds one permit: it is a single round trip.
+     */
+    @Override
+    public List<byte[]> getAll(String name, List<byte[]> keys) {
+        return bulkhead.execute(() -> getAll(delegate, name, keys));
+    }
+
+    @Override
+    public void putAll(String name, List<byte[]> keys, List<byte[]> values, Duration ttl) {
+        bulkhead.execute(() -> putAll(delegate, name, keys, values, ttl));
+    }
+
+    @Override
+    public void remove(String name, byte[] key) {
+        bulkhead.execute(() -> delegate.remove(name, key));
+    }
+
+    @Override
+    public void removeAll(String name, List<byte[]> keys) {
+        bulkhead.execute(() -> removeAll(delegate, name, keys));
+    }
+
+    @Override
+    public void clean(String name, byte[] pattern) {
+        bulkhead.execute(() -> delegate.clean(name, pattern));
+    }
+}
@@ -0,0 +1,20 @@
+package com.crm.common.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Envelope stored in Redis around a cached value: how long the value took to compute and when
+ * the entry expires, the two inputs of probabilistic early refresh (XFetch).
+ * {@code expiresAt} is epoch millis, 0 when the entry does not expire.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheEntry {
+
+    private Object value;
+    private long computeMillis;
+    private long expiresAt;
+}
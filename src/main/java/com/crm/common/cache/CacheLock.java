@@ -0,0 +1,15 @@
+package com.crm.common.cache;
+
+/**
+ * Lock shared by all replicas, held by the one that recomputes a cache entry.
+ */
+public interface CacheLock {
+
+    /**
+     * @return a token to release the lock with, or {@code null} if another holder has it
+     * @throws RuntimeException if the lock store is unavailable
+     */
+    String tryAcquire(String name);
+
+    void release(String name, String token);
+}
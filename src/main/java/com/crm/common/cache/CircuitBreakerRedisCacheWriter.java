@@ -0,0 +1,178 @@
+package com.crm.common.cache;
+
+import com.crm.common.resilience.CircuitBreaker;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Runs every Redis cache command through a {@link CircuitBreaker}. While the breaker is open the
+ * commands fail immediately, and the cache error handler turns that into a cache miss, so requests
+ * go straight to the database instead of waiting for Redis.
+ *
+ * Evictions that fail or are rejected cannot simply be dropped: the entry would be served stale
+ * once Redis is back. Such regions are remembered and cleared as a whole after the breaker has
+ * closed again.
+ */
+@Slf4j
+public class CircuitBreakerRedisCacheWriter extends DelegatingRedisCacheWriter {
+
+    private final CircuitBreaker circuitBreaker;
+
+    private final Set<String> staleRegions;
+    private final AtomicBoolean clearingStaleRegions = new AtomicBoolean();
+
+    public CircuitBreakerRedisCacheWriter(RedisCacheWriter delegate, CircuitBreaker circuitBreaker) {
+        this(delegate, circuitBreaker, ConcurrentHashMap.newKeySet());
+    }
+
+    private CircuitBreakerRedisCacheWriter(RedisCacheWriter delegate, CircuitBreaker circuitBreaker, Set<String> staleRegions) {
+        super(delegate);
+        this.circuitBreaker = circuitBreaker;
+        this.staleRegions = staleRegions;
+    }
+
+    @Override
+    protected RedisCacheWriter decorate(RedisCacheWriter writer) {
+        return new CircuitBreakerRedisCacheWriter(writer, circuitBreaker, staleRegions);
+    }
+
+    @Override
+    public byte[] get(String name, byte[] key) {
+        return execute(() -> delegate.get(name, key));
+    }
+
+    @Override
+    public byte[] get(String name, byte[] key, Duration ttl) {
+        return execute(() -> delegate.get(name, key, ttl));
+    }
+
+    /**
+     * Read and write are guarded separately so a slow value loader is not counted against Redis.
+     */
+    @Override
+    public byte[] get(String name, byte[] key, Supplier<byte[]> valueLoader, Duration ttl, boolean timeToIdleEnabled) {
+        byte[] cached = timeToIdleEnabled ? get(name, key, ttl) : get(name, key);
+        if (cached != null) {
+            return cached;
+        }
+        byte[] value = valueLoader.get();
+        put(name, key, value, ttl);
+        return value;
+    }
+
+    @Override
+    public CompletableFuture<byte[]> retrieve(String name, byte[] key, Duration ttl) {
+        return executeAsync(() -> delegate.retrieve(name, key, ttl));
+    }
+
+    @Override
+    public void put(String name, byte[] key, byte[] value, Duration ttl) {
+        execute(() -> delegate.put(name, key, value, ttl));
+    }
+
+    @Override
+    public CompletableFuture<Void> store(String name, byte[] key, byte[] value, Duration ttl) {
+        return executeAsync(() -> delegate.store(name, key, value, ttl));
+    }
+
+    @Override
+    public byte[] putIfAbsent(String name, byte[] key, byte[] value, Duration ttl) {
+        return execute(() -> delegate.putIfAbsent(name, key, value, ttl));
+    }
+
+    @Override
+    public List<byte[]> getAll(String name, List<byte[]> keys) {
+        return execute(() -> getAll(delegate, name, keys));
+    }
+
+    @Override
+    public void putAll(String name, List<byte[]> keys, List<byte[]> values, Duration ttl) {
+        execute(() -> putAll(delegate, name, keys, values, ttl));
+    }
+
+    @Override
+    public void remove(String name, byte[] key) {
+        try {
+            execute(() -> delegate.remove(name, key));
+        } catch (RuntimeException e) {
+            staleRegions.add(name);
+            throw e;
+        }
+    }
+
+    @Override
+    public void removeAll(String name, List<byte[]> keys) {
+        try {
+            execute(() -> removeAll(delegate, name, keys));
+        } catch (RuntimeException e) {
+            staleRegions.add(name);
+            throw e;
+        }
+    }
+
+    @Override
+    public void clean(String name, byte[] pattern) {
+        try {
+            execute(() -> delegate.clean(name, pattern));
+        } catch (RuntimeException e) {
+            staleRegions.add(name);
+            throw e;
+        }
+    }
+
+    private void execute(Runnable command) {
+        circuitBreaker.execute(command);
+        clearStaleRegions();
+    }
+
+    private <T> T execute(Supplier<T> command) {
+        T result = circuitBreaker.execute(command);
+        clearStaleRegions();
+        return result;
+    }
+
+    private <T> CompletableFuture<T> executeAsync(Supplier<CompletableFuture<T>> command) {
+        circuitBreaker.acquirePermission();
+        long start = System.nanoTime();
+        CompletableFuture<T> future;
+        try {
+            future = command.get();
+        } catch (RuntimeException e) {
+            circuitBreaker.onResult(System.nanoTime() - start, true);
+            throw e;
+        }
+        return future.whenComplete((value, error) -> circuitBreaker.onResult(System.nanoTime() - start, error != null));
+    }
+
+    /**
+     * Clears the regions whose evictions were lost, once Redis answers normally again.
+     * Keys follow the default {@code <cache>::<key>} prefix of the cache manager.
+     */
+    private void clearStaleRegions() {
+        if (staleRegions.isEmpty()
+                || circuitBreaker.getState() != CircuitBreaker.State.CLOSED
+                || !clearingStaleRegions.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            for (String name : Set.copyOf(staleRegions)) {
+                circuitBreaker.execute(() -> delegate.clean(name, (name + "::*").getBytes(StandardCharsets.UTF_8)));
+                staleRegions.remove(name);
+                log.info("Cleared cache region '{}' after evictions were lost while Redis was unavailable", name);
+            }
+        } catch (RuntimeException e) {
+            log.debug("Clearing stale cache regions failed, retrying on a later call: {}", e.getMessage());
+        } finally {
+            clearingStaleRegions.set(false);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.crm.common.cache;
+
+import com.crm.common.exception.CircuitBreakerOpenException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.interceptor.CacheErrorHandler;
+
+/**
+ * Treats cache failures as misses instead of failing the request: a failed get falls through to
+ * the cached method, failed puts and evictions are skipped. Every swallowed failure is counted in
+ * crm.cache.errors; it is logged at WARN only for real Redis errors, since rejections by the open
+ * circuit breaker would otherwise log once per request.
+ */
+@Slf4j
+public class DegradingCacheErrorHandler implements CacheErrorHandler {
+
+    private final MeterRegistry registry;
+
+    public DegradingCacheErrorHandler(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public void handleCacheGetError(RuntimeException exception, Cache cache, Object key) {
+        handle("get", exception, cache, key);
+    }
+
+    @Override
+    public void handleCachePutError(RuntimeException exception, Cache cache, Object key, Object value) {
+        handle("put", exception, cache, key);
+    }
+
+    @Override
+    public void handleCacheEvictError(RuntimeException exception, Cache cache, Object key) {
+        handle("evict", exception, cache, key);
+    }
+
+    @Override
+    public void handleCacheClearError(RuntimeException exception, Cache cache) {
+        handle("clear", exception, cache, "*");
+    }
+
+    private void handle(String operation, RuntimeException exception, Cache cache, Object key) {
+        boolean rejected = exception instanceof CircuitBreakerOpenException;
+        Counter.builder("crm.cache.errors")
+                .description("Cache operations that failed and were bypassed")
+                .tag("cache", cache.getName())
+                .tag("operation", operation)
+                .tag("reason", rejected ? "circuit-open" : "error")
+                .register(registry)
+                .increment();
+
+        if (rejected) {
+            log.debug("Cache {} on {}[{}] skipped: {}", operation, cache.getName(), key, exception.getMessage());
+        } else {
+            log.warn("Cache {} on {}[{}] failed, bypassing the cache: {}",
+                    operation, cache.getName(), key, exception.toString());
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.crm.common.cache;
+
+import org.springframework.data.redis.cache.CacheStatistics;
+import org.springframework.data.redis.cache.CacheStatisticsCollector;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Base for {@link RedisCacheWriter} decorators; forwards every operation to the delegate.
+ * Adds multi-key reads, writes and removals, which {@link RedisCacheWriter} lacks: decorators pass them on
+ * as one batch, and a writer without batch support gets the keys one by one.
+ */
+public abstract class DelegatingRedisCacheWriter implements RedisCacheWriter {
+
+    protected final RedisCacheWriter delegate;
+
+    protected DelegatingRedisCacheWriter(RedisCacheWriter delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * Applies this decorator to another writer; used by {@link #withStatisticsCollector}.
+     */
+    protected abstract RedisCacheWriter decorate(RedisCacheWriter writer);
+
+    @Override
+    public byte[] get(String name, byte[] key) {
+        return delegate.get(name, key);
+    }
+
+    @Override
+    public byte[] get(String name, byte[] key, Duration ttl) {
+        return delegate.get(name, key, ttl);
+    }
+
+    @Override
+    public byte[] get(String name, byte[] key, Supplier<byte[]> valueLoader, Duration ttl, boolean timeToIdleEnabled) {
+        return delegate.get(name, key, valueLoader, ttl, timeToIdleEnabled);
+    }
+
+    @Override
+    public boolean supportsAsyncRetrieve() {
+        return delegate.supportsAsyncRetrieve();
+    }
+
+    @Override
+    public CompletableFuture<byte[]> retrieve(String name, byte[] key, Duration ttl) {
+        return delegate.retrieve(name, key, ttl);
+    }
+
+    @Override
+    public void put(String name, byte[] key, byte[] value, Duration ttl) {
+        delegate.put(name, key, value, ttl);
+    }
+
+    @Override
+    public CompletableFuture<Void> store(String name, byte[] key, byte[] value, Duration ttl) {
+        return delegate.store(name, key, value, ttl);
+    }
+
+    @Override
+    public byte[] putIfAbsent(String name, byte[] key, byte[] value, Duration ttl) {
+        return delegate.putIfAbsent(name, key, value, ttl);
+    }
+
+    @Override
+    public void remove(String name, byte[] key) {
+        delegate.remove(name, key);
+    }
+
+    @Override
+    public void clean(String name, byte[] pattern) {
+        delegate.clean(name, pattern);
+    }
+
+    /**
+     * Values of several keys of one region in key order, {@code null} for misses.
+     */
+    public List<byte[]> getAll(String name, List<byte[]> keys) {
+        return getAll(delegate, name, keys);
+    }
+
+    /**
+     * Writes {@code values[i]} under {@code keys[i]}, all with the same TTL.
+     */
+    public void putAll(String name, List<byte[]> keys, List<byte[]> values, Duration ttl) {
+        putAll(delegate, name, keys, values, ttl);
+    }
+
+    /**
+     * Removes several keys of one region.
+     */
+    public void removeAll(String name, List<byte[]> keys) {
+        removeAll(delegate, name, keys);
+    }
+
+    static List<byte[]> getAll(RedisCacheWriter writer, String name, List<byte[]> keys) {
+        if (writer instanceof DelegatingRedisCacheWriter batching) {
+            return batching.getAll(name, keys);
+        }
+        List<byte[]> values = new ArrayList<>(keys.size());
+        for (byte[] key : keys) {
+            values.add(writer.get(name, key));
+        }
+        return values;
+    }
+
+    static void putAll(RedisCacheWriter writer, String name, List<byte[]> keys, List<byte[]> values, Duration ttl) {
+        if (writer instanceof DelegatingRedisCacheWriter batching) {
+            batching.putAll(name, keys, values, ttl);
+            return;
+        }
+        for (int i = 0; i < keys.size(); i++) {
+            writer.put(name, keys.get(i), values.get(i), ttl);
+        }
+    }
+
+    static void removeAll(RedisCacheWriter writer, String name, List<byte[]> keys) {
+        if (writer instanceof DelegatingRedisCacheWriter batching) {
+            batching.removeAll(name, keys);
+            return;
+        }
+        for (byte[] key : keys) {
+            writer.remove(name, key);
+        }
+    }
+
+    @Override
+    public void clearStatistics(String name) {
+        delegate.clearStatistics(name);
+    }
+
+    @Override
+    public RedisCacheWriter withStatisticsCollector(CacheStatisticsCollector cacheStatisticsCollector) {
+        return decorate(delegate.withStatisticsCollector(cacheStatisticsCollector));
+    }
+
+    @Override
+    public CacheStatistics getCacheStatistics(String cacheName) {
+        return delegate.getCacheStatistics(cacheName);
+    }
+}
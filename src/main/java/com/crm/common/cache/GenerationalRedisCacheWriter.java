@@ -0,0 +1,305 @@
+package com.crm.common.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.core.types.Expiration;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Generation- and version-stamped cache keys. Each region has a counter under {@code gen:<cache>},
+ * each evicted key a version under {@code ver:<cache>::<key>}, and every key is rewritten from
+ * {@code <cache>::<key>} to {@code <cache>::<generation>.<version>::<key>}. Clearing a region
+ * ({@code allEntries = true}) increments the generation instead of a SCAN+DEL sweep, evicting a key
+ * moves its version on; either way it costs one command, and entries under an old stamp are never
+ * read again and expire with their TTL.
+ *
+ * Versions are drawn from a per-region sequence ({@code seq:<cache>}) so a stamp is never reused,
+ * and expire after {@code versionTtl}, which must exceed the entry TTL: by then every entry written
+ * under the missing version (0) has expired as well.
+ *
+ * The stamp seen by a read doubles as a version token for the value loaded after it: the
+ * following put on the same thread is dropped if the key was evicted or the region cleared in
+ * between, so a reader that loaded a row just before a concurrent update committed cannot write the
+ * old value back. This relies on evictions running after commit (transaction-aware cache manager).
+ * Single-key reads record their stamp on a hit as well, since an early refresh reloads an entry
+ * that is still cached. Batch reads record misses only, and batch puts go further and only write
+ * keys read under the current stamp.
+ *
+ * Batch reads and writes are one MGET of the stamps, then one MGET, respectively one pipeline of
+ * SETs, of the values; batch evictions are one pipeline of version bumps. The default writer
+ * underneath has no multi-key commands.
+ */
+@Slf4j
+public class GenerationalRedisCacheWriter extends DelegatingRedisCacheWriter {
+
+    private static final int MAX_PENDING_MISSES = 4096;
+
+    private static final RedisScript<Long> EVICT = new DefaultRedisScript<>(
+            "local version = redis.call('incr', KEYS[1]) " +
+                    "redis.call('set', KEYS[2], version, 'px', ARGV[1]) return version",
+            Long.class);
+
+    private final StringRedisTemplate redis;
+    private final Duration versionTtl;
+
+    /**
+     * Stamp observed by each recent read on this thread, by unstamped key.
+     */
+    private final ThreadLocal<Map<String, String>> readStamps;
+
+    public GenerationalRedisCacheWriter(RedisCacheWriter delegate, StringRedisTemplate redis, Duration versionTtl) {
+        this(delegate, redis, versionTtl, ThreadLocal.withInitial(() -> new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                return size() > MAX_PENDING_MISSES;
+            }
+        }));
+    }
+
+    private GenerationalRedisCacheWriter(RedisCacheWriter delegate, StringRedisTemplate redis, Duration versionTtl,
+                                         ThreadLocal<Map<String, String>> readStamps) {
+        super(delegate);
+        this.redis = redis;
+        this.versionTtl = versionTtl;
+        this.readStamps = readStamps;
+    }
+
+    @Override
+    protected RedisCacheWriter decorate(RedisCacheWriter writer) {
+        return new GenerationalRedisCacheWriter(writer, redis, versionTtl, readStamps);
+    }
+
+    /**
+     * Current generation of a region, 0 until it is first cleared.
+     */
+    public long generation(String name) {
+        String generation = redis.opsForValue().get(generationKey(name));
+        return generation != null ? Long.parseLong(generation) : 0;
+    }
+
+    @Override
+    public byte[] get(String name, byte[] key) {
+        String stamp = stamp(name, key);
+        return recordRead(key, stamp, delegate.get(name, stamped(name, key, stamp)));
+    }
+
+    @Override
+    public byte[] get(String name, byte[] key, Duration ttl) {
+        String stamp = stamp(name, key);
+        return recordRead(key, stamp, delegate.get(name, stamped(name, key, stamp), ttl));
+    }
+
+    @Override
+    public byte[] get(String name, byte[] key, Supplier<byte[]> valueLoader, Duration ttl, boolean timeToIdleEnabled) {
+        return delegate.get(name, stamped(name, key, stamp(name, key)), valueLoader, ttl, timeToIdleEnabled);
+    }
+
+    @Override
+    public CompletableFuture<byte[]> retrieve(String name, byte[] key, Duration ttl) {
+        return delegate.retrieve(name, stamped(name, key, stamp(name, key)), ttl);
+    }
+
+    @Override
+    public void put(String name, byte[] key, byte[] value, Duration ttl) {
+        String stamp = stampForPut(name, key);
+        if (stamp != null) {
+            delegate.put(name, stamped(name, key, stamp), value, ttl);
+        }
+    }
+
+    @Override
+    public CompletableFuture<Void> store(String name, byte[] key, byte[] value, Duration ttl) {
+        return delegate.store(name, stamped(name, key, stamp(name, key)), value, ttl);
+    }
+
+    @Override
+    public byte[] putIfAbsent(String name, byte[] key, byte[] value, Duration ttl) {
+        String stamp = stampForPut(name, key);
+        return stamp != null ? delegate.putIfAbsent(name, stamped(name, key, stamp), value, ttl) : null;
+    }
+
+    @Override
+    public List<byte[]> getAll(String name, List<byte[]> keys) {
+        if (keys.isEmpty()) {
+            return List.of();
+        }
+        List<String> stamps = stamps(name, keys);
+        byte[][] stampedKeys = new byte[keys.size()][];
+        for (int i = 0; i < keys.size(); i++) {
+            stampedKeys[i] = stamped(name, keys.get(i), stamps.get(i));
+        }
+        List<byte[]> values = redis.execute((RedisCallback<List<byte[]>>) connection ->
+                connection.stringCommands().mGet(stampedKeys));
+        for (int i = 0; i < keys.size(); i++) {
+            recordMiss(keys.get(i), stamps.get(i), values.get(i));
+        }
+        return values;
+    }
+
+    @Override
+    public void putAll(String name, List<byte[]> keys, List<byte[]> values, Duration ttl) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        List<String> stamps = stamps(name, keys);
+        Map<String, String> misses = readStamps.get();
+        List<byte[]> writeKeys = new ArrayList<>(keys.size());
+        List<byte[]> writeValues = new ArrayList<>(keys.size());
+        for (int i = 0; i < keys.size(); i++) {
+            String seen = misses.remove(new String(keys.get(i), StandardCharsets.UTF_8));
+            if (stamps.get(i).equals(seen)) {
+                writeKeys.add(stamped(name, keys.get(i), seen));
+                writeValues.add(values.get(i));
+            }
+        }
+        if (writeKeys.size() < keys.size()) {
+            log.debug("Dropping {} of {} batched puts to {} not preceded by a read of the same stamp",
+                    keys.size() - writeKeys.size(), keys.size(), name);
+        }
+        if (writeKeys.isEmpty()) {
+            return;
+        }
+        Expiration expiration = ttl == null || ttl.isZero() || ttl.isNegative()
+                ? Expiration.persistent()
+                : Expiration.from(ttl);
+        redis.executePipelined((RedisCallback<Object>) connection -> {
+            for (int i = 0; i < writeKeys.size(); i++) {
+                connection.stringCommands().set(writeKeys.get(i), writeValues.get(i), expiration,
+                        RedisStringCommands.SetOption.upsert());
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Moves the key to a fresh version; the entry under the old stamp is left to expire.
+     */
+    @Override
+    public void remove(String name, byte[] key) {
+        redis.execute(EVICT, List.of(sequenceKey(name), versionKey(key)), String.valueOf(versionTtl.toMillis()));
+    }
+
+    /**
+     * {@link #remove} for several keys, one script call each in a single pipeline.
+     */
+    @Override
+    public void removeAll(String name, List<byte[]> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        byte[] script = EVICT.getScriptAsString().getBytes(StandardCharsets.UTF_8);
+        byte[] sequence = sequenceKey(name).getBytes(StandardCharsets.UTF_8);
+        byte[] ttl = String.valueOf(versionTtl.toMillis()).getBytes(StandardCharsets.UTF_8);
+        redis.executePipelined((RedisCallback<Object>) connection -> {
+            for (byte[] key : keys) {
+                connection.scriptingCommands().eval(script, ReturnType.INTEGER, 2,
+                        sequence, versionKey(key).getBytes(StandardCharsets.UTF_8), ttl);
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public void clean(String name, byte[] pattern) {
+        if (Arrays.equals(pattern, (name + "::*").getBytes(StandardCharsets.UTF_8))) {
+            redis.opsForValue().increment(generationKey(name));
+        } else {
+            delegate.clean(name, stamped(name, pattern, generation(name) + ".*"));
+        }
+    }
+
+    private byte[] recordRead(byte[] key, String stamp, byte[] value) {
+        readStamps.get().put(new String(key, StandardCharsets.UTF_8), stamp);
+        return value;
+    }
+
+    private byte[] recordMiss(byte[] key, String stamp, byte[] value) {
+        String pendingKey = new String(key, StandardCharsets.UTF_8);
+        if (value == null) {
+            readStamps.get().put(pendingKey, stamp);
+        } else {
+            readStamps.get().remove(pendingKey);
+        }
+        return value;
+    }
+
+    /**
+     * Stamp to write under, or {@code null} if the key was evicted or the region cleared since
+     * this thread's read of the key and the value is therefore possibly stale.
+     */
+    private String stampForPut(String name, byte[] key) {
+        String seen = readStamps.get().remove(new String(key, StandardCharsets.UTF_8));
+        String current = stamp(name, key);
+        if (seen != null && !seen.equals(current)) {
+            log.debug("Dropping cache put of {} loaded at {}, key is at {}",
+                    new String(key, StandardCharsets.UTF_8), seen, current);
+            return null;
+        }
+        return current;
+    }
+
+    String stamp(String name, byte[] key) {
+        return stamps(name, List.of(key)).get(0);
+    }
+
+    /**
+     * {@code <generation>.<version>} of each key, read with a single MGET.
+     */
+    private List<String> stamps(String name, List<byte[]> keys) {
+        List<String> counters = new ArrayList<>(keys.size() + 1);
+        counters.add(generationKey(name));
+        keys.forEach(key -> counters.add(versionKey(key)));
+        List<String> current = redis.opsForValue().multiGet(counters);
+
+        String generation = counterValue(current, 0);
+        List<String> stamps = new ArrayList<>(keys.size());
+        for (int i = 1; i <= keys.size(); i++) {
+            stamps.add(generation + "." + counterValue(current, i));
+        }
+        return stamps;
+    }
+
+    static byte[] stamped(String name, byte[] key, String stamp) {
+        String original = new String(key, StandardCharsets.UTF_8);
+        String prefix = name + "::";
+        String stamped = original.startsWith(prefix)
+                ? prefix + stamp + "::" + original.substring(prefix.length())
+                : stamp + "::" + original;
+        return stamped.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String counterValue(List<String> values, int index) {
+        String value = values != null ? values.get(index) : null;
+        return value != null ? value : "0";
+    }
+
+    /**
+     * Redis key of the generation counter of a region.
+     */
+    public static String generationKey(String name) {
+        return "gen:" + name;
+    }
+
+    private static String sequenceKey(String name) {
+        return "seq:" + name;
+    }
+
+    private static String versionKey(byte[] key) {
+        return "ver:" + new String(key, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,137 @@
+package com.crm.common.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Normalized caching of query results: a list is cached as the ordered ids of its rows in an id
+ * list region, the rows themselves once each in their entity region, keyed by id like the
+ * {@code @Cacheable} by-id lookups that share it. A list hit is hydrated with one batch read of the
+ * entity region; rows missing there are loaded with one query by id and written back in one batch.
+ *
+ * A row thus lives in Redis once instead of in every list containing it, and a change to it
+ * evicts its entity entry and only the id lists whose membership it changes.
+ *
+ * Entities are only written after a miss of their own key, never straight from a list query,
+ * so the version token of the miss protects them against concurrent updates like any other entry.
+ */
+@Component
+public class IdListCache {
+
+    private final CacheManager cacheManager;
+
+    public IdListCache(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    /**
+     * @param listRegion   region of the id list
+     * @param listKey      key of the id list within it
+     * @param entityRegion region of the rows, keyed by id
+     * @param query        the list query, run on a list miss; its result is returned as is
+     * @param idOf         id of a row
+     * @param loadByIds    rows of the given ids, in any order; ids without a row are skipped
+     */
+    public <T> List<T> getList(String listRegion, Object listKey, String entityRegion,
+                               Supplier<List<T>> query, Function<T, Long> idOf,
+                               Function<Collection<Long>, List<T>> loadByIds) {
+        Cache lists = cacheManager.getCache(listRegion);
+        if (lists == null) {
+            return query.get();
+        }
+
+        List<List<T>> loaded = new ArrayList<>(1);
+        List<?> ids;
+        try {
+            ids = lists.get(listKey, () -> {
+                List<T> rows = query.get();
+                loaded.add(rows);
+                return rows.stream().map(idOf).collect(Collectors.toList());
+            });
+        } catch (Cache.ValueRetrievalException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+        if (!loaded.isEmpty()) {
+            return loaded.get(0);
+        }
+        return hydrate(entityRegion, toLongs(ids), idOf, loadByIds);
+    }
+
+    /**
+     * Evicts the given keys of a region, in one batch where the cache supports it; after commit
+     * when called in a transaction.
+     */
+    public void evict(String region, Collection<?> keys) {
+        Cache cache = cacheManager.getCache(region);
+        if (cache instanceof BatchCache batch) {
+            batch.evictAll(keys);
+        } else if (cache != null) {
+            keys.forEach(cache::evict);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> List<T> hydrate(String entityRegion, List<Long> ids, Function<T, Long> idOf,
+                                Function<Collection<Long>, List<T>> loadByIds) {
+        Cache entities = cacheManager.getCache(entityRegion);
+        List<Cache.ValueWrapper> cached;
+        if (entities instanceof BatchCache batch) {
+            cached = batch.getAll(ids);
+        } else {
+            cached = new ArrayList<>(ids.size());
+            for (Long id : ids) {
+                cached.add(entities != null ? entities.get(id) : null);
+            }
+        }
+
+        Map<Long, T> rows = new HashMap<>(ids.size() * 2);
+        List<Long> missing = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i++) {
+            Cache.ValueWrapper wrapper = cached.get(i);
+            if (wrapper != null && wrapper.get() != null) {
+                rows.put(ids.get(i), (T) wrapper.get());
+            } else {
+                missing.add(ids.get(i));
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            Map<Long, T> fresh = new LinkedHashMap<>();
+            loadByIds.apply(missing).forEach(row -> fresh.put(idOf.apply(row), row));
+            rows.putAll(fresh);
+            if (entities instanceof BatchCache batch) {
+                batch.putAll(fresh);
+            } else if (entities != null) {
+                fresh.forEach(entities::put);
+            }
+        }
+
+        // Rows deleted since the list was cached are left out
+        return ids.stream()
+                .map(rows::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Cached ids come back as Integers when they fit, depending on the serializer.
+     */
+    private static List<Long> toLongs(List<?> ids) {
+        return ids.stream().map(id -> ((Number) id).longValue()).toList();
+    }
+}
@@ -0,0 +1,247 @@
+package com.crm.common.cache;
+
+import com.crm.common.profiling.CacheLookupEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.cache.Cache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Cache decorator publishing hit/miss, put, eviction and load-time metrics for one cache region,
+ * and {@link CacheLookupEvent}s while a JFR recording is running.
+ *
+ * With {@code @Cacheable(sync = true)} the load time is that of the value loader passed to
+ * {@link #get(Object, Callable)}. With non-sync {@code @Cacheable} the interceptor calls
+ * {@link #get(Object)}, invokes the method on a miss and then {@link #put(Object, Object)} on the
+ * same thread, so the load time is the interval between the miss and the put of the same key.
+ * Batch reads and writes count every key; their loads are timed by the caller, not here.
+ */
+public class InstrumentedCache implements BatchCache {
+
+    private final Cache delegate;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter puts;
+    private final Counter keyEvictions;
+    private final Counter clears;
+    private final Timer loads;
+
+    private final ThreadLocal<PendingLoad> pendingLoad = new ThreadLocal<>();
+
+    private record PendingLoad(Object key, long startNanos) {
+    }
+
+    public InstrumentedCache(Cache delegate, MeterRegistry registry) {
+        this.delegate = delegate;
+        String name = delegate.getName();
+
+        this.hits = gets(registry, name, "hit");
+        this.misses = gets(registry, name, "miss");
+        this.puts = Counter.builder("crm.cache.puts")
+                .description("Entries written to the cache")
+                .tag("cache", name)
+                .register(registry);
+        this.keyEvictions = evictions(registry, name, "key");
+        this.clears = evictions(registry, name, "all");
+        this.loads = Timer.builder("crm.cache.load")
+                .description("Time spent loading a value after a cache miss")
+                .tag("cache", name)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        CacheLookupEvent event = new CacheLookupEvent();
+        event.begin();
+        ValueWrapper value = delegate.get(key);
+        commit(event, key, value != null);
+        return recordGet(key, value);
+    }
+
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+        CacheLookupEvent event = new CacheLookupEvent();
+        event.begin();
+        T value = delegate.get(key, type);
+        commit(event, key, value != null);
+        return recordGet(key, value);
+    }
+
+    @Override
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        CacheLookupEvent event = new CacheLookupEvent();
+        event.begin();
+        boolean[] loaded = new boolean[1];
+        T value = delegate.get(key, () -> {
+            loaded[0] = true;
+            return loads.recordCallable(valueLoader);
+        });
+        commit(event, key, !loaded[0]);
+        (loaded[0] ? misses : hits).increment();
+        return value;
+    }
+
+    @Override
+    public CompletableFuture<?> retrieve(Object key) {
+        CompletableFuture<?> future = delegate.retrieve(key);
+        return future == null ? null : future.whenComplete((value, error) -> {
+            if (error == null) {
+                (value != null ? hits : misses).increment();
+            }
+        });
+    }
+
+    @Override
+    public <T> CompletableFuture<T> retrieve(Object key, Supplier<CompletableFuture<T>> valueLoader) {
+        boolean[] loaded = new boolean[1];
+        return delegate.retrieve(key, () -> {
+            loaded[0] = true;
+            Timer.Sample sample = Timer.start();
+            return valueLoader.get().whenComplete((value, error) -> sample.stop(loads));
+        }).whenComplete((value, error) -> (loaded[0] ? misses : hits).increment());
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        recordLoad(key);
+        puts.increment();
+        delegate.put(key, value);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        recordLoad(key);
+        puts.increment();
+        return delegate.putIfAbsent(key, value);
+    }
+
+    @Override
+    public List<ValueWrapper> getAll(List<?> keys) {
+        List<ValueWrapper> values;
+        if (delegate instanceof BatchCache batch) {
+            values = batch.getAll(keys);
+        } else {
+            values = new ArrayList<>(keys.size());
+            for (Object key : keys) {
+                values.add(delegate.get(key));
+            }
+        }
+        long found = values.stream().filter(Objects::nonNull).count();
+        hits.increment(found);
+        misses.increment(keys.size() - found);
+        return values;
+    }
+
+    @Override
+    public void putAll(Map<?, ?> entries) {
+        puts.increment(entries.size());
+        if (delegate instanceof BatchCache batch) {
+            batch.putAll(entries);
+        } else {
+            entries.forEach(delegate::put);
+        }
+    }
+
+    @Override
+    public void evictAll(Collection<?> keys) {
+        keyEvictions.increment(keys.size());
+        if (delegate instanceof BatchCache batch) {
+            batch.evictAll(keys);
+        } else {
+            keys.forEach(delegate::evict);
+        }
+    }
+
+    @Override
+    public void evict(Object key) {
+        keyEvictions.increment();
+        delegate.evict(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        keyEvictions.increment();
+        return delegate.evictIfPresent(key);
+    }
+
+    @Override
+    public void clear() {
+        clears.increment();
+        delegate.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        clears.increment();
+        return delegate.invalidate();
+    }
+
+    private void commit(CacheLookupEvent event, Object key, boolean hit) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.cache = delegate.getName();
+            event.key = String.valueOf(key);
+            event.hit = hit;
+            event.commit();
+        }
+    }
+
+    private <T> T recordGet(Object key, T value) {
+        if (value != null) {
+            hits.increment();
+            pendingLoad.remove();
+        } else {
+            misses.increment();
+            pendingLoad.set(new PendingLoad(key, System.nanoTime()));
+        }
+        return value;
+    }
+
+    private void recordLoad(Object key) {
+        PendingLoad pending = pendingLoad.get();
+        if (pending != null) {
+            pendingLoad.remove();
+            if (pending.key().equals(key)) {
+                loads.record(System.nanoTime() - pending.startNanos(), TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    private static Counter gets(MeterRegistry registry, String name, String result) {
+        return Counter.builder("crm.cache.gets")
+                .description("Cache lookups")
+                .tag("cache", name)
+                .tag("result", result)
+                .register(registry);
+    }
+
+    private static Counter evictions(MeterRegistry registry, String name, String scope) {
+        return Counter.builder("crm.cache.evictions")
+                .description("Cache evictions, per key or of the whole region")
+                .tag("cache", name)
+                .tag("scope", scope)
+                .register(registry);
+    }
+}
@@ -0,0 +1,114 @@
+package com.crm.common.cache;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Records the serialized size of every value read from or written to Redis,
+ * per cache region. The writer is the only layer that sees the encoded bytes.
+ * Summaries are registered once per region and operation and shared with decorated copies.
+ */
+public class InstrumentedRedisCacheWriter extends DelegatingRedisCacheWriter {
+
+    private final MeterRegistry registry;
+    private final Map<String, DistributionSummary> summaries;
+
+    public InstrumentedRedisCacheWriter(RedisCacheWriter delegate, MeterRegistry registry) {
+        this(delegate, registry, new ConcurrentHashMap<>());
+    }
+
+    private InstrumentedRedisCacheWriter(RedisCacheWriter delegate, MeterRegistry registry,
+                                         Map<String, DistributionSummary> summaries) {
+        super(delegate);
+        this.registry = registry;
+        this.summaries = summaries;
+    }
+
+    @Override
+    protected RedisCacheWriter decorate(RedisCacheWriter writer) {
+        return new InstrumentedRedisCacheWriter(writer, registry, summaries);
+    }
+
+    @Override
+    public byte[] get(String name, byte[] key) {
+        return recordRead(name, delegate.get(name, key));
+    }
+
+    @Override
+    public byte[] get(String name, byte[] key, Duration ttl) {
+        return recordRead(name, delegate.get(name, key, ttl));
+    }
+
+    @Override
+    public byte[] get(String name, byte[] key, Supplier<byte[]> valueLoader, Duration ttl, boolean timeToIdleEnabled) {
+        return delegate.get(name, key, () -> recordWrite(name, valueLoader.get()), ttl, timeToIdleEnabled);
+    }
+
+    @Override
+    public CompletableFuture<byte[]> retrieve(String name, byte[] key, Duration ttl) {
+        return delegate.retrieve(name, key, ttl).thenApply(value -> recordRead(name, value));
+    }
+
+    @Override
+    public void put(String name, byte[] key, byte[] value, Duration ttl) {
+        delegate.put(name, key, recordWrite(name, value), ttl);
+    }
+
+    @Override
+    public CompletableFuture<Void> store(String name, byte[] key, byte[] value, Duration ttl) {
+        return delegate.store(name, key, recordWrite(name, value), ttl);
+    }
+
+    @Override
+    public byte[] putIfAbsent(String name, byte[] key, byte[] value, Duration ttl) {
+        return delegate.putIfAbsent(name, key, recordWrite(name, value), ttl);
+    }
+
+    @Override
+    public List<byte[]> getAll(String name, List<byte[]> keys) {
+        List<byte[]> values = getAll(delegate, name, keys);
+        values.forEach(value -> recordRead(name, value));
+        return values;
+    }
+
+    @Override
+    public void putAll(String name, List<byte[]> keys, List<byte[]> values, Duration ttl) {
+        values.forEach(value -> recordWrite(name, value));
+        putAll(delegate, name, keys, values, ttl);
+    }
+
+    private byte[] recordRead(String name, byte[] value) {
+        if (value != null) {
+            payloadSize(name, "read").record(value.length);
+        }
+        return value;
+    }
+
+    private byte[] recordWrite(String name, byte[] value) {
+        if (value != null) {
+            payloadSize(name, "write").record(value.length);
+        }
+        return value;
+    }
+
+    private DistributionSummary payloadSize(String name, String operation) {
+        return summaries.computeIfAbsent(operation + ':' + name, key ->
+                DistributionSummary.builder("crm.cache.payload.size")
+                        .description("Serialized size of cache values")
+                        .baseUnit("bytes")
+                        .tag("cache", name)
+                        .tag("operation", operation)
+                        .publishPercentileHistogram()
+                        .minimumExpectedValue(64.0)
+                        .maximumExpectedValue(4.0 * 1024 * 1024)
+                        .register(registry));
+    }
+}
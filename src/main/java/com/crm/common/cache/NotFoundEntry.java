@@ -0,0 +1,43 @@
+package com.crm.common.cache;
+
+import com.crm.customers.exceptions.EntityNotFoundException;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+
+import java.time.Duration;
+
+/**
+ * Negative cache entry: the lookup of a key found no entity. Stored in place of the value, inside
+ * a {@link CacheEntry}, and kept for a shorter TTL than values: creating an entity evicts its key,
+ * but rows inserted other than through the services do not.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotFoundEntry {
+
+    private String entityName;
+    private Object id;
+
+    public static NotFoundEntry of(EntityNotFoundException e) {
+        return new NotFoundEntry(e.getEntityName(), e.getId());
+    }
+
+    public EntityNotFoundException toException() {
+        return new EntityNotFoundException(entityName, id);
+    }
+
+    /**
+     * {@code ttl} for values, {@code notFoundTtl} for negative entries, bare or enveloped.
+     */
+    public static RedisCacheWriter.TtlFunction timeToLive(Duration ttl, Duration notFoundTtl) {
+        return (key, value) -> isNotFound(value) ? notFoundTtl : ttl;
+    }
+
+    static boolean isNotFound(Object value) {
+        return value instanceof NotFoundEntry
+                || value instanceof CacheEntry entry && entry.getValue() instanceof NotFoundEntry;
+    }
+}
@@ -0,0 +1,48 @@
+package com.crm.common.cache;
+
+import com.crm.common.resilience.CircuitBreaker;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * {@link CacheLock} on a Redis key set with NX and a lease, so a crashed holder cannot block
+ * recomputation for longer than the lease. Release only deletes the key if it still holds the
+ * holder's token. Calls go through the Redis circuit breaker like the cache itself.
+ */
+public class RedisCacheLock implements CacheLock {
+
+    private static final RedisScript<Long> RELEASE = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+
+    private final StringRedisTemplate redis;
+    private final CircuitBreaker circuitBreaker;
+    private final Duration lease;
+
+    public RedisCacheLock(StringRedisTemplate redis, CircuitBreaker circuitBreaker, Duration lease) {
+        this.redis = redis;
+        this.circuitBreaker = circuitBreaker;
+        this.lease = lease;
+    }
+
+    @Override
+    public String tryAcquire(String name) {
+        String token = UUID.randomUUID().toString();
+        Boolean acquired = circuitBreaker.execute(() -> redis.opsForValue().setIfAbsent(lockKey(name), token, lease));
+        return Boolean.TRUE.equals(acquired) ? token : null;
+    }
+
+    @Override
+    public void release(String name, String token) {
+        circuitBreaker.execute(() -> redis.execute(RELEASE, List.of(lockKey(name)), token));
+    }
+
+    private static String lockKey(String name) {
+        return "lock:" + name;
+    }
+}
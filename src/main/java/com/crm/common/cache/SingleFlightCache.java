@@ -0,0 +1,462 @@
+package com.crm.common.cache;
+
+import com.crm.customers.exceptions.EntityNotFoundException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.interceptor.CacheErrorHandler;
+import org.springframework.cache.support.SimpleValueWrapper;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.BiFunction;
+import java.util.function.DoubleSupplier;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Cache stampede protection for {@code @Cacheable(sync = true)} methods, which reach the cache
+ * through {@link #get(Object, Callable)}:
+ * <ul>
+ *     <li>in-process single flight - concurrent misses of one key wait for a single load,</li>
+ *     <li>across replicas - the loading replica holds a {@link CacheLock}; the others poll the
+ *     cache for up to {@code lockWait} instead of querying the database themselves,</li>
+ *     <li>probabilistic early refresh (XFetch) - a reader recomputes the entry before it expires
+ *     with a probability growing as expiry approaches, scaled by how long the value took to
+ *     compute, while everybody else keeps being served the current value.</li>
+ * </ul>
+ * Values are stored wrapped in a {@link CacheEntry}; the other cache operations unwrap them, and
+ * values written before the envelope existed are read as they are.
+ *
+ * A load failing with an {@link EntityNotFoundException} for the very key being loaded stores a
+ * {@link NotFoundEntry}, so repeated lookups of an unknown id are answered from the cache with the
+ * same exception instead of a database query. Only loads see negative entries; reads through the
+ * other operations treat them as misses.
+ *
+ * Cache read and write failures are reported to the {@link CacheErrorHandler} and treated as
+ * misses here rather than left to the interceptor, which would call the method directly and
+ * lose the coalescing exactly when Redis is unavailable. The same holds for batch reads and
+ * writes, which are called from application code rather than the interceptor; they go straight
+ * to the underlying cache, not through the transaction-aware decorator, since they only carry
+ * freshly read committed rows. Batch evictions also bypass the decorator but defer themselves
+ * to after commit the same way.
+ */
+@Slf4j
+public class SingleFlightCache implements BatchCache {
+
+    private static final long POLL_MILLIS = 50;
+
+    /**
+     * @param beta     XFetch aggressiveness; greater than 1 refreshes earlier, 0 disables early refresh
+     * @param lockWait how long to wait for another replica's load before loading anyway
+     */
+    public record Settings(double beta, Duration lockWait) {
+    }
+
+    private final Cache delegate;
+    private final BiFunction<Object, Object, Duration> timeToLive;
+    private final CacheLock lock;
+    private final CacheErrorHandler errorHandler;
+    private final double beta;
+    private final long lockWaitMillis;
+    private final LongSupplier clock;
+    private final DoubleSupplier random;
+
+    private final ConcurrentMap<Object, CompletableFuture<Object>> flights = new ConcurrentHashMap<>();
+
+    private final Counter coalesced;
+    private final Counter earlyRefreshes;
+    private final Counter lockWaits;
+    private final Counter notFoundHits;
+
+    public SingleFlightCache(Cache delegate, BiFunction<Object, Object, Duration> timeToLive, CacheLock lock,
+                             CacheErrorHandler errorHandler, Settings settings, MeterRegistry registry) {
+        this(delegate, timeToLive, lock, errorHandler, settings, registry,
+                System::currentTimeMillis, () -> 1.0 - ThreadLocalRandom.current().nextDouble());
+    }
+
+    SingleFlightCache(Cache delegate, BiFunction<Object, Object, Duration> timeToLive, CacheLock lock,
+                      CacheErrorHandler errorHandler, Settings settings, MeterRegistry registry,
+                      LongSupplier clock, DoubleSupplier random) {
+        this.delegate = delegate;
+        this.timeToLive = timeToLive;
+        this.lock = lock;
+        this.errorHandler = errorHandler;
+        this.beta = settings.beta();
+        this.lockWaitMillis = settings.lockWait().toMillis();
+        this.clock = clock;
+        this.random = random;
+
+        String name = delegate.getName();
+        this.coalesced = Counter.builder("crm.cache.coalesced")
+                .description("Cache misses served by a load already in flight in this instance")
+                .tag("cache", name)
+                .register(registry);
+        this.earlyRefreshes = Counter.builder("crm.cache.early.refreshes")
+                .description("Entries recomputed ahead of their expiry")
+                .tag("cache", name)
+                .register(registry);
+        this.lockWaits = Counter.builder("crm.cache.lock.waits")
+                .description("Cache misses that waited for another replica's load")
+                .tag("cache", name)
+                .register(registry);
+        this.notFoundHits = Counter.builder("crm.cache.not.found.hits")
+                .description("Lookups of unknown ids answered from a negative cache entry")
+                .tag("cache", name)
+                .register(registry);
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        return unwrap(delegate.get(key));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        CacheEntry cached = read(key);
+        if (cached != null && !shouldRefreshEarly(cached)) {
+            return (T) valueOf(cached, key, valueLoader);
+        }
+        return (T) load(key, valueLoader, cached);
+    }
+
+    @Override
+    public CompletableFuture<?> retrieve(Object key) {
+        CompletableFuture<?> future = delegate.retrieve(key);
+        return future == null ? null : future.thenApply(value ->
+                value instanceof ValueWrapper wrapper ? unwrap(wrapper) : unwrapValue(value));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> CompletableFuture<T> retrieve(Object key, Supplier<CompletableFuture<T>> valueLoader) {
+        Supplier<CompletableFuture<Object>> wrappingLoader = () -> valueLoader.get()
+                .thenApply(value -> (Object) wrap(key, value));
+        return delegate.retrieve(key, wrappingLoader).thenApply(value -> (T) unwrapValue(value));
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        delegate.put(key, wrap(key, value));
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        return unwrap(delegate.putIfAbsent(key, wrap(key, value)));
+    }
+
+    @Override
+    public void evict(Object key) {
+        delegate.evict(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        return delegate.evictIfPresent(key);
+    }
+
+    @Override
+    public void clear() {
+        delegate.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        return delegate.invalidate();
+    }
+
+    @Override
+    public List<ValueWrapper> getAll(List<?> keys) {
+        Cache target = batchTarget();
+        List<ValueWrapper> wrappers;
+        try {
+            if (target instanceof BatchCache batch) {
+                wrappers = batch.getAll(keys);
+            } else {
+                wrappers = new ArrayList<>(keys.size());
+                for (Object key : keys) {
+                    wrappers.add(target.get(key));
+                }
+            }
+        } catch (RuntimeException e) {
+            errorHandler.handleCacheGetError(e, this, keys);
+            return Collections.nCopies(keys.size(), null);
+        }
+        return wrappers.stream().map(SingleFlightCache::unwrap).toList();
+    }
+
+    @Override
+    public void putAll(Map<?, ?> entries) {
+        Map<Object, Object> wrapped = new LinkedHashMap<>();
+        entries.forEach((key, value) -> wrapped.put(key, wrap(key, value)));
+        Cache target = batchTarget();
+        try {
+            if (target instanceof BatchCache batch) {
+                batch.putAll(wrapped);
+            } else {
+                wrapped.forEach(target::put);
+            }
+        } catch (RuntimeException e) {
+            errorHandler.handleCachePutError(e, this, entries.keySet(), entries.values());
+        }
+    }
+
+    /**
+     * Like {@link #evict}, applied after commit when the delegate is transaction-aware and a
+     * transaction is active, but as one batch on the underlying cache.
+     */
+    @Override
+    public void evictAll(Collection<?> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        if (!(batchTarget() instanceof BatchCache batch)) {
+            keys.forEach(delegate::evict);
+            return;
+        }
+        if (delegate instanceof TransactionAwareCacheDecorator && TransactionSynchronizationManager.isSynchronizationActive()) {
+            List<?> pending = List.copyOf(keys);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    batch.evictAll(pending);
+                }
+            });
+        } else {
+            batch.evictAll(keys);
+        }
+    }
+
+    /**
+     * XFetch: refresh when {@code now - computeTime * beta * ln(random) >= expiry}.
+     */
+    private boolean shouldRefreshEarly(CacheEntry entry) {
+        if (entry.getExpiresAt() <= 0 || entry.getComputeMillis() <= 0 || beta <= 0) {
+            return false;
+        }
+        return clock.getAsLong() - entry.getComputeMillis() * beta * Math.log(random.getAsDouble()) >= entry.getExpiresAt();
+    }
+
+    private Object load(Object key, Callable<?> valueLoader, CacheEntry stale) {
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> inFlight = flights.putIfAbsent(key, flight);
+        if (inFlight != null) {
+            if (stale != null) {
+                return valueOf(stale, key, valueLoader);
+            }
+            coalesced.increment();
+            return await(inFlight);
+        }
+        try {
+            Object value = loadExclusively(key, valueLoader, stale);
+            flight.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            flights.remove(key, flight);
+        }
+    }
+
+    private Object loadExclusively(Object key, Callable<?> valueLoader, CacheEntry stale) {
+        String lockName = getName() + "::" + key;
+        String token;
+        try {
+            token = lock.tryAcquire(lockName);
+        } catch (RuntimeException e) {
+            log.debug("Cache lock {} unavailable, loading without it: {}", lockName, e.getMessage());
+            return compute(key, valueLoader);
+        }
+
+        if (token == null) {
+            if (stale != null) {
+                return valueOf(stale, key, valueLoader);
+            }
+            lockWaits.increment();
+            CacheEntry loaded = awaitOtherReplica(key);
+            return loaded != null ? valueOf(loaded, key, valueLoader) : compute(key, valueLoader);
+        }
+
+        try {
+            if (stale == null) {
+                CacheEntry loaded = read(key);
+                if (loaded != null) {
+                    return valueOf(loaded, key, valueLoader);
+                }
+            } else {
+                earlyRefreshes.increment();
+            }
+            return compute(key, valueLoader);
+        } finally {
+            try {
+                lock.release(lockName, token);
+            } catch (RuntimeException e) {
+                log.debug("Releasing cache lock {} failed, it expires with its lease: {}", lockName, e.getMessage());
+            }
+        }
+    }
+
+    private Object compute(Object key, Callable<?> valueLoader) {
+        long start = System.nanoTime();
+        Object value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception e) {
+            EntityNotFoundException notFound = notFound(e);
+            if (notFound != null && Objects.equals(notFound.getId(), key)) {
+                store(key, NotFoundEntry.of(notFound), start);
+            }
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        if (value != null) {
+            store(key, value, start);
+        }
+        return value;
+    }
+
+    private void store(Object key, Object value, long start) {
+        long computeMillis = Math.max(1, Duration.ofNanos(System.nanoTime() - start).toMillis());
+        try {
+            delegate.put(key, entry(key, value, computeMillis));
+        } catch (RuntimeException e) {
+            errorHandler.handleCachePutError(e, this, key, value);
+        }
+    }
+
+    /**
+     * The cached value, or the cached not-found outcome rethrown the way the interceptor expects
+     * a loader failure.
+     */
+    private Object valueOf(CacheEntry entry, Object key, Callable<?> valueLoader) {
+        if (entry.getValue() instanceof NotFoundEntry notFound) {
+            notFoundHits.increment();
+            throw new ValueRetrievalException(key, valueLoader, notFound.toException());
+        }
+        return entry.getValue();
+    }
+
+    /**
+     * The loader's exception may come wrapped by the cache interceptor.
+     */
+    private static EntityNotFoundException notFound(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof EntityNotFoundException notFound) {
+                return notFound;
+            }
+        }
+        return null;
+    }
+
+    private CacheEntry awaitOtherReplica(Object key) {
+        long deadline = clock.getAsLong() + lockWaitMillis;
+        while (clock.getAsLong() < deadline) {
+            try {
+                Thread.sleep(POLL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+            CacheEntry entry = read(key);
+            if (entry != null) {
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    private static Object await(CompletableFuture<Object> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private CacheEntry read(Object key) {
+        try {
+            ValueWrapper wrapper = delegate.get(key);
+            if (wrapper == null) {
+                return null;
+            }
+            return wrapper.get() instanceof CacheEntry entry ? entry : new CacheEntry(wrapper.get(), 0, 0);
+        } catch (RuntimeException e) {
+            errorHandler.handleCacheGetError(e, this, key);
+            return null;
+        }
+    }
+
+    /**
+     * Nulls are passed through so the delegate's own null handling still applies.
+     */
+    private Object wrap(Object key, Object value) {
+        return value != null ? entry(key, value, 0) : null;
+    }
+
+    private CacheEntry entry(Object key, Object value, long computeMillis) {
+        Duration ttl = timeToLive.apply(key, value);
+        long expiresAt = ttl == null || ttl.isZero() || ttl.isNegative() ? 0 : clock.getAsLong() + ttl.toMillis();
+        return new CacheEntry(value, computeMillis, expiresAt);
+    }
+
+    private Cache batchTarget() {
+        return delegate instanceof TransactionAwareCacheDecorator decorator ? decorator.getTargetCache() : delegate;
+    }
+
+    private static ValueWrapper unwrap(ValueWrapper wrapper) {
+        return wrapper == null || NotFoundEntry.isNotFound(wrapper.get())
+                ? null
+                : new SimpleValueWrapper(unwrapValue(wrapper.get()));
+    }
+
+    private static Object unwrapValue(Object value) {
+        if (NotFoundEntry.isNotFound(value)) {
+            return null;
+        }
+        return value instanceof CacheEntry entry ? entry.getValue() : value;
+    }
+}
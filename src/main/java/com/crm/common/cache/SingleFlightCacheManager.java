@@ -0,0 +1,63 @@
+package com.crm.common.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.interceptor.CacheErrorHandler;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+
+/**
+ * Wraps every cache of the delegate manager in a {@link SingleFlightCache}, using the Redis
+ * entry TTL of each region as the expiry that early refresh works towards.
+ */
+public class SingleFlightCacheManager implements CacheManager {
+
+    private final CacheManager delegate;
+    private final CacheLock lock;
+    private final CacheErrorHandler errorHandler;
+    private final SingleFlightCache.Settings settings;
+    private final MeterRegistry registry;
+    private final Map<String, Cache> caches = new ConcurrentHashMap<>();
+
+    public SingleFlightCacheManager(CacheManager delegate, CacheLock lock, CacheErrorHandler errorHandler,
+                                    SingleFlightCache.Settings settings, MeterRegistry registry) {
+        this.delegate = delegate;
+        this.lock = lock;
+        this.errorHandler = errorHandler;
+        this.settings = settings;
+        this.registry = registry;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        Cache cache = caches.get(name);
+        if (cache != null) {
+            return cache;
+        }
+        Cache target = delegate.getCache(name);
+        return target == null ? null : caches.computeIfAbsent(name, n ->
+                new SingleFlightCache(target, timeToLive(target), lock, errorHandler, settings, registry));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return delegate.getCacheNames();
+    }
+
+    private static BiFunction<Object, Object, Duration> timeToLive(Cache cache) {
+        Cache target = cache instanceof TransactionAwareCacheDecorator decorator ? decorator.getTargetCache() : cache;
+        if (target instanceof RedisCache redisCache) {
+            RedisCacheWriter.TtlFunction ttl = redisCache.getCacheConfiguration().getTtlFunction();
+            return ttl::getTimeToLive;
+        }
+        return (key, value) -> Duration.ZERO;
+    }
+}
@@ -0,0 +1,33 @@
+package com.crm.common.db;
+
+import jakarta.persistence.EntityManager;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Consumer;
+
+/**
+ * JPA transaction manager that prepares the EntityManager of every new transaction, e.g. to
+ * enable session filters, before any query of the transaction runs. Transactions joining an
+ * existing one share its EntityManager and are not initialized again.
+ */
+public class InitializingJpaTransactionManager extends JpaTransactionManager {
+
+    private final Consumer<EntityManager> initializer;
+
+    public InitializingJpaTransactionManager(Consumer<EntityManager> initializer) {
+        this.initializer = initializer;
+    }
+
+    @Override
+    protected void doBegin(Object transaction, TransactionDefinition definition) {
+        super.doBegin(transaction, definition);
+        EntityManagerHolder holder =
+                (EntityManagerHolder) TransactionSynchronizationManager.getResource(obtainEntityManagerFactory());
+        if (holder != null) {
+            initializer.accept(holder.getEntityManager());
+        }
+    }
+}
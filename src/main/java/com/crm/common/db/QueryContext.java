@@ -0,0 +1,75 @@
+package com.crm.common.db;
+
+/**
+ * Thread-bound attribution for JDBC statements: the repository method currently
+ * executing and the statement counter of the HTTP request being served.
+ */
+public final class QueryContext {
+
+    public static final String UNATTRIBUTED = "none";
+
+    private static final ThreadLocal<String> REPOSITORY_METHOD = new ThreadLocal<>();
+    private static final ThreadLocal<RequestStatements> REQUEST = new ThreadLocal<>();
+
+    private static final class RequestStatements {
+        private final String request;
+        private int count;
+
+        private RequestStatements(String request) {
+            this.request = request;
+        }
+    }
+
+    private QueryContext() {
+    }
+
+    /**
+     * @return the method that was current before, to be passed back to {@link #exitRepository(String)}
+     */
+    static String enterRepository(String method) {
+        String previous = REPOSITORY_METHOD.get();
+        REPOSITORY_METHOD.set(method);
+        return previous;
+    }
+
+    static void exitRepository(String previous) {
+        if (previous == null) {
+            REPOSITORY_METHOD.remove();
+        } else {
+            REPOSITORY_METHOD.set(previous);
+        }
+    }
+
+    public static String repositoryMethod() {
+        String method = REPOSITORY_METHOD.get();
+        return method != null ? method : UNATTRIBUTED;
+    }
+
+    static void beginRequest(String request) {
+        REQUEST.set(new RequestStatements(request));
+    }
+
+    /**
+     * @return number of statements executed since {@link #beginRequest(String)}
+     */
+    static int endRequest() {
+        RequestStatements statements = REQUEST.get();
+        REQUEST.remove();
+        return statements != null ? statements.count : 0;
+    }
+
+    static void countStatement() {
+        RequestStatements statements = REQUEST.get();
+        if (statements != null) {
+            statements.count++;
+        }
+    }
+
+    /**
+     * @return "METHOD /uri" of the request being served, or null outside requests
+     */
+    static String request() {
+        RequestStatements statements = REQUEST.get();
+        return statements != null ? statements.request : null;
+    }
+}
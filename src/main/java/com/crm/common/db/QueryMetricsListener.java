@@ -0,0 +1,133 @@
+package com.crm.common.db;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.listener.MethodExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryUtils;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes per-statement latency ({@code crm.db.statement}) and rows fetched per result set
+ * ({@code crm.db.rows}), tagged with the originating repository method, and captures
+ * statements slower than the threshold into the {@link SlowQueryLog}.
+ */
+public class QueryMetricsListener implements QueryExecutionListener, MethodExecutionListener {
+
+    private static final int MAX_PARAMETER_LENGTH = 200;
+    private static final int MAX_OPEN_RESULT_SETS = 64;
+
+    private final MeterRegistry registry;
+    private final SlowQueryLog slowQueryLog;
+    private final long slowQueryThresholdMillis;
+
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+    private final Map<String, DistributionSummary> rowSummaries = new ConcurrentHashMap<>();
+    private final ThreadLocal<Map<ResultSet, int[]>> openResultSets = ThreadLocal.withInitial(IdentityHashMap::new);
+
+    public QueryMetricsListener(MeterRegistry registry, SlowQueryLog slowQueryLog, Duration slowQueryThreshold) {
+        this.registry = registry;
+        this.slowQueryLog = slowQueryLog;
+        this.slowQueryThresholdMillis = slowQueryThreshold.toMillis();
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        String repositoryMethod = QueryContext.repositoryMethod();
+        String type = queryInfoList.isEmpty()
+                ? "other"
+                : QueryUtils.getQueryType(queryInfoList.get(0).getQuery()).name().toLowerCase(Locale.ROOT);
+
+        timer(repositoryMethod, type, execInfo.isSuccess()).record(execInfo.getElapsedTime(), TimeUnit.MILLISECONDS);
+        QueryContext.countStatement();
+
+        if (execInfo.getElapsedTime() >= slowQueryThresholdMillis) {
+            for (QueryInfo queryInfo : queryInfoList) {
+                slowQueryLog.add(new SlowQuery(
+                        Instant.now(),
+                        execInfo.getElapsedTime(),
+                        repositoryMethod,
+                        QueryContext.request(),
+                        queryInfo.getQuery(),
+                        queryInfo.getParametersList().stream().map(QueryMetricsListener::parameters).toList(),
+                        execInfo.isSuccess()));
+            }
+        }
+    }
+
+    @Override
+    public void beforeMethod(MethodExecutionContext executionContext) {
+    }
+
+    /**
+     * Counts rows as Hibernate advances result sets; recorded when the result set is closed.
+     */
+    @Override
+    public void afterMethod(MethodExecutionContext executionContext) {
+        if (!(executionContext.getTarget() instanceof ResultSet resultSet)) {
+            return;
+        }
+        String method = executionContext.getMethod().getName();
+        Map<ResultSet, int[]> counts = openResultSets.get();
+        if ("next".equals(method) && Boolean.TRUE.equals(executionContext.getResult())) {
+            if (counts.size() >= MAX_OPEN_RESULT_SETS && !counts.containsKey(resultSet)) {
+                // Result sets that were never closed; drop them rather than leak
+                counts.clear();
+            }
+            counts.computeIfAbsent(resultSet, rs -> new int[1])[0]++;
+        } else if ("close".equals(method)) {
+            int[] rows = counts.remove(resultSet);
+            rowSummary(QueryContext.repositoryMethod()).record(rows != null ? rows[0] : 0);
+        }
+    }
+
+    private Timer timer(String repositoryMethod, String type, boolean success) {
+        String outcome = success ? "success" : "error";
+        return timers.computeIfAbsent(repositoryMethod + '|' + type + '|' + outcome, key -> Timer.builder("crm.db.statement")
+                .description("JDBC statement execution time")
+                .tag("repository", repositoryMethod)
+                .tag("type", type)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(registry));
+    }
+
+    private DistributionSummary rowSummary(String repositoryMethod) {
+        return rowSummaries.computeIfAbsent(repositoryMethod, key -> DistributionSummary.builder("crm.db.rows")
+                .description("Rows fetched per result set")
+                .baseUnit("rows")
+                .tag("repository", repositoryMethod)
+                .publishPercentileHistogram()
+                .maximumExpectedValue(100_000.0)
+                .register(registry));
+    }
+
+    private static List<String> parameters(List<ParameterSetOperation> operations) {
+        return operations.stream().map(operation -> {
+            if (ParameterSetOperation.isSetNullParameterOperation(operation)) {
+                return "null";
+            }
+            Object[] args = operation.getArgs();
+            String value = args.length > 1 ? String.valueOf(args[1]) : "";
+            return value.length() > MAX_PARAMETER_LENGTH ? value.substring(0, MAX_PARAMETER_LENGTH) + "..." : value;
+        }).toList();
+    }
+}
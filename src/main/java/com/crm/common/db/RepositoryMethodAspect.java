@@ -0,0 +1,39 @@
+package com.crm.common.db;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.aop.framework.AopProxyUtils;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tags statements with the Spring Data repository method that issued them,
+ * e.g. "TaskRepository.findOverdueTasks" (inherited methods use the application interface too).
+ */
+@Aspect
+public class RepositoryMethodAspect {
+
+    private final Map<Class<?>, String> repositoryNames = new ConcurrentHashMap<>();
+
+    @Around("this(org.springframework.data.repository.Repository)")
+    public Object tagRepositoryMethod(ProceedingJoinPoint joinPoint) throws Throwable {
+        String previous = QueryContext.enterRepository(
+                repositoryName(joinPoint.getThis()) + "." + joinPoint.getSignature().getName());
+        try {
+            return joinPoint.proceed();
+        } finally {
+            QueryContext.exitRepository(previous);
+        }
+    }
+
+    private String repositoryName(Object proxy) {
+        return repositoryNames.computeIfAbsent(proxy.getClass(), type -> Arrays.stream(AopProxyUtils.proxiedUserInterfaces(proxy))
+                .filter(candidate -> candidate.getName().startsWith("com.crm."))
+                .findFirst()
+                .map(Class::getSimpleName)
+                .orElse(type.getSimpleName()));
+    }
+}
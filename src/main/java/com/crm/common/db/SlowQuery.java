@@ -0,0 +1,21 @@
+package com.crm.common.db;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * A statement that exceeded the slow-query threshold.
+ *
+ * @param parameters bind parameters, one list per batch entry
+ * @param request    "METHOD /uri" of the originating HTTP request, null for background work
+ */
+public record SlowQuery(
+        Instant timestamp,
+        long durationMillis,
+        String repositoryMethod,
+        String request,
+        String sql,
+        List<List<String>> parameters,
+        boolean success
+) {
+}
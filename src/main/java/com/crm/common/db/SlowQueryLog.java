@@ -0,0 +1,48 @@
+package com.crm.common.db;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * The slowest queries seen since startup or the last {@link #clear()}, at most {@code capacity};
+ * a min-heap by duration, so a query faster than all buffered ones is dropped once full.
+ */
+public class SlowQueryLog {
+
+    private static final Comparator<SlowQuery> BY_DURATION = Comparator.comparingLong(SlowQuery::durationMillis);
+
+    private final int capacity;
+    private final PriorityQueue<SlowQuery> entries;
+
+    public SlowQueryLog(int capacity) {
+        this.capacity = capacity;
+        this.entries = new PriorityQueue<>(capacity, BY_DURATION);
+    }
+
+    public synchronized void add(SlowQuery query) {
+        if (entries.size() < capacity) {
+            entries.add(query);
+        } else if (capacity > 0 && query.durationMillis() > entries.peek().durationMillis()) {
+            entries.poll();
+            entries.add(query);
+        }
+    }
+
+    /**
+     * @return buffered queries, slowest first
+     */
+    public List<SlowQuery> slowest() {
+        List<SlowQuery> result;
+        synchronized (this) {
+            result = new ArrayList<>(entries);
+        }
+        result.sort(BY_DURATION.reversed());
+        return result;
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+}
@@ -0,0 +1,45 @@
+package com.crm.common.db;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Records {@code crm.db.statements.per.request} per URI template. Registered ahead of
+ * Spring Security so the user lookup of HTTP Basic authentication is counted too.
+ */
+public class StatementsPerRequestFilter extends OncePerRequestFilter {
+
+    private final Meter.MeterProvider<DistributionSummary> statementsPerRequest;
+
+    public StatementsPerRequestFilter(MeterRegistry registry) {
+        this.statementsPerRequest = DistributionSummary.builder("crm.db.statements.per.request")
+                .description("JDBC statements executed while serving one HTTP request")
+                .publishPercentileHistogram()
+                .maximumExpectedValue(1_000.0)
+                .withRegistry(registry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        QueryContext.beginRequest(request.getMethod() + " " + request.getRequestURI());
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            int statements = QueryContext.endRequest();
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            statementsPerRequest
+                    .withTags("method", request.getMethod(), "uri", pattern != null ? pattern.toString() : "UNKNOWN")
+                    .record(statements);
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.crm.common.exception;
+
+/**
+ * Thrown when a bulkhead has no free permit within its maximum wait,
+ * i.e. the protected resource (database, Redis) is saturated.
+ */
+public class BulkheadFullException extends RuntimeException {
+
+    public BulkheadFullException(String bulkhead) {
+        super("Service is busy (" + bulkhead + "), please retry shortly");
+    }
+}
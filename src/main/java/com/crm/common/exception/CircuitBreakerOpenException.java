@@ -0,0 +1,12 @@
+package com.crm.common.exception;
+
+/**
+ * Thrown instead of calling a dependency whose circuit breaker is open,
+ * i.e. it recently failed or answered too slowly.
+ */
+public class CircuitBreakerOpenException extends RuntimeException {
+
+    public CircuitBreakerOpenException(String circuitBreaker) {
+        super("Circuit breaker '" + circuitBreaker + "' is open");
+    }
+}
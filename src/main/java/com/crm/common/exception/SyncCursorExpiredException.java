@@ -0,0 +1,12 @@
+package com.crm.common.exception;
+
+/**
+ * Thrown when a sync cursor is older than the tombstone retention,
+ * so deletions may have been missed and the client must resync from scratch.
+ */
+public class SyncCursorExpiredException extends RuntimeException {
+
+    public SyncCursorExpiredException() {
+        super("Sync cursor has expired, start a full resync without a cursor");
+    }
+}
@@ -0,0 +1,146 @@
+package com.crm.common.http;
+
+import com.crm.common.cache.GenerationalRedisCacheWriter;
+import com.crm.common.resilience.CircuitBreaker;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * In-process store of serialized response bodies, each kept as the final JSON bytes and, above
+ * {@code gzipMinBytes}, a gzip copy, so a hit is written out as is.
+ *
+ * Entries are keyed by the generations of the cache regions their resource depends on, read from
+ * Redis in one MGET; a write bumps the generation of its region after commit and every body
+ * rendered before it is simply never looked up again. Generations are shared across replicas,
+ * the bodies are not. Without Redis the version is unknown and nothing is served from here.
+ *
+ * Bodies expire after {@code ttl} like the cache entries they are rendered from, which bounds how
+ * long changes made outside the services and time-dependent lists stay unseen; the {@link #epoch()}
+ * bounds revalidated copies held by clients the same way. Least recently used bodies are dropped
+ * once the store exceeds {@code maxBytes}.
+ */
+@Slf4j
+public class ResponseBodyCache {
+
+    public record Body(String contentType, byte[] identity, byte[] gzip, long expiresAt) {
+
+        long size() {
+            return identity.length + (gzip != null ? gzip.length : 0);
+        }
+    }
+
+    private final StringRedisTemplate redis;
+    private final CircuitBreaker circuitBreaker;
+    private final Duration ttl;
+    private final long maxBytes;
+    private final int gzipMinBytes;
+    private final LongSupplier clock;
+
+    private final Map<String, Body> bodies = new LinkedHashMap<>(64, 0.75f, true);
+    private long size;
+
+    public ResponseBodyCache(StringRedisTemplate redis, CircuitBreaker circuitBreaker, Duration ttl, long maxBytes,
+                             int gzipMinBytes, MeterRegistry registry) {
+        this(redis, circuitBreaker, ttl, maxBytes, gzipMinBytes, registry, System::currentTimeMillis);
+    }
+
+    ResponseBodyCache(StringRedisTemplate redis, CircuitBreaker circuitBreaker, Duration ttl, long maxBytes,
+                      int gzipMinBytes, MeterRegistry registry, LongSupplier clock) {
+        this.redis = redis;
+        this.circuitBreaker = circuitBreaker;
+        this.ttl = ttl;
+        this.maxBytes = maxBytes;
+        this.gzipMinBytes = gzipMinBytes;
+        this.clock = clock;
+
+        Gauge.builder("crm.http.response.cache.size", this, ResponseBodyCache::size)
+                .description("Bytes of response bodies held in memory")
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    /**
+     * Current generations of the regions, joined, or {@code null} when Redis is unavailable.
+     */
+    public String version(List<String> regions) {
+        List<String> keys = regions.stream().map(GenerationalRedisCacheWriter::generationKey).toList();
+        List<String> generations;
+        try {
+            generations = circuitBreaker.execute(() -> redis.opsForValue().multiGet(keys));
+        } catch (RuntimeException e) {
+            log.debug("Response cache version of {} unavailable: {}", regions, e.getMessage());
+            return null;
+        }
+        if (generations == null) {
+            return null;
+        }
+        StringBuilder version = new StringBuilder();
+        for (String generation : generations) {
+            version.append(generation != null ? generation : "0").append('.');
+        }
+        return version.toString();
+    }
+
+    /**
+     * Number of whole TTLs elapsed. Part of every ETag, so a client revalidating a time-dependent
+     * body, such as the overdue tasks, gets it rendered again at least once per TTL.
+     */
+    public long epoch() {
+        return clock.getAsLong() / ttl.toMillis();
+    }
+
+    public synchronized Body get(String key) {
+        Body body = bodies.get(key);
+        if (body != null && body.expiresAt() <= clock.getAsLong()) {
+            bodies.remove(key);
+            size -= body.size();
+            return null;
+        }
+        return body;
+    }
+
+    public Body put(String key, String contentType, byte[] identity) {
+        Body body = new Body(contentType, identity, identity.length >= gzipMinBytes ? gzip(identity) : null,
+                clock.getAsLong() + ttl.toMillis());
+        if (body.size() > maxBytes / 4) {
+            return body;
+        }
+        synchronized (this) {
+            Body previous = bodies.put(key, body);
+            size += body.size() - (previous != null ? previous.size() : 0);
+            Iterator<Body> eldest = bodies.values().iterator();
+            while (size > maxBytes && eldest.hasNext()) {
+                size -= eldest.next().size();
+                eldest.remove();
+            }
+        }
+        return body;
+    }
+
+    private synchronized long size() {
+        return size;
+    }
+
+    private static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
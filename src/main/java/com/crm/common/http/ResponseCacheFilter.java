@@ -0,0 +1,220 @@
+package com.crm.common.http;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.zip.CRC32;
+
+/**
+ * Serves GET requests of the registered endpoints from a {@link ResponseBodyCache}: a hit is
+ * written straight from the stored bytes, gzip-encoded when the client accepts it, without
+ * reaching the controller. A miss runs the request, and a 200 JSON response is stored under the
+ * URI, the caller's roles and the version of the endpoint's regions before being sent.
+ *
+ * Registered after Spring Security, so a request is authenticated and authorized before it is
+ * looked up; roles are part of the key since method security and response content may depend on
+ * them, and so is the caller's partition, the slice of rows it may see.
+ *
+ * The version and the {@link ResponseBodyCache#epoch() TTL epoch} also yield a strong ETag, the
+ * gzip representation getting its own, so a request whose {@code If-None-Match} still matches is
+ * answered 304 before any body is looked up or rendered. The epoch keeps time-dependent bodies,
+ * such as overdue tasks, from being revalidated for longer than a stored body lives. A wildcard
+ * {@code If-None-Match: *} never matches, since whether the resource exists is not known before
+ * rendering. Responses are marked {@code private, no-cache}: clients may store them but must
+ * revalidate, which replaces the {@code no-store} Spring Security would otherwise add.
+ */
+public class ResponseCacheFilter extends OncePerRequestFilter {
+
+    /**
+     * GET path pattern and the cache regions whose generations version its responses.
+     */
+    public record Endpoint(PathPattern pattern, List<String> regions) {
+
+        public static Endpoint of(String pattern, String... regions) {
+            return new Endpoint(PathPatternParser.defaultInstance.parse(pattern), List.of(regions));
+        }
+    }
+
+    private static final String GZIP = "gzip";
+    private static final String GZIP_ETAG_SUFFIX = "-gzip";
+    private static final String CACHE_CONTROL = "private, no-cache";
+
+    private final ResponseBodyCache cache;
+    private final List<Endpoint> endpoints;
+    private final Supplier<String> partition;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter bypasses;
+    private final Counter notModified;
+
+    public ResponseCacheFilter(ResponseBodyCache cache, List<Endpoint> endpoints, MeterRegistry registry) {
+        this(cache, endpoints, () -> "", registry);
+    }
+
+    public ResponseCacheFilter(ResponseBodyCache cache, List<Endpoint> endpoints, Supplier<String> partition,
+                               MeterRegistry registry) {
+        this.cache = cache;
+        this.endpoints = endpoints;
+        this.partition = partition;
+        this.hits = lookups(registry, "hit");
+        this.misses = lookups(registry, "miss");
+        this.bypasses = lookups(registry, "bypass");
+        this.notModified = lookups(registry, "not_modified");
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !HttpMethod.GET.matches(request.getMethod()) || endpoint(request) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String version = cache.version(endpoint(request).regions());
+        if (version == null) {
+            bypasses.increment();
+            chain.doFilter(request, response);
+            return;
+        }
+
+        String key = key(request, version);
+        String etag = etag(key, cache.epoch() + "." + version);
+        if (notModified(request, etag)) {
+            notModified.increment();
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            response.setHeader(HttpHeaders.ETAG, '"' + etag + '"');
+            response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+            return;
+        }
+
+        ResponseBodyCache.Body body = cache.get(key);
+        if (body != null) {
+            hits.increment();
+            write(request, response, body, etag);
+            return;
+        }
+
+        misses.increment();
+        ContentCachingResponseWrapper capture = new ContentCachingResponseWrapper(response);
+        try {
+            chain.doFilter(request, capture);
+        } catch (IOException | ServletException | RuntimeException e) {
+            capture.copyBodyToResponse();
+            throw e;
+        }
+        if (capture.getStatus() == HttpServletResponse.SC_OK && !response.isCommitted() && isJson(capture.getContentType())) {
+            write(request, response, cache.put(key, capture.getContentType(), capture.getContentAsByteArray()), etag);
+        } else {
+            capture.copyBodyToResponse();
+        }
+    }
+
+    private Endpoint endpoint(HttpServletRequest request) {
+        PathContainer path = PathContainer.parsePath(request.getRequestURI());
+        for (Endpoint endpoint : endpoints) {
+            if (endpoint.pattern().matches(path)) {
+                return endpoint;
+            }
+        }
+        return null;
+    }
+
+    private String key(HttpServletRequest request, String version) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        String roles = authentication == null ? "" : authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .sorted()
+                .collect(Collectors.joining(","));
+        String query = request.getQueryString();
+        return version + "|" + roles + "|" + partition.get() + "|" + request.getRequestURI()
+                + (query != null ? "?" + query : "");
+    }
+
+    /**
+     * Epoch and region generations plus a hash of roles, partition and URI; the key itself would
+     * expose them.
+     */
+    private static String etag(String key, String version) {
+        CRC32 crc = new CRC32();
+        crc.update(key.getBytes(StandardCharsets.UTF_8));
+        return version + Long.toHexString(crc.getValue());
+    }
+
+    /**
+     * Weak comparison as required for If-None-Match; either representation's tag matches.
+     */
+    private static boolean notModified(HttpServletRequest request, String etag) {
+        Enumeration<String> headers = request.getHeaders(HttpHeaders.IF_NONE_MATCH);
+        while (headers != null && headers.hasMoreElements()) {
+            for (String tag : headers.nextElement().split(",")) {
+                String opaque = tag.trim();
+                if (opaque.startsWith("W/")) {
+                    opaque = opaque.substring(2);
+                }
+                if (opaque.equals('"' + etag + '"')
+                        || opaque.equals('"' + etag + GZIP_ETAG_SUFFIX + '"')) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static void write(HttpServletRequest request, HttpServletResponse response, ResponseBodyCache.Body body,
+                              String etag) throws IOException {
+        byte[] bytes = body.identity();
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(body.contentType());
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        if (body.gzip() != null) {
+            response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            if (acceptsGzip(request)) {
+                // Tomcat leaves responses that already carry a Content-Encoding alone
+                response.setHeader(HttpHeaders.CONTENT_ENCODING, GZIP);
+                bytes = body.gzip();
+                etag += GZIP_ETAG_SUFFIX;
+            }
+        }
+        response.setHeader(HttpHeaders.ETAG, '"' + etag + '"');
+        response.setContentLength(bytes.length);
+        response.getOutputStream().write(bytes);
+    }
+
+    private static boolean acceptsGzip(HttpServletRequest request) {
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        return acceptEncoding != null && acceptEncoding.contains(GZIP);
+    }
+
+    private static boolean isJson(String contentType) {
+        return contentType != null && MediaType.APPLICATION_JSON.isCompatibleWith(MediaType.parseMediaType(contentType));
+    }
+
+    private static Counter lookups(MeterRegistry registry, String result) {
+        return Counter.builder("crm.http.response.cache")
+                .description("Response body cache lookups of GET requests")
+                .tag("result", result)
+                .register(registry);
+    }
+}
@@ -0,0 +1,86 @@
+package com.crm.common.logging;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.slf4j.event.Level;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One access-log line per request, sampled: a {@code crm.logging.request.sample-rate} fraction
+ * of requests at INFO, plus every server error and every request slower than
+ * {@code crm.logging.request.slow-threshold} at WARN.
+ *
+ * Also binds a request id (X-Request-Id, generated when absent) to the MDC, so every log line
+ * written while serving the request can be correlated.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 20)
+@Slf4j
+public class RequestLogFilter extends OncePerRequestFilter {
+
+    public static final String REQUEST_ID_HEADER = "X-Request-Id";
+    public static final String REQUEST_ID_MDC_KEY = "requestId";
+
+    private final double sampleRate;
+    private final long slowThresholdNanos;
+
+    public RequestLogFilter(
+            @Value("${crm.logging.request.sample-rate:0.01}") double sampleRate,
+            @Value("${crm.logging.request.slow-threshold:PT1S}") Duration slowThreshold
+    ) {
+        this.sampleRate = sampleRate;
+        this.slowThresholdNanos = slowThreshold.toNanos();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String requestId = request.getHeader(REQUEST_ID_HEADER);
+        if (requestId == null || requestId.isBlank() || requestId.length() > 64) {
+            requestId = Long.toHexString(ThreadLocalRandom.current().nextLong());
+        }
+        response.setHeader(REQUEST_ID_HEADER, requestId);
+        MDC.put(REQUEST_ID_MDC_KEY, requestId);
+
+        long start = System.nanoTime();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            Level level = levelFor(response.getStatus(), elapsed);
+            if (level != null && log.isEnabledForLevel(level)) {
+                long millis = TimeUnit.NANOSECONDS.toMillis(elapsed);
+                log.atLevel(level)
+                        .addKeyValue("http.method", request.getMethod())
+                        .addKeyValue("http.path", request.getRequestURI())
+                        .addKeyValue("http.status", response.getStatus())
+                        .addKeyValue("duration.ms", millis)
+                        .log("{} {} {} {}ms", request.getMethod(), request.getRequestURI(), response.getStatus(), millis);
+            }
+            MDC.remove(REQUEST_ID_MDC_KEY);
+        }
+    }
+
+    private Level levelFor(int status, long elapsedNanos) {
+        if (status >= 500 || elapsedNanos >= slowThresholdNanos) {
+            return Level.WARN;
+        }
+        if (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate) {
+            return Level.INFO;
+        }
+        return null;
+    }
+}
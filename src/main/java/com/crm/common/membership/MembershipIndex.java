@@ -0,0 +1,144 @@
+package com.crm.common.membership;
+
+import com.crm.customers.repository.CustomerRepository;
+import com.crm.security.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Locale;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Bloom-filter-backed pre-check for unique customer emails, user emails and usernames.
+ * A negative answer is definite and lets the caller skip the database lookup;
+ * a positive answer must still be confirmed with the indexed query.
+ * The unique constraints in the database remain the final guard.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class MembershipIndex {
+
+    private final CustomerRepository customerRepository;
+    private final UserRepository userRepository;
+
+    @Value("${crm.membership.expected-insertions:100000}")
+    private long expectedInsertions;
+
+    @Value("${crm.membership.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    private final Region customerEmails = new Region("customer emails");
+    private final Region userEmails = new Region("user emails");
+    private final Region usernames = new Region("usernames");
+
+    public boolean mightContainCustomerEmail(String email) {
+        return customerEmails.mightContain(email);
+    }
+
+    public void addCustomerEmail(String email) {
+        customerEmails.put(email);
+    }
+
+    public boolean mightContainUserEmail(String email) {
+        return userEmails.mightContain(email);
+    }
+
+    public void addUserEmail(String email) {
+        userEmails.put(email);
+    }
+
+    public boolean mightContainUsername(String username) {
+        return usernames.mightContain(username);
+    }
+
+    public void addUsername(String username) {
+        usernames.put(username);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        rebuild();
+    }
+
+    /**
+     * Rebuilds all filters from the database, dropping values of deleted rows
+     * and resizing the filters to the current table sizes.
+     */
+    @Scheduled(
+            fixedDelayString = "${crm.membership.rebuild-interval:PT1H}",
+            initialDelayString = "${crm.membership.rebuild-interval:PT1H}"
+    )
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+
+        customerEmails.rebuild(customerRepository.count(), customerRepository::streamAllEmails);
+        userEmails.rebuild(userRepository.count(), userRepository::streamAllEmails);
+        usernames.rebuild(userRepository.count(), userRepository::streamAllUsernames);
+
+        log.info("Membership index rebuilt in {} ms", System.currentTimeMillis() - start);
+    }
+
+    private static String normalize(String value) {
+        // Lower-cased so a case-insensitive collation can never produce a false negative
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * One filter generation plus the one it replaced. Writes racing a rebuild land in
+     * the generation that is about to be retired, so it is consulted until the next
+     * rebuild, by which time those rows are committed and picked up by the scan.
+     */
+    private class Region {
+
+        private final String name;
+        private volatile BloomFilter current;
+        private volatile BloomFilter retired;
+
+        Region(String name) {
+            this.name = name;
+        }
+
+        boolean mightContain(String value) {
+            if (value == null) {
+                return false;
+            }
+            BloomFilter filter = current;
+            if (filter == null) {
+                return true; // not loaded yet - fall through to the database
+            }
+            String normalized = normalize(value);
+            if (filter.mightContain(normalized)) {
+                return true;
+            }
+            BloomFilter previous = retired;
+            return previous != null && previous.mightContain(normalized);
+        }
+
+        void put(String value) {
+            BloomFilter filter = current;
+            if (value != null && filter != null) {
+                filter.put(normalize(value));
+            }
+        }
+
+        void rebuild(long rowCount, Supplier<Stream<String>> values) {
+            BloomFilter fresh = new BloomFilter(Math.max(expectedInsertions, rowCount * 2), falsePositiveRate);
+            try (Stream<String> stream = values.get()) {
+                stream.map(MembershipIndex::normalize).forEach(fresh::put);
+            }
+            retired = current;
+            current = fresh;
+            log.debug("Membership filter for {} rebuilt with {} entries", name, rowCount);
+        }
+    }
+}
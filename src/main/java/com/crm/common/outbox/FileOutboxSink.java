@@ -0,0 +1,44 @@
+package com.crm.common.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Appends events as JSON lines to a local file.
+ */
+@Component
+@ConditionalOnProperty(name = "crm.outbox.sink", havingValue = "file")
+public class FileOutboxSink implements OutboxSink {
+
+    // Plain mapper on purpose: the shared one embeds type hints for Redis caching
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Path path;
+
+    public FileOutboxSink(@Value("${crm.outbox.file.path:outbox-events.jsonl}") String path) {
+        this.path = Path.of(path);
+    }
+
+    @Override
+    public synchronized void publish(OutboxEvent event) throws IOException {
+        Map<String, Object> line = new LinkedHashMap<>();
+        line.put("eventId", event.getId());
+        line.put("aggregateType", event.getAggregateType());
+        line.put("aggregateId", event.getAggregateId());
+        line.put("eventType", event.getEventType().name());
+        line.put("occurredAt", event.getCreatedAt().toString());
+        line.put("payload", objectMapper.readTree(event.getPayload()));
+
+        Files.writeString(path, objectMapper.writeValueAsString(line) + System.lineSeparator(),
+                StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+}
@@ -0,0 +1,47 @@
+package com.crm.common.outbox;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Locks the oldest pending events. A second relay instance blocks here instead of
+     * skipping rows, so one aggregate's events are never delivered by two relays out of order.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e FROM OutboxEvent e WHERE e.publishedAt IS NULL AND e.parkedAt IS NULL ORDER BY e.id")
+    List<OutboxEvent> lockPendingBatch(Pageable pageable);
+
+    /**
+     * Claims the oldest pending events until {@code claimUntil}, holding the row locks only for
+     * this transaction so delivery runs without them. Returns nothing while another relay's claim
+     * on the batch is still valid, so batches are delivered by one relay at a time, in order.
+     */
+    @Transactional
+    default List<OutboxEvent> claimPendingBatch(LocalDateTime now, LocalDateTime claimUntil, Pageable pageable) {
+        List<OutboxEvent> batch = lockPendingBatch(pageable);
+        if (batch.stream().anyMatch(e -> e.getClaimedUntil() != null && e.getClaimedUntil().isAfter(now))) {
+            return List.of();
+        }
+        batch.forEach(e -> e.setClaimedUntil(claimUntil));
+        return batch;
+    }
+
+    long countByPublishedAtIsNull();
+
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.publishedAt < :cutoff")
+    int deletePublishedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,9 @@
+package com.crm.common.outbox;
+
+public enum OutboxEventType {
+    CREATED,
+    UPDATED,
+    STATUS_CHANGED,
+    DELETED,
+    MERGED
+}
@@ -0,0 +1,53 @@
+package com.crm.common.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Records domain events in the outbox table as part of the caller's transaction,
+ * so an event exists if and only if the change that produced it was committed.
+ */
+@Component
+@Slf4j
+public class OutboxPublisher {
+
+    public static final String CUSTOMER = "Customer";
+    public static final String OFFER = "Offer";
+    public static final String TASK = "Task";
+
+    private final OutboxEventRepository repository;
+
+    // Plain mapper on purpose: the shared one embeds type hints for Redis caching
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    public OutboxPublisher(OutboxEventRepository repository) {
+        this.repository = repository;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(String aggregateType, Long aggregateId, OutboxEventType eventType, Object payload) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize " + aggregateType + " event payload", e);
+        }
+
+        repository.save(OutboxEvent.builder()
+                .aggregateType(aggregateType)
+                .aggregateId(aggregateId)
+                .eventType(eventType)
+                .payload(json)
+                .build());
+
+        log.debug("Recorded {} {} event for id {}", aggregateType, eventType, aggregateId);
+    }
+}
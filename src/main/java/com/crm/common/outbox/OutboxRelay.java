@@ -0,0 +1,110 @@
+package com.crm.common.outbox;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Drains pending outbox events to the configured sink in id order.
+ * When delivery of an event fails, later events of the same aggregate are held back
+ * until it succeeds, so per-aggregate ordering survives retries. An event failing
+ * {@code maxAttempts} times is parked instead, so it cannot block its aggregate forever;
+ * parked events stay in the table for inspection.
+ *
+ * A batch is claimed in a short transaction and delivered outside of it, so no row locks
+ * are held across sink calls; the results are saved in a second transaction.
+ */
+@Component
+@Slf4j
+public class OutboxRelay {
+
+    private final OutboxEventRepository repository;
+    private final OutboxSink sink;
+    private final int batchSize;
+    private final Duration retention;
+    private final int maxAttempts;
+    private final Duration claimTimeout;
+
+    public OutboxRelay(
+            OutboxEventRepository repository,
+            OutboxSink sink,
+            @Value("${crm.outbox.batch-size:100}") int batchSize,
+            @Value("${crm.outbox.retention:P7D}") Duration retention,
+            @Value("${crm.outbox.max-attempts:10}") int maxAttempts,
+            @Value("${crm.outbox.claim-timeout:PT1M}") Duration claimTimeout
+    ) {
+        this.repository = repository;
+        this.sink = sink;
+        this.batchSize = batchSize;
+        this.retention = retention;
+        this.maxAttempts = maxAttempts;
+        this.claimTimeout = claimTimeout;
+    }
+
+    /**
+     * Relays one batch and returns the number of events delivered.
+     */
+    @Scheduled(fixedDelayString = "${crm.outbox.poll-interval:PT1S}")
+    public int relay() {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEvent> batch = repository.claimPendingBatch(
+                now, now.plus(claimTimeout), PageRequest.of(0, batchSize));
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        Set<String> blocked = new HashSet<>();
+        int delivered = 0;
+
+        for (OutboxEvent event : batch) {
+            String aggregateKey = event.getAggregateType() + ":" + event.getAggregateId();
+            if (blocked.contains(aggregateKey)) {
+                continue;
+            }
+            try {
+                sink.publish(event);
+                event.setPublishedAt(now);
+                delivered++;
+            } catch (Exception e) {
+                blocked.add(aggregateKey);
+                event.setAttempts(event.getAttempts() + 1);
+                event.setLastError(truncate(e.toString()));
+                if (event.getAttempts() >= maxAttempts) {
+                    event.setParkedAt(now);
+                    log.error("Parked outbox event {} of {} after {} failed attempts: {}",
+                            event.getId(), aggregateKey, event.getAttempts(), e.getMessage());
+                } else {
+                    log.warn("Failed to relay outbox event {} ({} attempts): {}",
+                            event.getId(), event.getAttempts(), e.getMessage());
+                }
+            }
+        }
+
+        // Events not delivered in this round can be claimed again by the next one
+        batch.forEach(event -> event.setClaimedUntil(null));
+        repository.saveAll(batch);
+
+        log.debug("Relayed {} of {} outbox events", delivered, batch.size());
+        return delivered;
+    }
+
+    @Transactional
+    @Scheduled(cron = "${crm.outbox.cleanup-cron:0 0 4 * * *}")
+    public void purgePublished() {
+        int removed = repository.deletePublishedBefore(LocalDateTime.now().minus(retention));
+        log.info("Purged {} published outbox events older than {}", removed, retention);
+    }
+
+    private static String truncate(String message) {
+        return message.length() > 500 ? message.substring(0, 500) : message;
+    }
+}
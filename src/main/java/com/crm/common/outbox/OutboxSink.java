@@ -0,0 +1,11 @@
+package com.crm.common.outbox;
+
+/**
+ * Destination the relay delivers outbox events to.
+ * Delivery is at-least-once: an event may be sent again if the relay transaction
+ * fails after the sink accepted it, so consumers should de-duplicate on the event id.
+ */
+public interface OutboxSink {
+
+    void publish(OutboxEvent event) throws Exception;
+}
@@ -0,0 +1,43 @@
+package com.crm.common.outbox;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.stream.StreamRecords;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Appends events to a Redis stream. Consumers read deltas with XREAD/XREADGROUP
+ * from their last seen entry id.
+ */
+@Component
+@ConditionalOnProperty(name = "crm.outbox.sink", havingValue = "redis", matchIfMissing = true)
+public class RedisStreamOutboxSink implements OutboxSink {
+
+    private final StringRedisTemplate redisTemplate;
+    private final String streamKey;
+
+    public RedisStreamOutboxSink(
+            StringRedisTemplate redisTemplate,
+            @Value("${crm.outbox.redis.stream:crm:events}") String streamKey
+    ) {
+        this.redisTemplate = redisTemplate;
+        this.streamKey = streamKey;
+    }
+
+    @Override
+    public void publish(OutboxEvent event) {
+        Map<String, String> fields = new LinkedHashMap<>();
+        fields.put("eventId", String.valueOf(event.getId()));
+        fields.put("aggregateType", event.getAggregateType());
+        fields.put("aggregateId", String.valueOf(event.getAggregateId()));
+        fields.put("eventType", event.getEventType().name());
+        fields.put("occurredAt", event.getCreatedAt().toString());
+        fields.put("payload", event.getPayload());
+
+        redisTemplate.opsForStream().add(StreamRecords.string(fields).withStreamKey(streamKey));
+    }
+}
@@ -0,0 +1,26 @@
+package com.crm.common.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("crm.Controller")
+@Label("Controller Invocation")
+@Description("A @RestController handler method, from entry to exit")
+@Category("CRM")
+@StackTrace(false)
+public class ControllerEvent extends Event {
+
+    @Label("Handler")
+    @Description("Controller class and method")
+    public String handler;
+
+    @Label("HTTP Method")
+    public String httpMethod;
+
+    @Label("URI")
+    public String uri;
+}
@@ -0,0 +1,42 @@
+package com.crm.common.profiling;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+/**
+ * Emits a {@link ControllerEvent} around every controller method while a JFR recording
+ * that enables it is running; otherwise the event is never committed.
+ */
+@Aspect
+@Component
+public class ControllerProfilingAspect {
+
+    @Around("within(@org.springframework.web.bind.annotation.RestController *)")
+    public Object profileController(ProceedingJoinPoint joinPoint) throws Throwable {
+        ControllerEvent event = new ControllerEvent();
+        if (!event.isEnabled()) {
+            return joinPoint.proceed();
+        }
+        event.begin();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.handler = joinPoint.getSignature().getDeclaringType().getSimpleName()
+                        + "." + joinPoint.getSignature().getName();
+                if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+                    HttpServletRequest request = attributes.getRequest();
+                    event.httpMethod = request.getMethod();
+                    event.uri = request.getRequestURI();
+                }
+                event.commit();
+            }
+        }
+    }
+}
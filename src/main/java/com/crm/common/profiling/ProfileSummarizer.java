@@ -0,0 +1,55 @@
+package com.crm.common.profiling;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Turns the CPU samples of a JFR recording into collapsed stacks
+ * ("root;...;leaf count" per line), the input format of flame-graph tools.
+ */
+final class ProfileSummarizer {
+
+    private static final String EXECUTION_SAMPLE = "jdk.ExecutionSample";
+
+    private ProfileSummarizer() {
+    }
+
+    static String collapsedStacks(Path recording) throws IOException {
+        Map<String, Long> samples = new HashMap<>();
+        try (RecordingFile file = new RecordingFile(recording)) {
+            while (file.hasMoreEvents()) {
+                RecordedEvent event = file.readEvent();
+                RecordedStackTrace stackTrace = event.getStackTrace();
+                if (stackTrace != null && EXECUTION_SAMPLE.equals(event.getEventType().getName())) {
+                    samples.merge(collapse(stackTrace.getFrames()), 1L, Long::sum);
+                }
+            }
+        }
+        return samples.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .map(entry -> entry.getKey() + " " + entry.getValue())
+                .collect(Collectors.joining("\n", "", "\n"));
+    }
+
+    private static String collapse(List<RecordedFrame> frames) {
+        StringBuilder stack = new StringBuilder();
+        // JFR lists the leaf frame first
+        for (int i = frames.size() - 1; i >= 0; i--) {
+            RecordedFrame frame = frames.get(i);
+            if (!stack.isEmpty()) {
+                stack.append(';');
+            }
+            stack.append(frame.getMethod().getType().getName()).append('.').append(frame.getMethod().getName());
+        }
+        return stack.toString();
+    }
+}
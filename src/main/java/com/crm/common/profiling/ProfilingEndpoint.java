@@ -0,0 +1,117 @@
+package com.crm.common.profiling;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * {@code /actuator/profile?seconds=30}: runs a bounded JFR recording ("profile" settings plus
+ * the CRM controller, cache and repository events) and returns it, ADMIN only.
+ * <ul>
+ *     <li>{@code Accept: application/octet-stream} - the .jfr file, for JDK Mission Control</li>
+ *     <li>{@code Accept: text/plain} - collapsed CPU stacks, for flamegraph.pl / speedscope</li>
+ * </ul>
+ * Only one recording runs at a time; concurrent requests get 429.
+ */
+@Component
+@Endpoint(id = "profile")
+@Slf4j
+public class ProfilingEndpoint {
+
+    private final Duration defaultDuration;
+    private final Duration maxDuration;
+    private final long maxSize;
+
+    private final AtomicBoolean recording = new AtomicBoolean();
+
+    public ProfilingEndpoint(
+            @Value("${crm.profiling.default-duration:PT30S}") Duration defaultDuration,
+            @Value("${crm.profiling.max-duration:PT2M}") Duration maxDuration,
+            @Value("${crm.profiling.max-size:67108864}") long maxSize
+    ) {
+        this.defaultDuration = defaultDuration;
+        this.maxDuration = maxDuration;
+        this.maxSize = maxSize;
+    }
+
+    @ReadOperation(produces = "application/octet-stream")
+    public WebEndpointResponse<Resource> recording(@Nullable Integer seconds) throws IOException, ParseException {
+        if (!recording.compareAndSet(false, true)) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_TOO_MANY_REQUESTS);
+        }
+        Path file = null;
+        try {
+            file = record(seconds);
+            return new WebEndpointResponse<>(new ByteArrayResource(Files.readAllBytes(file)));
+        } finally {
+            cleanUp(file);
+        }
+    }
+
+    @ReadOperation(produces = "text/plain;charset=UTF-8")
+    public WebEndpointResponse<String> collapsedStacks(@Nullable Integer seconds) throws IOException, ParseException {
+        if (!recording.compareAndSet(false, true)) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_TOO_MANY_REQUESTS);
+        }
+        Path file = null;
+        try {
+            file = record(seconds);
+            return new WebEndpointResponse<>(ProfileSummarizer.collapsedStacks(file));
+        } finally {
+            cleanUp(file);
+        }
+    }
+
+    private Path record(@Nullable Integer seconds) throws IOException, ParseException {
+        Duration duration = seconds != null ? Duration.ofSeconds(seconds) : defaultDuration;
+        if (duration.isNegative() || duration.isZero() || duration.compareTo(maxDuration) > 0) {
+            duration = maxDuration;
+        }
+        log.info("Starting JFR profiling recording for {}", duration);
+
+        try (Recording jfr = new Recording(Configuration.getConfiguration("profile"))) {
+            jfr.setName("crm-profile");
+            jfr.setMaxSize(maxSize);
+            jfr.enable(ControllerEvent.class);
+            jfr.enable(CacheLookupEvent.class);
+            jfr.enable(RepositoryCallEvent.class);
+            jfr.start();
+            try {
+                Thread.sleep(duration.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            jfr.stop();
+
+            Path file = Files.createTempFile("crm-profile-", ".jfr");
+            jfr.dump(file);
+            return file;
+        }
+    }
+
+    private void cleanUp(@Nullable Path file) {
+        recording.set(false);
+        if (file != null) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                log.warn("Could not delete JFR recording {}: {}", file, e.getMessage());
+            }
+        }
+    }
+}
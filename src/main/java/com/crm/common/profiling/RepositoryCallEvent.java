@@ -0,0 +1,20 @@
+package com.crm.common.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("crm.RepositoryCall")
+@Label("Repository Call")
+@Description("A Spring Data repository method invocation")
+@Category("CRM")
+@StackTrace(false)
+public class RepositoryCallEvent extends Event {
+
+    @Label("Method")
+    @Description("Repository interface and method")
+    public String method;
+}
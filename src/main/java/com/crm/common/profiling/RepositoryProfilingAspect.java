@@ -0,0 +1,33 @@
+package com.crm.common.profiling;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+/**
+ * Emits a {@link RepositoryCallEvent} around Spring Data repository calls while a JFR
+ * recording that enables it is running.
+ */
+@Aspect
+@Component
+public class RepositoryProfilingAspect {
+
+    @Around("this(org.springframework.data.repository.Repository)")
+    public Object profileRepositoryCall(ProceedingJoinPoint joinPoint) throws Throwable {
+        RepositoryCallEvent event = new RepositoryCallEvent();
+        if (!event.isEnabled()) {
+            return joinPoint.proceed();
+        }
+        event.begin();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.method = joinPoint.getSignature().toShortString();
+                event.commit();
+            }
+        }
+    }
+}
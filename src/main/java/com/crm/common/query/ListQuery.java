@@ -0,0 +1,263 @@
+package com.crm.common.query;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Filter, sort and keyset position of a list request, parsed against the whitelisted fields of a
+ * resource.
+ *
+ * Filter grammar: conditions separated by {@code ;}, each {@code field op value} with op one of
+ * {@code = > >= < <=}; {@code =} takes a comma separated list of alternatives, e.g.
+ * {@code status=TODO,IN_PROGRESS;dueDate>=2026-10-01T00:00:00}. Conditions are combined with AND.
+ *
+ * Sort is a single field, {@code -} prefixed for descending, with id as the tie-breaker. Only
+ * fields with a {@link QueryField#sortIndex() sort index} are accepted, so every page is a range
+ * scan of an index starting at the cursor rather than a sort of all matching rows.
+ */
+public final class ListQuery<E> {
+
+    public enum Operator {
+        EQ("="), GT(">"), GE(">="), LT("<"), LE("<=");
+
+        private final String symbol;
+
+        Operator(String symbol) {
+            this.symbol = symbol;
+        }
+
+        static Operator of(String symbol) {
+            return Arrays.stream(values()).filter(op -> op.symbol.equals(symbol)).findFirst().orElseThrow();
+        }
+    }
+
+    public record Condition<E>(QueryField<E> field, Operator operator, List<Object> values) {
+    }
+
+    private static final Pattern CONDITION = Pattern.compile("\\s*(\\w+)\\s*(>=|<=|=|>|<)\\s*(.*?)\\s*");
+    private static final int MAX_VALUES = 100;
+    private static final String ID = "id";
+
+    private final List<Condition<E>> conditions;
+    private final QueryField<E> sort;
+    private final boolean descending;
+    private final QueryField<E> id;
+    private final Object afterValue;
+    private final Long afterId;
+    private final int limit;
+
+    private ListQuery(List<Condition<E>> conditions, QueryField<E> sort, boolean descending, QueryField<E> id,
+                      Object afterValue, Long afterId, int limit) {
+        this.conditions = conditions;
+        this.sort = sort;
+        this.descending = descending;
+        this.id = id;
+        this.afterValue = afterValue;
+        this.afterId = afterId;
+        this.limit = limit;
+    }
+
+    /**
+     * @param filter conditions, may be {@code null}
+     * @param sort   sort field, {@code -} prefixed for descending; id ascending when {@code null}
+     * @param after  cursor of the previous page, may be {@code null}
+     * @throws IllegalArgumentException for unknown fields, operators a field does not support,
+     *                                  malformed values, sorts without an index or foreign cursors
+     */
+    public static <E, F extends Enum<F> & QueryField<E>> ListQuery<E> parse(String filter, String sort, String after,
+                                                                          int limit, Class<F> type) {
+        Map<String, F> fields = Arrays.stream(type.getEnumConstants())
+                .collect(Collectors.toMap(QueryField::fieldName, Function.identity()));
+        QueryField<E> id = fields.get(ID);
+        if (id == null) {
+            throw new IllegalStateException(type.getSimpleName() + " has no id field");
+        }
+
+        List<Condition<E>> conditions = new ArrayList<>();
+        if (filter != null) {
+            for (String clause : filter.split(";")) {
+                if (!clause.isBlank()) {
+                    conditions.add(condition(clause, fields));
+                }
+            }
+        }
+
+        String sortSpec = sort == null || sort.isBlank() ? ID : sort.trim();
+        boolean descending = sortSpec.startsWith("-");
+        QueryField<E> sortField = field(descending ? sortSpec.substring(1) : sortSpec, fields);
+        if (sortField.sortIndex() == null) {
+            throw new IllegalArgumentException("Sorting by '" + sortField.fieldName() + "' is not backed by an index, "
+                    + "sortable fields are " + fields.values().stream()
+                    .filter(field -> field.sortIndex() != null)
+                    .map(QueryField::fieldName)
+                    .sorted()
+                    .collect(Collectors.joining(", ")));
+        }
+
+        Object afterValue = null;
+        Long afterId = null;
+        if (after != null && !after.isBlank()) {
+            String[] cursor = decode(after);
+            if (!cursor[0].equals(sortSpec)) {
+                throw new IllegalArgumentException("Cursor was issued for sort '" + cursor[0] + "', not '" + sortSpec + "'");
+            }
+            afterValue = value(sortField, cursor[1]);
+            afterId = (Long) value(id, cursor[2]);
+        }
+
+        return new ListQuery<>(List.copyOf(conditions), sortField, descending, id, afterValue, afterId, limit);
+    }
+
+    public List<Condition<E>> conditions() {
+        return conditions;
+    }
+
+    public int limit() {
+        return limit;
+    }
+
+    public Expression<?> sortPath(Root<E> root) {
+        return sort.path(root);
+    }
+
+    public Expression<?> idPath(Root<E> root) {
+        return id.path(root);
+    }
+
+    /**
+     * Filter conditions plus, on later pages, the position after the cursor.
+     */
+    public Predicate predicate(CriteriaBuilder cb, Root<E> root) {
+        List<Predicate> predicates = new ArrayList<>();
+        for (Condition<E> condition : conditions) {
+            Expression<?> path = condition.field().path(root);
+            if (condition.operator() == Operator.EQ && condition.values().size() > 1) {
+                predicates.add(path.in(condition.values()));
+            } else {
+                predicates.add(compare(cb, path, condition.operator(), condition.values().get(0)));
+            }
+        }
+        if (afterId != null) {
+            Operator next = descending ? Operator.LT : Operator.GT;
+            Predicate afterId = compare(cb, idPath(root), next, this.afterId);
+            if (sort == id) {
+                predicates.add(afterId);
+            } else {
+                // The redundant bound lets the optimizer start a range scan of the sort index
+                predicates.add(compare(cb, sortPath(root), descending ? Operator.LE : Operator.GE, afterValue));
+                predicates.add(cb.or(
+                        compare(cb, sortPath(root), next, afterValue),
+                        cb.and(compare(cb, sortPath(root), Operator.EQ, afterValue), afterId)));
+            }
+        }
+        return cb.and(predicates.toArray(Predicate[]::new));
+    }
+
+    public List<Order> orders(CriteriaBuilder cb, Root<E> root) {
+        Function<Expression<?>, Order> order = descending ? cb::desc : cb::asc;
+        return sort == id
+                ? List.of(order.apply(idPath(root)))
+                : List.of(order.apply(sortPath(root)), order.apply(idPath(root)));
+    }
+
+    /**
+     * Cursor for the page after the row with the given sort value and id.
+     */
+    public String cursorAfter(Object sortValue, Object rowId) {
+        String raw = (descending ? "-" : "") + sort.fieldName() + "|" + sortValue + "|" + rowId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static <E, F extends QueryField<E>> Condition<E> condition(String clause, Map<String, F> fields) {
+        Matcher matcher = CONDITION.matcher(clause);
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException("Invalid filter condition '" + clause.trim() + "'");
+        }
+        QueryField<E> field = field(matcher.group(1), fields);
+        Operator operator = Operator.of(matcher.group(2));
+        if (operator != Operator.EQ && !field.ranged()) {
+            throw new IllegalArgumentException("Field '" + field.fieldName() + "' only supports '='");
+        }
+
+        String[] raw = operator == Operator.EQ ? matcher.group(3).split(",") : new String[]{matcher.group(3)};
+        if (raw.length > MAX_VALUES) {
+            throw new IllegalArgumentException("At most " + MAX_VALUES + " values per condition");
+        }
+        List<Object> values = new ArrayList<>(raw.length);
+        for (String value : raw) {
+            values.add(value(field, value.trim()));
+        }
+        return new Condition<>(field, operator, List.copyOf(values));
+    }
+
+    private static <E, F extends QueryField<E>> QueryField<E> field(String name, Map<String, F> fields) {
+        F field = fields.get(name);
+        if (field == null) {
+            throw new IllegalArgumentException("Unknown field '" + name + "', expected any of "
+                    + fields.keySet().stream().sorted().collect(Collectors.joining(", ")));
+        }
+        return field;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Object value(QueryField<?> field, String raw) {
+        Class<?> type = field.type();
+        try {
+            if (type == Long.class) {
+                return Long.valueOf(raw);
+            }
+            if (type == BigDecimal.class) {
+                return new BigDecimal(raw);
+            }
+            if (type == LocalDateTime.class) {
+                return LocalDateTime.parse(raw);
+            }
+            if (type.isEnum()) {
+                return Enum.valueOf((Class<? extends Enum>) type, raw);
+            }
+            return raw;
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid value '" + raw + "' for field '" + field.fieldName() + "'", e);
+        }
+    }
+
+    private static String[] decode(String cursor) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return parts;
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Predicate compare(CriteriaBuilder cb, Expression path, Operator operator, Object value) {
+        Comparable comparable = (Comparable) value;
+        return switch (operator) {
+            case EQ -> cb.equal(path, value);
+            case GT -> cb.greaterThan(path, comparable);
+            case GE -> cb.greaterThanOrEqualTo(path, comparable);
+            case LT -> cb.lessThan(path, comparable);
+            case LE -> cb.lessThanOrEqualTo(path, comparable);
+        };
+    }
+}
@@ -0,0 +1,28 @@
+package com.crm.common.query;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One keyset page of a list query. Clients pass nextCursor as {@code after} with the same
+ * filter and sort while hasMore is true.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PageResponseDTO<T> {
+
+    private List<T> items;
+    private String nextCursor;
+    private boolean hasMore;
+
+    public <R> PageResponseDTO<R> map(Function<? super T, ? extends R> mapper) {
+        return new PageResponseDTO<>(items.stream().<R>map(mapper).toList(), nextCursor, hasMore);
+    }
+}
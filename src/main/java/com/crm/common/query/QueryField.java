@@ -0,0 +1,34 @@
+package com.crm.common.query;
+
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Root;
+
+/**
+ * Field that can be filtered and possibly sorted by in a {@link ListQuery}.
+ */
+public interface QueryField<E> {
+
+    String fieldName();
+
+    /**
+     * Type filter values and cursor positions are parsed to: {@code Long}, {@code BigDecimal},
+     * {@code LocalDateTime} or an enum.
+     */
+    Class<?> type();
+
+    /**
+     * Whether {@code <, <=, >, >=} are accepted besides {@code =}.
+     */
+    boolean ranged();
+
+    /**
+     * Index that returns rows in this field's order, ties in id order, so a keyset page is read
+     * off the index instead of sorting the filtered rows; {@code null} when there is none and
+     * sorting by the field is refused.
+     */
+    String sortIndex();
+
+    default Expression<?> path(Root<E> root) {
+        return root.get(fieldName());
+    }
+}
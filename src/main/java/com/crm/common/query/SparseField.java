@@ -0,0 +1,15 @@
+package com.crm.common.query;
+
+import jakarta.persistence.criteria.Expression;
+
+/**
+ * Response field that can be requested with {@code ?fields=}: its name in the response and the
+ * SQL expression producing it. Associations are joined through {@link SparseSelect#join}, so a
+ * join is only part of the query when a requested field reads from it.
+ */
+public interface SparseField<E> {
+
+    String fieldName();
+
+    Expression<?> select(SparseSelect<E> select);
+}
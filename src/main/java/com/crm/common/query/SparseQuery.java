@@ -0,0 +1,169 @@
+package com.crm.common.query;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Lists rows as maps of just the requested fields, selected by a tuple query instead of loading
+ * entities: unrequested columns are not read and unrequested associations are not joined. Runs
+ * {@link ListQuery list queries} as keyset pages, of entities or of such maps.
+ *
+ * Results are not cached here; responses are cached per URI, so each field set and query is
+ * cached and versioned on its own by the response body cache.
+ */
+@Component
+@Slf4j
+public class SparseQuery {
+
+    private final EntityManager entityManager;
+    private final int maxPageSize;
+
+    public SparseQuery(
+            EntityManager entityManager,
+            @Value("${crm.query.max-page-size:500}") int maxPageSize
+    ) {
+        this.entityManager = entityManager;
+        this.maxPageSize = maxPageSize;
+    }
+
+    /**
+     * Parses a comma separated {@code fields} parameter into the fields of {@code type}, in the
+     * requested order and without repeats.
+     *
+     * @throws IllegalArgumentException for unknown or no fields
+     */
+    public static <F extends Enum<F> & SparseField<?>> List<F> parse(String fields, Class<F> type) {
+        Map<String, F> byName = Arrays.stream(type.getEnumConstants())
+                .collect(Collectors.toMap(SparseField::fieldName, Function.identity()));
+
+        Set<F> parsed = new LinkedHashSet<>();
+        for (String name : fields.split(",")) {
+            String trimmed = name.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            F field = byName.get(trimmed);
+            if (field == null) {
+                throw new IllegalArgumentException("Unknown field '" + trimmed + "', expected any of "
+                        + String.join(", ", byName.keySet().stream().sorted().toList()));
+            }
+            parsed.add(field);
+        }
+        if (parsed.isEmpty()) {
+            throw new IllegalArgumentException("fields must name at least one field");
+        }
+        return List.copyOf(parsed);
+    }
+
+    /**
+     * Rows of {@code entity} matching {@code where}, ordered by id, each as a map of the
+     * requested fields in the requested order.
+     */
+    public <E> List<Map<String, Object>> list(Class<E> entity, List<? extends SparseField<E>> fields,
+                                              Function<SparseSelect<E>, Predicate> where) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = builder.createTupleQuery();
+        Root<E> root = query.from(entity);
+        SparseSelect<E> select = new SparseSelect<>(builder, root, LocalDateTime.now());
+
+        List<Selection<?>> selections = new ArrayList<>(fields.size());
+        for (SparseField<E> field : fields) {
+            selections.add(field.select(select));
+        }
+        query.multiselect(selections).orderBy(builder.asc(root.get("id")));
+        if (where != null) {
+            query.where(where.apply(select));
+        }
+
+        List<Tuple> tuples = entityManager.createQuery(query).getResultList();
+        log.debug("Selected {} of {} {} rows", fields.stream().map(SparseField::fieldName).toList(),
+                tuples.size(), entity.getSimpleName());
+
+        return tuples.stream().map(tuple -> row(fields, tuple)).toList();
+    }
+
+    /**
+     * Page of entities matching {@code query}; {@code fetch} joins the associations the caller
+     * maps them with.
+     */
+    public <E> PageResponseDTO<E> page(Class<E> entity, ListQuery<E> query, Consumer<Root<E>> fetch) {
+        return page(entity, query, select -> {
+            fetch.accept(select.root());
+            return List.of(select.root());
+        }, tuple -> tuple.get(0, entity));
+    }
+
+    /**
+     * Page of rows matching {@code query}, each as a map of the requested fields.
+     */
+    public <E> PageResponseDTO<Map<String, Object>> page(Class<E> entity, List<? extends SparseField<E>> fields,
+                                                         ListQuery<E> query) {
+        return page(entity, query, select -> fields.stream().<Selection<?>>map(field -> field.select(select)).toList(),
+                tuple -> row(fields, tuple));
+    }
+
+    /**
+     * Selects the payload followed by the sort value and id of each row, which position the cursor
+     * whether or not the payload contains them. One row beyond the limit tells whether there is
+     * a next page.
+     */
+    private <E, T> PageResponseDTO<T> page(Class<E> entity, ListQuery<E> query,
+                                           Function<SparseSelect<E>, List<Selection<?>>> payload,
+                                           Function<Tuple, T> mapper) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> criteria = builder.createTupleQuery();
+        Root<E> root = criteria.from(entity);
+        SparseSelect<E> select = new SparseSelect<>(builder, root, LocalDateTime.now());
+
+        List<Selection<?>> selections = new ArrayList<>(payload.apply(select));
+        int keyAt = selections.size();
+        selections.add(query.sortPath(root));
+        selections.add(query.idPath(root));
+        criteria.multiselect(selections)
+                .where(query.predicate(builder, root))
+                .orderBy(query.orders(builder, root));
+
+        int limit = Math.max(1, Math.min(query.limit(), maxPageSize));
+        List<Tuple> tuples = entityManager.createQuery(criteria).setMaxResults(limit + 1).getResultList();
+        boolean hasMore = tuples.size() > limit;
+        if (hasMore) {
+            tuples = tuples.subList(0, limit);
+        }
+
+        String nextCursor = null;
+        if (hasMore) {
+            Tuple last = tuples.get(tuples.size() - 1);
+            nextCursor = query.cursorAfter(last.get(keyAt), last.get(keyAt + 1));
+        }
+        log.debug("Read page of {} {} rows, hasMore={}", tuples.size(), entity.getSimpleName(), hasMore);
+        return new PageResponseDTO<>(tuples.stream().map(mapper).toList(), nextCursor, hasMore);
+    }
+
+    private static <E> Map<String, Object> row(List<? extends SparseField<E>> fields, Tuple tuple) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        for (int i = 0; i < fields.size(); i++) {
+            row.put(fields.get(i).fieldName(), tuple.get(i));
+        }
+        return row;
+    }
+}
@@ -0,0 +1,52 @@
+package com.crm.common.query;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Root;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Root of a sparse fieldset query and the associations joined so far.
+ */
+public class SparseSelect<E> {
+
+    private final CriteriaBuilder builder;
+    private final Root<E> root;
+    private final LocalDateTime now;
+    private final Map<String, Join<E, ?>> joins = new HashMap<>();
+
+    SparseSelect(CriteriaBuilder builder, Root<E> root, LocalDateTime now) {
+        this.builder = builder;
+        this.root = root;
+        this.now = now;
+    }
+
+    public CriteriaBuilder builder() {
+        return builder;
+    }
+
+    public Root<E> root() {
+        return root;
+    }
+
+    /**
+     * Time the query was started at, shared by every field and predicate comparing against it.
+     */
+    public LocalDateTime now() {
+        return now;
+    }
+
+    /**
+     * Joins the association on first use; later fields reading from it share the join.
+     * The id of a to-one association is its foreign key and needs no join: use
+     * {@code root().get(attribute).get("id")}.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Join<E, T> join(String attribute, JoinType type) {
+        return (Join<E, T>) joins.computeIfAbsent(attribute, name -> root.join(name, type));
+    }
+}
@@ -0,0 +1,83 @@
+package com.crm.common.resilience;
+
+import com.crm.common.exception.BulkheadFullException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Caps concurrent access to a resource. Callers wait at most {@code maxWait} for a permit
+ * and are rejected with {@link BulkheadFullException} afterwards, so a slow resource cannot
+ * absorb every request thread (or, with virtual threads, an unbounded number of waiters).
+ */
+public class Bulkhead {
+
+    private final String name;
+    private final Semaphore permits;
+    private final long maxWaitNanos;
+    private final Counter rejected;
+
+    public Bulkhead(String name, int maxConcurrent, Duration maxWait, MeterRegistry registry) {
+        this.name = name;
+        this.permits = new Semaphore(maxConcurrent);
+        this.maxWaitNanos = maxWait.toNanos();
+
+        Gauge.builder("crm.bulkhead.available", permits, Semaphore::availablePermits)
+                .description("Free bulkhead permits")
+                .tag("bulkhead", name)
+                .register(registry);
+        Gauge.builder("crm.bulkhead.max", () -> maxConcurrent)
+                .description("Bulkhead capacity")
+                .tag("bulkhead", name)
+                .register(registry);
+        this.rejected = Counter.builder("crm.bulkhead.rejected")
+                .description("Calls rejected because no permit was free within the maximum wait")
+                .tag("bulkhead", name)
+                .register(registry);
+    }
+
+    public void acquire() {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            rejected.increment();
+            throw new BulkheadFullException(name);
+        }
+    }
+
+    public void release() {
+        permits.release();
+    }
+
+    public <T> T execute(Supplier<T> action) {
+        acquire();
+        try {
+            return action.get();
+        } finally {
+            release();
+        }
+    }
+
+    public void execute(Runnable action) {
+        acquire();
+        try {
+            action.run();
+        } finally {
+            release();
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+}
@@ -0,0 +1,214 @@
+package com.crm.common.resilience;
+
+import com.crm.common.exception.CircuitBreakerOpenException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Count-based circuit breaker. While CLOSED, the outcome of the last {@code windowSize} calls is
+ * kept; once at least {@code minimumCalls} were recorded and the share of failed or slow calls
+ * reaches the threshold, the breaker OPENs and rejects calls with {@link CircuitBreakerOpenException}
+ * without touching the dependency. After {@code openDuration} it lets {@code halfOpenProbes} calls
+ * through (HALF_OPEN): all of them succeeding closes it again, any failure re-opens it.
+ */
+@Slf4j
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    /**
+     * @param failureRateThreshold share of failed or slow calls (0-100) that opens the breaker
+     * @param slowCallThreshold    calls taking longer than this count as failed
+     */
+    public record Settings(
+            double failureRateThreshold,
+            Duration slowCallThreshold,
+            int windowSize,
+            int minimumCalls,
+            Duration openDuration,
+            int halfOpenProbes
+    ) {
+    }
+
+    private final String name;
+    private final double failureRateThreshold;
+    private final long slowCallNanos;
+    private final int minimumCalls;
+    private final long openNanos;
+    private final int halfOpenProbes;
+    private final LongSupplier clock;
+
+    private final boolean[] window;
+    private int windowNext;
+    private int windowCalls;
+    private int windowFailures;
+
+    private volatile State state = State.CLOSED;
+    private long openUntilNanos;
+    private int probesStarted;
+    private int probesSucceeded;
+
+    private final Counter successful;
+    private final Counter failed;
+    private final Counter slow;
+    private final Counter rejected;
+
+    public CircuitBreaker(String name, Settings settings, MeterRegistry registry) {
+        this(name, settings, registry, System::nanoTime);
+    }
+
+    CircuitBreaker(String name, Settings settings, MeterRegistry registry, LongSupplier clock) {
+        this.name = name;
+        this.failureRateThreshold = settings.failureRateThreshold();
+        this.slowCallNanos = settings.slowCallThreshold().toNanos();
+        this.minimumCalls = Math.min(settings.minimumCalls(), settings.windowSize());
+        this.openNanos = settings.openDuration().toNanos();
+        this.halfOpenProbes = settings.halfOpenProbes();
+        this.clock = clock;
+        this.window = new boolean[settings.windowSize()];
+
+        for (State candidate : State.values()) {
+            Gauge.builder("crm.circuitbreaker.state", this, breaker -> breaker.state == candidate ? 1 : 0)
+                    .description("1 for the current circuit breaker state, 0 otherwise")
+                    .tag("circuitbreaker", name)
+                    .tag("state", candidate.name().toLowerCase())
+                    .register(registry);
+        }
+        this.successful = calls(registry, name, "success");
+        this.failed = calls(registry, name, "failure");
+        this.slow = calls(registry, name, "slow");
+        this.rejected = calls(registry, name, "rejected");
+    }
+
+    public <T> T execute(Supplier<T> action) {
+        acquirePermission();
+        long start = clock.getAsLong();
+        try {
+            T result = action.get();
+            onResult(clock.getAsLong() - start, false);
+            return result;
+        } catch (RuntimeException e) {
+            onResult(clock.getAsLong() - start, true);
+            throw e;
+        }
+    }
+
+    public void execute(Runnable action) {
+        execute(() -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * Checks whether a call may proceed; callers that do not go through {@code execute}
+     * (asynchronous calls) must report the outcome with {@link #onResult}.
+     */
+    public void acquirePermission() {
+        if (state == State.CLOSED || tryAcquireSlowPath()) {
+            return;
+        }
+        rejected.increment();
+        throw new CircuitBreakerOpenException(name);
+    }
+
+    public void onResult(long durationNanos, boolean error) {
+        boolean isSlow = !error && durationNanos > slowCallNanos;
+        (error ? failed : isSlow ? slow : successful).increment();
+        record(error || isSlow);
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    private synchronized boolean tryAcquireSlowPath() {
+        if (state == State.OPEN) {
+            if (clock.getAsLong() - openUntilNanos < 0) {
+                return false;
+            }
+            transitionTo(State.HALF_OPEN);
+        }
+        if (state == State.HALF_OPEN) {
+            if (probesStarted >= halfOpenProbes) {
+                return false;
+            }
+            probesStarted++;
+        }
+        return true;
+    }
+
+    private synchronized void record(boolean failure) {
+        switch (state) {
+            case CLOSED -> {
+                if (windowCalls == window.length) {
+                    if (window[windowNext]) {
+                        windowFailures--;
+                    }
+                } else {
+                    windowCalls++;
+                }
+                window[windowNext] = failure;
+                windowNext = (windowNext + 1) % window.length;
+                if (failure) {
+                    windowFailures++;
+                }
+                if (windowCalls >= minimumCalls && windowFailures * 100.0 / windowCalls >= failureRateThreshold) {
+                    transitionTo(State.OPEN);
+                }
+            }
+            case HALF_OPEN -> {
+                if (failure) {
+                    transitionTo(State.OPEN);
+                } else if (++probesSucceeded >= halfOpenProbes) {
+                    transitionTo(State.CLOSED);
+                }
+            }
+            case OPEN -> {
+                // outcome of a call started before the breaker opened
+            }
+        }
+    }
+
+    private void transitionTo(State next) {
+        State previous = state;
+        switch (next) {
+            case OPEN -> openUntilNanos = clock.getAsLong() + openNanos;
+            case HALF_OPEN -> {
+                probesStarted = 0;
+                probesSucceeded = 0;
+            }
+            case CLOSED -> {
+                windowNext = 0;
+                windowCalls = 0;
+                windowFailures = 0;
+            }
+        }
+        state = next;
+        if (next == State.CLOSED) {
+            log.info("Circuit breaker '{}' {} -> {}", name, previous, next);
+        } else {
+            log.warn("Circuit breaker '{}' {} -> {}", name, previous, next);
+        }
+    }
+
+    private static Counter calls(MeterRegistry registry, String name, String outcome) {
+        return Counter.builder("crm.circuitbreaker.calls")
+                .description("Calls through the circuit breaker by outcome; slow calls count as failures")
+                .tag("circuitbreaker", name)
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+}
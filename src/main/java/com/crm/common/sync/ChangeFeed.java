@@ -0,0 +1,167 @@
+package com.crm.common.sync;
+
+import com.crm.common.exception.SyncCursorExpiredException;
+import com.crm.security.service.RowVisibility;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Builds "changes since cursor" pages from an indexed updated_at column plus tombstones.
+ *
+ * Only rows stamped before now minus a settle window are returned, so a transaction that
+ * commits late with an older timestamp is still picked up by the next request.
+ */
+@Component
+@Slf4j
+public class ChangeFeed {
+
+    private final TombstoneRepository tombstoneRepository;
+    private final RowVisibility rowVisibility;
+    private final Duration settleWindow;
+    private final Duration tombstoneRetention;
+    private final int maxPageSize;
+
+    public ChangeFeed(
+            TombstoneRepository tombstoneRepository,
+            RowVisibility rowVisibility,
+            @Value("${crm.sync.settle-window:PT5S}") Duration settleWindow,
+            @Value("${crm.sync.tombstone-retention:P30D}") Duration tombstoneRetention,
+            @Value("${crm.sync.max-page-size:1000}") int maxPageSize
+    ) {
+        this.tombstoneRepository = tombstoneRepository;
+        this.rowVisibility = rowVisibility;
+        this.settleWindow = settleWindow;
+        this.tombstoneRetention = tombstoneRetention;
+        this.maxPageSize = maxPageSize;
+    }
+
+    /**
+     * Keyset query for rows changed after (afterTime, afterId) and strictly before {@code until},
+     * ordered by (updatedAt, id).
+     */
+    @FunctionalInterface
+    public interface ChangeQuery<E> {
+        List<E> find(Instant afterTime, long afterId, Instant until, PageRequest page);
+    }
+
+    public <E, D> ChangesResponseDTO<D> read(
+            SyncResource resource,
+            String since,
+            int limit,
+            ChangeQuery<E> query,
+            Function<E, Instant> updatedAt,
+            Function<E, Long> id,
+            Function<E, D> mapper
+    ) {
+        SyncCursor cursor = SyncCursor.decode(since);
+        Instant now = Instant.now();
+        if (!cursor.isInitial() && cursor.deletionsAt().isBefore(now.minus(tombstoneRetention))) {
+            throw new SyncCursorExpiredException();
+        }
+
+        int pageSize = Math.max(1, Math.min(limit, maxPageSize));
+        Instant until = now.minus(settleWindow);
+        PageRequest page = PageRequest.of(0, pageSize + 1);
+
+        List<E> changed = query.find(cursor.upsertsAt(), cursor.upsertsId(), until, page);
+        boolean moreUpserts = changed.size() > pageSize;
+        if (moreUpserts) {
+            changed = changed.subList(0, pageSize);
+        }
+
+        List<Tombstone> deleted = tombstoneRepository.findDeletedAfter(resource, rowVisibility.restrictedTo(),
+                toLocalDateTime(cursor.deletionsAt()), cursor.deletionsId(), toLocalDateTime(until), page);
+        boolean moreDeletions = deleted.size() > pageSize;
+        if (moreDeletions) {
+            deleted = deleted.subList(0, pageSize);
+        }
+
+        // A caught-up stream jumps to the window edge so an idle feed never falls behind retention
+        E lastChanged = changed.isEmpty() ? null : changed.get(changed.size() - 1);
+        Tombstone lastDeleted = deleted.isEmpty() ? null : deleted.get(deleted.size() - 1);
+        SyncCursor next = new SyncCursor(
+                moreUpserts ? updatedAt.apply(lastChanged) : until,
+                moreUpserts ? id.apply(lastChanged) : 0L,
+                moreDeletions ? toInstant(lastDeleted.getDeletedAt()) : until,
+                moreDeletions ? lastDeleted.getId() : 0L);
+
+        log.debug("{} changes: {} upserts, {} deletions", resource, changed.size(), deleted.size());
+
+        return ChangesResponseDTO.<D>builder()
+                .upserts(changed.stream().map(mapper).toList())
+                .deletedIds(deleted.stream().map(Tombstone::getResourceId).toList())
+                .nextCursor(next.encode())
+                .hasMore(moreUpserts || moreDeletions)
+                .build();
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordDeletion(SyncResource resource, Long id) {
+        tombstoneRepository.save(Tombstone.builder().resourceType(resource).resourceId(id).build());
+    }
+
+    /**
+     * Records a row moving from one user to another. The previous user's feed reports it deleted,
+     * as the visibility filter hides it from their upserts, and a removal left for the new user by
+     * an earlier reassignment is dropped so it cannot follow the row back into their feed.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordReassignment(SyncResource resource, Long id, Long previousUserId, Long userId) {
+        if (Objects.equals(previousUserId, userId)) {
+            return;
+        }
+        if (userId != null) {
+            tombstoneRepository.deleteRemoval(resource, id, userId);
+        }
+        if (previousUserId != null) {
+            tombstoneRepository.save(Tombstone.builder()
+                    .resourceType(resource).resourceId(id).userId(previousUserId).build());
+        }
+    }
+
+    /**
+     * Records deletions of rows removed by a database cascade rather than by the service.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordDeletions(SyncResource resource, Collection<Long> ids) {
+        if (!ids.isEmpty()) {
+            tombstoneRepository.saveAll(ids.stream()
+                    .map(id -> Tombstone.builder().resourceType(resource).resourceId(id).build())
+                    .toList());
+        }
+    }
+
+    @Transactional
+    @Scheduled(cron = "${crm.sync.tombstone-cleanup-cron:0 15 4 * * *}")
+    public void purgeTombstones() {
+        int removed = tombstoneRepository.deleteOlderThan(LocalDateTime.now().minus(tombstoneRetention));
+        log.info("Purged {} sync tombstones older than {}", removed, tombstoneRetention);
+    }
+
+    public static LocalDateTime toLocalDateTime(Instant instant) {
+        return LocalDateTime.ofInstant(instant, ZoneId.systemDefault());
+    }
+
+    public static ZonedDateTime toZonedDateTime(Instant instant) {
+        return instant.atZone(ZoneId.systemDefault());
+    }
+
+    public static Instant toInstant(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant();
+    }
+}
@@ -0,0 +1,24 @@
+package com.crm.common.sync;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of a change feed. Clients apply upserts and deletions, store nextCursor
+ * and ask again while hasMore is true.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangesResponseDTO<T> {
+
+    private List<T> upserts;
+    private List<Long> deletedIds;
+    private String nextCursor;
+    private boolean hasMore;
+}
@@ -0,0 +1,54 @@
+package com.crm.common.sync;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Opaque position in a change feed: the last (updatedAt, id) seen among upserts
+ * and the last (deletedAt, id) seen among tombstones.
+ */
+public record SyncCursor(Instant upsertsAt, long upsertsId, Instant deletionsAt, long deletionsId) {
+
+    private static final String VERSION = "v1";
+
+    public static SyncCursor initial() {
+        return new SyncCursor(Instant.EPOCH, 0L, Instant.EPOCH, 0L);
+    }
+
+    public boolean isInitial() {
+        return upsertsAt.equals(Instant.EPOCH) && deletionsAt.equals(Instant.EPOCH);
+    }
+
+    public static SyncCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return initial();
+        }
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.US_ASCII).split(":");
+            if (parts.length != 5 || !VERSION.equals(parts[0])) {
+                throw new IllegalArgumentException("Invalid sync cursor");
+            }
+            return new SyncCursor(fromMicros(Long.parseLong(parts[1])), Long.parseLong(parts[2]),
+                    fromMicros(Long.parseLong(parts[3])), Long.parseLong(parts[4]));
+        } catch (IllegalArgumentException e) {
+            // NumberFormatException and Base64 errors are IllegalArgumentExceptions as well
+            throw new IllegalArgumentException("Invalid sync cursor", e);
+        }
+    }
+
+    public String encode() {
+        String raw = String.join(":", VERSION,
+                Long.toString(toMicros(upsertsAt)), Long.toString(upsertsId),
+                Long.toString(toMicros(deletionsAt)), Long.toString(deletionsId));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static long toMicros(Instant instant) {
+        return Math.addExact(Math.multiplyExact(instant.getEpochSecond(), 1_000_000L), instant.getNano() / 1_000L);
+    }
+
+    private static Instant fromMicros(long micros) {
+        return Instant.ofEpochSecond(Math.floorDiv(micros, 1_000_000L), Math.floorMod(micros, 1_000_000L) * 1_000L);
+    }
+}
@@ -0,0 +1,7 @@
+package com.crm.common.sync;
+
+public enum SyncResource {
+    CUSTOMER,
+    OFFER,
+    TASK
+}
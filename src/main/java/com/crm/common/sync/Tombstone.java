@@ -0,0 +1,41 @@
+package com.crm.common.sync;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Marker left behind by a deleted row so sync clients can learn about the deletion. A marker with
+ * a user id records a row that only left that user's view, such as a reassigned task.
+ */
+@Entity
+@Table(name = "sync_tombstones")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class Tombstone {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private SyncResource resourceType;
+
+    @Column(nullable = false)
+    private Long resourceId;
+
+    private Long userId;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime deletedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        deletedAt = LocalDateTime.now();
+    }
+}
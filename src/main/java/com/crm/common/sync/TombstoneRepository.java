@@ -0,0 +1,41 @@
+package com.crm.common.sync;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface TombstoneRepository extends JpaRepository<Tombstone, Long> {
+
+    /**
+     * Keyset page of deletions after the (deletedAt, id) position and strictly before {@code until},
+     * including removals from the view of {@code userId} when it is not null.
+     */
+    @Query("SELECT t FROM Tombstone t WHERE t.resourceType = :type " +
+            "AND (t.userId IS NULL OR t.userId = :userId) " +
+            "AND (t.deletedAt > :afterTime OR (t.deletedAt = :afterTime AND t.id > :afterId)) " +
+            "AND t.deletedAt < :until ORDER BY t.deletedAt, t.id")
+    List<Tombstone> findDeletedAfter(@Param("type") SyncResource type,
+                                     @Param("userId") Long userId,
+                                     @Param("afterTime") LocalDateTime afterTime,
+                                     @Param("afterId") Long afterId,
+                                     @Param("until") LocalDateTime until,
+                                     Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM Tombstone t WHERE t.resourceType = :type AND t.resourceId = :resourceId " +
+            "AND t.userId = :userId")
+    int deleteRemoval(@Param("type") SyncResource type,
+                      @Param("resourceId") Long resourceId,
+                      @Param("userId") Long userId);
+
+    @Modifying
+    @Query("DELETE FROM Tombstone t WHERE t.deletedAt < :cutoff")
+    int deleteOlderThan(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,153 @@
+package com.crm.config;
+
+import com.crm.customers.repository.CustomerRepository;
+import com.crm.customers.service.CustomerService;
+import com.crm.offers.service.OfferService;
+import com.crm.tasks.model.TaskStatus;
+import com.crm.tasks.service.TaskService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Preloads the hottest cache entries at startup: the 'all' lists, open and overdue tasks, and the
+ * detail, task and offer entries of the most recently updated customers. Loads go through the
+ * service proxies, so they populate the same cache keys as requests do, and run at most
+ * {@code crm.cache.warmup.parallelism} at a time to leave the connection pool to other work.
+ *
+ * Runs as an {@link ApplicationRunner} because Spring Boot only switches readiness to
+ * ACCEPTING_TRAFFIC after all runners have returned: /actuator/health/readiness stays DOWN until
+ * warm-up finishes or {@code crm.cache.warmup.timeout} expires, while liveness is already UP.
+ */
+@Component
+@ConditionalOnProperty(name = "crm.cache.warmup.enabled", havingValue = "true")
+@Order(Ordered.LOWEST_PRECEDENCE)
+@Slf4j
+public class CacheWarmup implements ApplicationRunner {
+
+    private final CustomerService customerService;
+    private final OfferService offerService;
+    private final TaskService taskService;
+    private final CustomerRepository customerRepository;
+    private final MeterRegistry meterRegistry;
+    private final int parallelism;
+    private final Duration timeout;
+    private final int topCustomers;
+
+    public CacheWarmup(
+            CustomerService customerService,
+            OfferService offerService,
+            TaskService taskService,
+            CustomerRepository customerRepository,
+            MeterRegistry meterRegistry,
+            @Value("${crm.cache.warmup.parallelism:4}") int parallelism,
+            @Value("${crm.cache.warmup.timeout:PT60S}") Duration timeout,
+            @Value("${crm.cache.warmup.top-customers:100}") int topCustomers
+    ) {
+        this.customerService = customerService;
+        this.offerService = offerService;
+        this.taskService = taskService;
+        this.customerRepository = customerRepository;
+        this.meterRegistry = meterRegistry;
+        this.parallelism = parallelism;
+        this.timeout = timeout;
+        this.topCustomers = topCustomers;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        long deadline = System.nanoTime() + timeout.toNanos();
+        log.info("Cache warm-up started (parallelism {}, timeout {})", parallelism, timeout);
+
+        Map<String, Runnable> loads = plan();
+        AtomicInteger threadNumber = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism,
+                runnable -> new Thread(runnable, "cache-warmup-" + threadNumber.incrementAndGet()));
+
+        int loaded = 0;
+        int failed = 0;
+        int timedOut = 0;
+        try {
+            List<Callable<Void>> tasks = new ArrayList<>();
+            loads.values().forEach(load -> tasks.add(() -> {
+                load.run();
+                return null;
+            }));
+            List<Future<Void>> results = executor.invokeAll(tasks, Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+
+            List<String> names = new ArrayList<>(loads.keySet());
+            for (int i = 0; i < results.size(); i++) {
+                try {
+                    results.get(i).get();
+                    loaded++;
+                } catch (CancellationException e) {
+                    timedOut++;
+                } catch (ExecutionException e) {
+                    failed++;
+                    log.warn("Cache warm-up of {} failed: {}", names.get(i), e.getCause().toString());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            executor.shutdownNow();
+        }
+
+        String outcome = timedOut > 0 ? "timed-out" : "completed";
+        long millis = TimeUnit.NANOSECONDS.toMillis(sample.stop(Timer.builder("crm.cache.warmup")
+                .description("Startup cache warm-up duration")
+                .tag("outcome", outcome)
+                .register(meterRegistry)));
+        log.info("Cache warm-up {} in {} ms: {} loaded, {} failed, {} timed out",
+                outcome, millis, loaded, failed, timedOut);
+    }
+
+    private Map<String, Runnable> plan() {
+        Map<String, Runnable> loads = new LinkedHashMap<>();
+        loads.put("customers[all]", customerService::getAllCustomers);
+        loads.put("offers[all]", offerService::getAllOffers);
+        loads.put("tasks[all]", taskService::getAllTasks);
+        loads.put("tasks[overdue]", taskService::getOverdueTasks);
+        for (TaskStatus status : List.of(TaskStatus.TODO, TaskStatus.IN_PROGRESS)) {
+            loads.put("tasks[status:" + status + "]", () -> taskService.getTasksByStatus(status));
+        }
+
+        List<Long> customerIds = List.of();
+        if (topCustomers > 0) {
+            try {
+                customerIds = customerRepository.findRecentlyUpdatedIds(PageRequest.of(0, topCustomers));
+            } catch (RuntimeException e) {
+                log.warn("Cache warm-up could not select top customers: {}", e.toString());
+            }
+        }
+        for (Long id : customerIds) {
+            loads.put("customers[" + id + "]", () -> customerService.getCustomerById(id));
+            loads.put("tasks[customer:" + id + "]", () -> taskService.getTasksByCustomerId(id));
+            loads.put("offers[customer:" + id + "]", () -> offerService.getOffersByCustomerId(id));
+        }
+        return loads;
+    }
+}
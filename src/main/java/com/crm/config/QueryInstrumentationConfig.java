@@ -0,0 +1,90 @@
+package com.crm.config;
+
+import com.crm.common.db.QueryMetricsListener;
+import com.crm.common.db.RepositoryMethodAspect;
+import com.crm.common.db.SlowQueryEndpoint;
+import com.crm.common.db.SlowQueryLog;
+import com.crm.common.db.StatementsPerRequestFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Statement-level JDBC instrumentation: the DataSource is wrapped in a datasource-proxy
+ * reporting to {@link QueryMetricsListener}, repository calls are tagged by
+ * {@link RepositoryMethodAspect} and slow statements are exposed on /actuator/slowqueries.
+ */
+@Configuration
+@ConditionalOnProperty(name = "crm.db.metrics.enabled", havingValue = "true", matchIfMissing = true)
+public class QueryInstrumentationConfig {
+
+    @Bean
+    public SlowQueryLog slowQueryLog(@Value("${crm.db.slow-query.capacity:100}") int capacity) {
+        return new SlowQueryLog(capacity);
+    }
+
+    @Bean
+    public QueryMetricsListener queryMetricsListener(
+            MeterRegistry meterRegistry,
+            SlowQueryLog slowQueryLog,
+            @Value("${crm.db.slow-query.threshold:PT0.2S}") Duration slowQueryThreshold
+    ) {
+        return new QueryMetricsListener(meterRegistry, slowQueryLog, slowQueryThreshold);
+    }
+
+    @Bean
+    public RepositoryMethodAspect repositoryMethodAspect() {
+        return new RepositoryMethodAspect();
+    }
+
+    @Bean
+    public SlowQueryEndpoint slowQueryEndpoint(SlowQueryLog slowQueryLog) {
+        return new SlowQueryEndpoint(slowQueryLog);
+    }
+
+    @Bean
+    public FilterRegistrationBean<StatementsPerRequestFilter> statementsPerRequestFilter(MeterRegistry meterRegistry) {
+        FilterRegistrationBean<StatementsPerRequestFilter> registration =
+                new FilterRegistrationBean<>(new StatementsPerRequestFilter(meterRegistry));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+
+    /**
+     * Static so it does not pull the configuration into early post-processor creation;
+     * the listener is resolved lazily when the DataSource bean is initialized.
+     */
+    @Bean
+    public static BeanPostProcessor dataSourceProxyPostProcessor(
+            ObjectProvider<QueryMetricsListener> queryMetricsListener,
+            @Value("${crm.db.metrics.count-rows:true}") boolean countRows
+    ) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof ProxyDataSource) {
+                    return bean;
+                }
+                QueryMetricsListener listener = queryMetricsListener.getObject();
+                ProxyDataSourceBuilder builder = ProxyDataSourceBuilder.create(dataSource)
+                        .name(beanName)
+                        .listener(listener);
+                if (countRows) {
+                    builder.proxyResultSet().methodListener(listener);
+                }
+                return builder.build();
+            }
+        };
+    }
+}
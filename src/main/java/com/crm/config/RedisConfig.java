@@ -1,16 +1,40 @@
 package com.crm.config;
 
+import com.crm.common.cache.BatchRedisCacheManager;
+import com.crm.common.cache.BulkheadRedisCacheWriter;
+import com.crm.common.cache.CircuitBreakerRedisCacheWriter;
+import com.crm.common.cache.DegradingCacheErrorHandler;
+import com.crm.common.cache.GenerationalRedisCacheWriter;
+import com.crm.common.cache.InstrumentedCacheManager;
+import com.crm.common.cache.InstrumentedRedisCacheWriter;
+import com.crm.common.cache.NotFoundEntry;
+import com.crm.common.cache.RedisCacheLock;
+import com.crm.common.cache.SingleFlightCache;
+import com.crm.common.cache.SingleFlightCacheManager;
+import com.crm.common.resilience.Bulkhead;
+import com.crm.common.resilience.CircuitBreaker;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.lettuce.core.ClientOptions;
+import io.lettuce.core.SocketOptions;
+import io.lettuce.core.TimeoutOptions;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.data.redis.LettuceClientConfigurationBuilderCustomizer;
 import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CachingConfigurer;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.interceptor.CacheErrorHandler;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.cache.RedisCacheWriter;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
@@ -21,7 +45,11 @@ import java.time.Duration;
 @EnableCaching
 public class RedisConfig {
 
-    @Bean
+    /**
+     * Mapper with default typing for cache values only. Not a default candidate, so it does not
+     * replace Spring Boot's ObjectMapper for HTTP message conversion and actuator endpoints.
+     */
+    @Bean(defaultCandidate = false)
     public ObjectMapper redisObjectMapper() {
         ObjectMapper mapper = new ObjectMapper();
         mapper.registerModule(new JavaTimeModule());
@@ -55,13 +83,70 @@ public class RedisConfig {
         return template;
     }
 
+    /**
+     * Lettuce rejects commands while the connection is down instead of queueing them until the
+     * command timeout (spring.data.redis.timeout) expires, so a Redis restart fails fast.
+     * Mirrors Boot's own client options otherwise.
+     */
+    @Bean
+    public LettuceClientConfigurationBuilderCustomizer failFastLettuceCustomizer(
+            @Value("${spring.data.redis.connect-timeout:PT0.2S}") Duration connectTimeout
+    ) {
+        return builder -> builder.clientOptions(ClientOptions.builder()
+                .disconnectedBehavior(ClientOptions.DisconnectedBehavior.REJECT_COMMANDS)
+                .socketOptions(SocketOptions.builder().connectTimeout(connectTimeout).build())
+                .timeoutOptions(TimeoutOptions.enabled())
+                .build());
+    }
+
+    /**
+     * Cache failures degrade to cache misses instead of failing the request.
+     */
+    @Bean
+    public DegradingCacheErrorHandler cacheErrorHandler(MeterRegistry meterRegistry) {
+        return new DegradingCacheErrorHandler(meterRegistry);
+    }
+
     @Bean
-    public CacheManager cacheManager(RedisConnectionFactory connectionFactory) {
+    public CachingConfigurer cachingConfigurer(DegradingCacheErrorHandler errorHandler) {
+        return new CachingConfigurer() {
+            @Override
+            public CacheErrorHandler errorHandler() {
+                return errorHandler;
+            }
+        };
+    }
+
+    /**
+     * Redis cache manager wrapped with per-region metrics (crm.cache.*) and stampede protection
+     * (single-flight loading, a cross-replica lock and early refresh for sync cacheables);
+     * the cache writer additionally records serialized payload sizes,
+     * runs every Redis command through the redis circuit breaker and bulkhead,
+     * and stamps keys with a per-region generation and a per-key version so clearing a region or
+     * evicting a key is a single command and a value loaded before either is not written back
+     * afterwards. Versions outlive the entries they cover, hence twice the entry TTL.
+     * The caches support batch reads and writes for {@link com.crm.common.cache.IdListCache}.
+     * Lookups of unknown ids are cached as {@link NotFoundEntry} for the shorter not-found TTL.
+     */
+    @Bean
+    public CacheManager cacheManager(
+            RedisConnectionFactory connectionFactory,
+            StringRedisTemplate stringRedisTemplate,
+            MeterRegistry meterRegistry,
+            DegradingCacheErrorHandler cacheErrorHandler,
+            @Qualifier("redisBulkhead") Bulkhead redisBulkhead,
+            @Qualifier("redisCircuitBreaker") CircuitBreaker redisCircuitBreaker,
+            @Value("${crm.cache.stampede.beta:1.0}") double earlyRefreshBeta,
+            @Value("${crm.cache.stampede.lock-lease:PT10S}") Duration lockLease,
+            @Value("${crm.cache.stampede.lock-wait:PT3S}") Duration lockWait,
+            @Value("${crm.cache.ttl:PT10M}") Duration ttl,
+            @Value("${crm.cache.not-found-ttl:PT30S}") Duration notFoundTtl
+    ) {
         GenericJackson2JsonRedisSerializer serializer =
                 new GenericJackson2JsonRedisSerializer(redisObjectMapper());
 
         RedisCacheConfiguration config = RedisCacheConfiguration.defaultCacheConfig()
-                .entryTtl(Duration.ofMinutes(10)) // Cache for 10 minutes
+                .entryTtl(NotFoundEntry.timeToLive(ttl, notFoundTtl))
                 .serializeKeysWith(
                         RedisSerializationContext.SerializationPair.fromSerializer(
                                 new StringRedisSerializer()
@@ -72,8 +157,29 @@ public class RedisConfig {
                 )
                 .disableCachingNullValues();
 
-        return RedisCacheManager.builder(connectionFactory)
-                .cacheDefaults(config)
-                .build();
+        RedisCacheWriter cacheWriter = new InstrumentedRedisCacheWriter(
+                new CircuitBreakerRedisCacheWriter(
+                        new BulkheadRedisCacheWriter(
+                                new GenerationalRedisCacheWriter(
+                                        RedisCacheWriter.nonLockingRedisCacheWriter(connectionFactory),
+                                        stringRedisTemplate,
+                                        ttl.multipliedBy(2)),
+                                redisBulkhead),
+                        redisCircuitBreaker),
+                meterRegistry);
+
+        // Puts and evictions inside a transaction are applied after commit
+        RedisCacheManager redisCacheManager = new BatchRedisCacheManager(cacheWriter, config, cacheErrorHandler);
+        redisCacheManager.setTransactionAware(true);
+        redisCacheManager.afterPropertiesSet();
+
+        CacheManager singleFlightCacheManager = new SingleFlightCacheManager(
+                redisCacheManager,
+                new RedisCacheLock(stringRedisTemplate, redisCircuitBreaker, lockLease),
+                cacheErrorHandler,
+                new SingleFlightCache.Settings(earlyRefreshBeta, lockWait),
+                meterRegistry);
+
+        return new InstrumentedCacheManager(singleFlightCacheManager, meterRegistry);
     }
 }
\ No newline at end of file
@@ -0,0 +1,76 @@
+package com.crm.config;
+
+import com.crm.common.resilience.Bulkhead;
+import com.crm.common.resilience.BulkheadDataSource;
+import com.crm.common.resilience.CircuitBreaker;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Bulkheads capping concurrent database and Redis access. With virtual threads enabled
+ * (spring.threads.virtual.enabled) the request thread count no longer limits concurrency,
+ * so these are what keeps a slow database or Redis from collecting unbounded waiters.
+ * Redis cache access additionally goes through a circuit breaker.
+ */
+@Configuration
+public class ResilienceConfig {
+
+    @Bean
+    public Bulkhead databaseBulkhead(
+            MeterRegistry meterRegistry,
+            @Value("${crm.bulkhead.db.max-concurrent:${spring.datasource.hikari.maximum-pool-size:10}}") int maxConcurrent,
+            @Value("${crm.bulkhead.db.max-wait:PT2S}") Duration maxWait
+    ) {
+        return new Bulkhead("database", maxConcurrent, maxWait, meterRegistry);
+    }
+
+    @Bean
+    public Bulkhead redisBulkhead(
+            MeterRegistry meterRegistry,
+            @Value("${crm.bulkhead.redis.max-concurrent:50}") int maxConcurrent,
+            @Value("${crm.bulkhead.redis.max-wait:PT0.5S}") Duration maxWait
+    ) {
+        return new Bulkhead("redis", maxConcurrent, maxWait, meterRegistry);
+    }
+
+    @Bean
+    public CircuitBreaker redisCircuitBreaker(
+            MeterRegistry meterRegistry,
+            @Value("${crm.cache.circuit-breaker.failure-rate-threshold:50}") double failureRateThreshold,
+            @Value("${crm.cache.circuit-breaker.slow-call-threshold:PT0.1S}") Duration slowCallThreshold,
+            @Value("${crm.cache.circuit-breaker.window-size:20}") int windowSize,
+            @Value("${crm.cache.circuit-breaker.minimum-calls:10}") int minimumCalls,
+            @Value("${crm.cache.circuit-breaker.open-duration:PT10S}") Duration openDuration,
+            @Value("${crm.cache.circuit-breaker.half-open-probes:3}") int halfOpenProbes
+    ) {
+        return new CircuitBreaker("redis", new CircuitBreaker.Settings(
+                failureRateThreshold, slowCallThreshold, windowSize, minimumCalls, openDuration, halfOpenProbes),
+                meterRegistry);
+    }
+
+    /**
+     * Static so it does not pull the configuration into early post-processor creation.
+     */
+    @Bean
+    public static BeanPostProcessor databaseBulkheadPostProcessor(
+            @Qualifier("databaseBulkhead") ObjectProvider<Bulkhead> databaseBulkhead
+    ) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof BulkheadDataSource)) {
+                    return new BulkheadDataSource(dataSource, databaseBulkhead.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,79 @@
+package com.crm.config;
+
+import com.crm.common.http.ResponseBodyCache;
+import com.crm.common.http.ResponseCacheFilter;
+import com.crm.common.http.ResponseCacheFilter.Endpoint;
+import com.crm.common.resilience.CircuitBreaker;
+import com.crm.security.service.RowVisibility;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Response body cache for the hot read endpoints. Each endpoint is versioned by the
+ * {@code *-responses} regions of the data it renders: offers embed the customer name, tasks the
+ * customer name and offer title. Service writes clear (bump) the region of their own resource.
+ * Change feeds and duplicate detection are not cached. Bodies are partitioned by the caller's
+ * {@link RowVisibility} scope, so users never share lists rendered from another user's rows.
+ */
+@Configuration
+@ConditionalOnProperty(name = "crm.http.response-cache.enabled", havingValue = "true", matchIfMissing = true)
+public class ResponseCacheConfig {
+
+    static final String CUSTOMERS = "customer-responses";
+    static final String OFFERS = "offer-responses";
+    static final String TASKS = "task-responses";
+
+    @Bean
+    public ResponseBodyCache responseBodyCache(
+            StringRedisTemplate stringRedisTemplate,
+            @Qualifier("redisCircuitBreaker") CircuitBreaker redisCircuitBreaker,
+            MeterRegistry meterRegistry,
+            @Value("${crm.cache.ttl:PT10M}") Duration ttl,
+            @Value("${crm.http.response-cache.max-size:32MB}") DataSize maxSize,
+            @Value("${crm.http.response-cache.gzip-min-size:2KB}") DataSize gzipMinSize
+    ) {
+        return new ResponseBodyCache(stringRedisTemplate, redisCircuitBreaker, ttl,
+                maxSize.toBytes(), (int) gzipMinSize.toBytes(), meterRegistry);
+    }
+
+    /**
+     * After Spring Security, so only authorized requests reach the cache.
+     */
+    @Bean
+    public FilterRegistrationBean<ResponseCacheFilter> responseCacheFilter(
+            ResponseBodyCache responseBodyCache,
+            RowVisibility rowVisibility,
+            MeterRegistry meterRegistry
+    ) {
+        List<Endpoint> endpoints = List.of(
+                Endpoint.of("/api/customers", CUSTOMERS),
+                Endpoint.of("/api/customers/{id:\\d+}", CUSTOMERS),
+                Endpoint.of("/api/offers", OFFERS, CUSTOMERS),
+                Endpoint.of("/api/offers/{id:\\d+}", OFFERS, CUSTOMERS),
+                Endpoint.of("/api/offers/customer/{customerId}", OFFERS, CUSTOMERS),
+                Endpoint.of("/api/offers/search", OFFERS, CUSTOMERS),
+                Endpoint.of("/api/tasks", TASKS, OFFERS, CUSTOMERS),
+                Endpoint.of("/api/tasks/{id:\\d+}", TASKS, OFFERS, CUSTOMERS),
+                Endpoint.of("/api/tasks/customer/{customerId}", TASKS, OFFERS, CUSTOMERS),
+                Endpoint.of("/api/tasks/offer/{offerId}", TASKS, OFFERS, CUSTOMERS),
+                Endpoint.of("/api/tasks/status/{status}", TASKS, OFFERS, CUSTOMERS),
+                Endpoint.of("/api/tasks/overdue", TASKS, OFFERS, CUSTOMERS),
+                Endpoint.of("/api/tasks/search", TASKS, OFFERS, CUSTOMERS));
+
+        FilterRegistrationBean<ResponseCacheFilter> registration = new FilterRegistrationBean<>(
+                new ResponseCacheFilter(responseBodyCache, endpoints, rowVisibility::scope, meterRegistry));
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER + 10);
+        return registration;
+    }
+}
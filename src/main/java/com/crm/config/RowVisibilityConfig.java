@@ -0,0 +1,28 @@
+package com.crm.config;
+
+import com.crm.common.db.InitializingJpaTransactionManager;
+import com.crm.security.service.RowVisibility;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.transaction.TransactionManagerCustomizers;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Replaces Boot's JPA transaction manager with one that applies the row visibility filters of
+ * the current principal to each transaction, so every repository query is restricted in SQL.
+ */
+@Configuration
+public class RowVisibilityConfig {
+
+    @Bean
+    public PlatformTransactionManager transactionManager(
+            RowVisibility rowVisibility,
+            ObjectProvider<TransactionManagerCustomizers> transactionManagerCustomizers
+    ) {
+        InitializingJpaTransactionManager transactionManager =
+                new InitializingJpaTransactionManager(rowVisibility::applyFilters);
+        transactionManagerCustomizers.ifAvailable(customizers -> customizers.customize(transactionManager));
+        return transactionManager;
+    }
+}
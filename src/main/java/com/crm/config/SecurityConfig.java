@@ -34,6 +34,11 @@ public class SecurityConfig {
                 .csrf(AbstractHttpConfigurer::disable)
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
                 .authorizeHttpRequests(auth -> auth
+                        // Diagnostic actuator endpoints expose SQL, bind parameters and profiles,
+                        // loggers allows changing log levels at runtime
+                        .requestMatchers("/actuator/slowqueries/**", "/actuator/profile/**", "/actuator/loggers/**")
+                        .hasRole("ADMIN")
+
                         // Public endpoints
                         .requestMatchers("/h2-console/**").permitAll()
                         .requestMatchers("/actuator/**").permitAll()
@@ -49,6 +54,8 @@ public class SecurityConfig {
                         .requestMatchers(HttpMethod.DELETE, "/api/customers/**").hasRole("ADMIN")
 
                         // Offers
+                        .requestMatchers(HttpMethod.PATCH, "/api/offers/*/status").hasAnyRole("MANAGER", "ADMIN")
+
                         .requestMatchers(HttpMethod.GET, "/api/offers/**").hasAnyRole("USER", "MANAGER", "ADMIN")
                         .requestMatchers(HttpMethod.POST, "/api/offers/**").hasAnyRole("MANAGER", "ADMIN")
                         .requestMatchers(HttpMethod.PUT, "/api/offers/**").hasAnyRole("MANAGER", "ADMIN")
@@ -1,11 +1,18 @@
 package com.crm.customers.controller;
 
+import com.crm.common.sync.ChangesResponseDTO;
+import com.crm.customers.dto.CustomerMergeResultDTO;
 import com.crm.customers.dto.CustomerRequestDTO;
 import com.crm.customers.dto.CustomerResponseDTO;
+import com.crm.customers.dto.DuplicateCandidateDTO;
+import com.crm.customers.dto.DuplicateClusterDTO;
+import com.crm.customers.service.CustomerDeduplicationService;
+import com.crm.customers.service.CustomerMergeService;
 import com.crm.customers.service.CustomerService;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -19,9 +26,17 @@ import java.util.List;
 public class CustomerController {
 
     private final CustomerService service;
+    private final CustomerDeduplicationService deduplicationService;
+    private final CustomerMergeService mergeService;
 
-    public CustomerController(CustomerService service) {
+    public CustomerController(
+            CustomerService service,
+            CustomerDeduplicationService deduplicationService,
+            CustomerMergeService mergeService
+    ) {
         this.service = service;
+        this.deduplicationService = deduplicationService;
+        this.mergeService = mergeService;
     }
 
     /**
@@ -34,6 +49,18 @@ public class CustomerController {
         return ResponseEntity.ok(customers);
     }
 
+    /**
+     * GET /api/customers/changes?since={cursor}
+     * Returns customers changed or deleted since the cursor; omit it for a full initial sync
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<ChangesResponseDTO<CustomerResponseDTO>> getChanges(
+            @RequestParam(required = false) String since,
+            @RequestParam(defaultValue = "500") int limit
+    ) {
+        return ResponseEntity.ok(service.getChanges(since, limit));
+    }
+
     /**
      * GET /api/customers/{id}
      * Returns a single customer by ID
@@ -44,6 +71,29 @@ public class CustomerController {
         return ResponseEntity.ok(customer);
     }
 
+    /**
+     * GET /api/customers/duplicates
+     * Runs near-duplicate detection and returns scored clusters for merge review
+     */
+    @GetMapping("/duplicates")
+    @PreAuthorize("hasAnyRole('MANAGER', 'ADMIN')")
+    public ResponseEntity<List<DuplicateClusterDTO>> getDuplicateClusters(
+            @RequestParam(defaultValue = "100") int limit
+    ) {
+        return ResponseEntity.ok(deduplicationService.findDuplicateClusters(limit));
+    }
+
+    /**
+     * POST /api/customers/duplicates/check
+     * Returns existing customers similar to the submitted data (before creating it)
+     */
+    @PostMapping("/duplicates/check")
+    public ResponseEntity<List<DuplicateCandidateDTO>> checkDuplicates(
+            @Valid @RequestBody CustomerRequestDTO requestDTO
+    ) {
+        return ResponseEntity.ok(deduplicationService.findPossibleDuplicates(requestDTO));
+    }
+
     /**
      * POST /api/customers
      * Creates a new customer
@@ -69,6 +119,19 @@ public class CustomerController {
         return ResponseEntity.ok(updated);
     }
 
+    /**
+     * POST /api/customers/{id}/merge/{duplicateId}
+     * Moves all offers and tasks of the duplicate to this customer and deletes the duplicate
+     */
+    @PostMapping("/{id}/merge/{duplicateId}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<CustomerMergeResultDTO> mergeCustomers(
+            @PathVariable Long id,
+            @PathVariable Long duplicateId
+    ) {
+        return ResponseEntity.ok(mergeService.mergeCustomers(id, duplicateId));
+    }
+
     /**
      * DELETE /api/customers/{id}
      * Deletes a customer
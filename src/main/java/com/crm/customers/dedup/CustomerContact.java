@@ -0,0 +1,7 @@
+package com.crm.customers.dedup;
+
+/**
+ * Lightweight projection of the customer fields used for duplicate detection.
+ */
+public record CustomerContact(Long id, String firstName, String lastName, String email, String phone) {
+}
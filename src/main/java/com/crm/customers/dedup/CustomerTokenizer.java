@@ -0,0 +1,101 @@
+package com.crm.customers.dedup;
+
+import java.text.Normalizer;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Turns customer contact data into a set of normalized shingles.
+ * Character 3-grams keep typos and small differences from breaking similarity,
+ * prefixes keep name, email and phone tokens from matching each other.
+ */
+public final class CustomerTokenizer {
+
+    private static final int SHINGLE_SIZE = 3;
+    private static final int PHONE_DIGITS = 9;
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_LETTERS = Pattern.compile("[^a-z]+");
+
+    private CustomerTokenizer() {
+    }
+
+    public static Set<String> tokenize(String firstName, String lastName, String email, String phone) {
+        Set<String> tokens = new HashSet<>();
+        addNameTokens(tokens, firstName, lastName);
+        addEmailTokens(tokens, email);
+        addPhoneTokens(tokens, phone);
+        return tokens;
+    }
+
+    private static void addNameTokens(Set<String> tokens, String firstName, String lastName) {
+        String first = normalizeName(firstName);
+        String last = normalizeName(lastName);
+
+        // Whole words are order-independent, so swapped first/last names still match
+        if (!first.isEmpty()) {
+            tokens.add("w:" + first);
+        }
+        if (!last.isEmpty()) {
+            tokens.add("w:" + last);
+        }
+        shingle(tokens, "n:", first + last);
+    }
+
+    private static void addEmailTokens(Set<String> tokens, String email) {
+        if (email == null || email.isBlank()) {
+            return;
+        }
+        String normalized = email.trim().toLowerCase(Locale.ROOT);
+        int at = normalized.lastIndexOf('@');
+        String local = at >= 0 ? normalized.substring(0, at) : normalized;
+        String domain = at >= 0 ? normalized.substring(at + 1) : "";
+
+        // Sub-addressing and dots rarely distinguish real mailboxes
+        int plus = local.indexOf('+');
+        if (plus >= 0) {
+            local = local.substring(0, plus);
+        }
+        local = local.replace(".", "");
+
+        shingle(tokens, "e:", local);
+        if (!domain.isEmpty()) {
+            tokens.add("d:" + domain);
+        }
+    }
+
+    private static void addPhoneTokens(Set<String> tokens, String phone) {
+        if (phone == null) {
+            return;
+        }
+        String digits = phone.replaceAll("\\D", "");
+        // Compare subscriber numbers only, with or without country prefix
+        if (digits.length() > PHONE_DIGITS) {
+            digits = digits.substring(digits.length() - PHONE_DIGITS);
+        }
+        shingle(tokens, "p:", digits);
+    }
+
+    private static String normalizeName(String name) {
+        if (name == null) {
+            return "";
+        }
+        String lower = name.toLowerCase(Locale.ROOT).replace('ł', 'l');
+        String stripped = DIACRITICS.matcher(Normalizer.normalize(lower, Normalizer.Form.NFD)).replaceAll("");
+        return NON_LETTERS.matcher(stripped).replaceAll("");
+    }
+
+    private static void shingle(Set<String> tokens, String prefix, String value) {
+        if (value.isEmpty()) {
+            return;
+        }
+        if (value.length() <= SHINGLE_SIZE) {
+            tokens.add(prefix + value);
+            return;
+        }
+        for (int i = 0; i + SHINGLE_SIZE <= value.length(); i++) {
+            tokens.add(prefix + value.substring(i, i + SHINGLE_SIZE));
+        }
+    }
+}
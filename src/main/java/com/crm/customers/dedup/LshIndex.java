@@ -0,0 +1,105 @@
+package com.crm.customers.dedup;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Locality-sensitive hashing index over MinHash signatures.
+ * Signatures are split into bands; customers sharing any complete band land in
+ * the same bucket and become candidate pairs, so similar records are found
+ * without comparing every pair.
+ */
+public class LshIndex {
+
+    private final int bands;
+    private final int rows;
+    private final Map<Long, int[]> signatures = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Long>> buckets = new ConcurrentHashMap<>();
+
+    public LshIndex(int bands, int rows) {
+        this.bands = bands;
+        this.rows = rows;
+    }
+
+    public int size() {
+        return signatures.size();
+    }
+
+    public void add(long id, int[] signature) {
+        if (signature.length != bands * rows) {
+            throw new IllegalArgumentException("Signature length must equal bands * rows");
+        }
+        signatures.put(id, signature);
+        for (int band = 0; band < bands; band++) {
+            buckets.computeIfAbsent(bandKey(signature, band), k -> ConcurrentHashMap.newKeySet()).add(id);
+        }
+    }
+
+    /**
+     * Forgets a customer. Bucket entries are dropped lazily because lookups
+     * ignore ids without a signature.
+     */
+    public void remove(long id) {
+        signatures.remove(id);
+    }
+
+    public int[] signatureOf(long id) {
+        return signatures.get(id);
+    }
+
+    /**
+     * Returns ids sharing at least one band with the given signature.
+     */
+    public Set<Long> candidates(int[] signature) {
+        Set<Long> result = new HashSet<>();
+        for (int band = 0; band < bands; band++) {
+            Set<Long> bucket = buckets.get(bandKey(signature, band));
+            if (bucket != null) {
+                for (Long id : bucket) {
+                    if (signatures.containsKey(id)) {
+                        result.add(id);
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns buckets holding more than one live id and at most {@code maxBucketSize} ids.
+     * Oversized buckets come from degenerate data (e.g. empty names) and are skipped.
+     */
+    public Collection<List<Long>> collidingBuckets(int maxBucketSize) {
+        List<List<Long>> result = new ArrayList<>();
+        for (Set<Long> bucket : buckets.values()) {
+            if (bucket.size() < 2 || bucket.size() > maxBucketSize) {
+                continue;
+            }
+            List<Long> live = new ArrayList<>(bucket.size());
+            for (Long id : bucket) {
+                if (signatures.containsKey(id)) {
+                    live.add(id);
+                }
+            }
+            if (live.size() > 1) {
+                result.add(live);
+            }
+        }
+        return result;
+    }
+
+    private long bandKey(int[] signature, int band) {
+        long h = band * 0x9e3779b97f4a7c15L;
+        int offset = band * rows;
+        for (int i = 0; i < rows; i++) {
+            h = (h ^ signature[offset + i]) * 0xff51afd7ed558ccdL;
+            h ^= h >>> 32;
+        }
+        return h;
+    }
+}
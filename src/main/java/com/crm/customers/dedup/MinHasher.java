@@ -0,0 +1,71 @@
+package com.crm.customers.dedup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.SplittableRandom;
+
+/**
+ * Computes MinHash signatures. The fraction of equal positions in two signatures
+ * estimates the Jaccard similarity of the underlying token sets.
+ */
+public class MinHasher {
+
+    private final long[] multipliers;
+    private final long[] increments;
+
+    public MinHasher(int numHashes, long seed) {
+        if (numHashes <= 0) {
+            throw new IllegalArgumentException("Number of hash functions must be positive");
+        }
+        SplittableRandom random = new SplittableRandom(seed);
+        this.multipliers = new long[numHashes];
+        this.increments = new long[numHashes];
+        for (int i = 0; i < numHashes; i++) {
+            multipliers[i] = random.nextLong() | 1L; // odd multipliers keep the mapping bijective
+            increments[i] = random.nextLong();
+        }
+    }
+
+    public int size() {
+        return multipliers.length;
+    }
+
+    public int[] signature(Collection<String> tokens) {
+        int[] signature = new int[multipliers.length];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+
+        for (String token : tokens) {
+            long base = hash(token);
+            for (int i = 0; i < multipliers.length; i++) {
+                int value = (int) ((multipliers[i] * base + increments[i]) >>> 33);
+                if (value < signature[i]) {
+                    signature[i] = value;
+                }
+            }
+        }
+        return signature;
+    }
+
+    public static double similarity(int[] a, int[] b) {
+        int equal = 0;
+        for (int i = 0; i < a.length; i++) {
+            if (a[i] == b[i]) {
+                equal++;
+            }
+        }
+        return (double) equal / a.length;
+    }
+
+    private static long hash(String token) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : token.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,22 @@
+package com.crm.customers.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO returned after merging a duplicate customer into a surviving one.
+ * Used in POST /api/customers/{id}/merge/{duplicateId}
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CustomerMergeResultDTO {
+
+    private CustomerResponseDTO customer;
+    private Long mergedCustomerId;
+    private int offersMoved;
+    private int tasksMoved;
+}
@@ -0,0 +1,20 @@
+package com.crm.customers.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for an existing customer that looks like a duplicate of submitted data.
+ * Used in POST /api/customers/duplicates/check
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DuplicateCandidateDTO {
+
+    private CustomerResponseDTO customer;
+    private double score; // estimated Jaccard similarity, 0..1
+}
@@ -0,0 +1,22 @@
+package com.crm.customers.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for a group of customers that probably describe the same person.
+ * Used in GET /api/customers/duplicates for merge review.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DuplicateClusterDTO {
+
+    private double score; // mean similarity of the matched pairs, 0..1
+    private List<CustomerResponseDTO> customers;
+}
@@ -8,4 +8,11 @@ public abstract class DomainException extends RuntimeException {
     protected DomainException(String message) {
         super(message);
     }
+
+    /**
+     * For expected outcomes reported to the client as they are, which need no stack trace.
+     */
+    protected DomainException(String message, boolean writableStackTrace) {
+        super(message, null, false, writableStackTrace);
+    }
 }
@@ -1,8 +1,20 @@
 package com.crm.customers.exceptions;
 
+import lombok.Getter;
+
+/**
+ * Lookup of an unknown id. Thrown for every request for a deleted or nonexistent entity,
+ * so it does not capture a stack trace.
+ */
+@Getter
 public class EntityNotFoundException extends DomainException {
 
+    private final String entityName;
+    private final Object id;
+
     public EntityNotFoundException(String entityName, Object id) {
-        super(entityName + " not found with id: " + id);
+        super(entityName + " not found with id: " + id, false);
+        this.entityName = entityName;
+        this.id = id;
     }
 }
@@ -1,10 +1,17 @@
 package com.crm.customers.repository;
 
+import com.crm.customers.dedup.CustomerContact;
 import com.crm.customers.model.Customer;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.ZonedDateTime;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for Customer entities.
@@ -12,4 +19,31 @@ import java.util.Optional;
 @Repository
 public interface CustomerRepository extends JpaRepository<Customer, Long> {
     Optional<Customer> findByEmail(String email);
+
+    @Query("SELECT c.email FROM Customer c")
+    Stream<String> streamAllEmails();
+
+    /**
+     * Keyset-paginated contact data for batch duplicate detection.
+     */
+    @Query("SELECT new com.crm.customers.dedup.CustomerContact(c.id, c.firstName, c.lastName, c.email, c.phone) " +
+            "FROM Customer c WHERE c.id > :afterId ORDER BY c.id")
+    List<CustomerContact> findContactsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Ids of the most recently updated customers, served by idx_customers_updated_at.
+     */
+    @Query("SELECT c.id FROM Customer c ORDER BY c.updatedAt DESC, c.id DESC")
+    List<Long> findRecentlyUpdatedIds(Pageable pageable);
+
+    /**
+     * Keyset page of customers changed after the (updatedAt, id) position, served by idx_customers_updated_at.
+     */
+    @Query("SELECT c FROM Customer c " +
+            "WHERE (c.updatedAt > :afterTime OR (c.updatedAt = :afterTime AND c.id > :afterId)) " +
+            "AND c.updatedAt < :until ORDER BY c.updatedAt, c.id")
+    List<Customer> findChangedAfter(@Param("afterTime") ZonedDateTime afterTime,
+                                    @Param("afterId") Long afterId,
+                                    @Param("until") ZonedDateTime until,
+                                    Pageable pageable);
 }
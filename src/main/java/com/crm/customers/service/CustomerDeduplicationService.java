@@ -0,0 +1,22 @@
+package com.crm.customers.service;
+
+import com.crm.customers.dto.CustomerRequestDTO;
+import com.crm.customers.dto.DuplicateCandidateDTO;
+import com.crm.customers.dto.DuplicateClusterDTO;
+import com.crm.customers.model.Customer;
+
+import java.util.List;
+import java.util.Set;
+
+public interface CustomerDeduplicationService {
+
+    List<DuplicateClusterDTO> findDuplicateClusters(int limit);
+
+    List<DuplicateCandidateDTO> findPossibleDuplicates(CustomerRequestDTO requestDTO);
+
+    Set<Long> register(Customer customer);
+
+    void forget(Long customerId);
+
+    void rebuildIndex();
+}
@@ -0,0 +1,8 @@
+package com.crm.customers.service;
+
+import com.crm.customers.dto.CustomerMergeResultDTO;
+
+public interface CustomerMergeService {
+
+    CustomerMergeResultDTO mergeCustomers(Long targetId, Long duplicateId);
+}
@@ -1,5 +1,6 @@
 package com.crm.customers.service;
 
+import com.crm.common.sync.ChangesResponseDTO;
 import com.crm.customers.dto.CustomerRequestDTO;
 import com.crm.customers.dto.CustomerResponseDTO;
 
@@ -16,4 +17,6 @@ public interface CustomerService {
     CustomerResponseDTO updateCustomer(Long id, CustomerRequestDTO requestDTO);
 
     void deleteCustomer(Long id);
+
+    ChangesResponseDTO<CustomerResponseDTO> getChanges(String since, int limit);
 }
\ No newline at end of file
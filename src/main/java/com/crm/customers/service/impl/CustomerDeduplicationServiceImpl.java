@@ -0,0 +1,321 @@
+package com.crm.customers.service.impl;
+
+import com.crm.customers.dedup.CustomerContact;
+import com.crm.customers.dedup.CustomerTokenizer;
+import com.crm.customers.dedup.LshIndex;
+import com.crm.customers.dedup.MinHasher;
+import com.crm.customers.dto.CustomerRequestDTO;
+import com.crm.customers.dto.CustomerResponseDTO;
+import com.crm.customers.dto.DuplicateCandidateDTO;
+import com.crm.customers.dto.DuplicateClusterDTO;
+import com.crm.customers.mapper.CustomerMapper;
+import com.crm.customers.model.Customer;
+import com.crm.customers.repository.CustomerRepository;
+import com.crm.customers.service.CustomerDeduplicationService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Near-duplicate customer detection with MinHash signatures and LSH banding.
+ * The index is built at startup, kept in memory for on-create checks and
+ * refreshed on a schedule.
+ */
+@Service
+@Slf4j
+@Transactional(readOnly = true)
+public class CustomerDeduplicationServiceImpl implements CustomerDeduplicationService {
+
+    private final CustomerRepository repository;
+    private final CustomerMapper mapper;
+    private final MinHasher hasher;
+    private final int bands;
+    private final int rows;
+    private final double threshold;
+    private final int pageSize;
+    private final int maxBucketSize;
+
+    private volatile LshIndex index;
+
+    /**
+     * One build at a time; requests hitting a cold index wait for it instead of building their own.
+     */
+    private final Object buildLock = new Object();
+
+    /**
+     * Guards the swap of a rebuilt index against concurrent registrations.
+     */
+    private final Object swapLock = new Object();
+
+    /**
+     * Registrations and removals made while a rebuild scans the table, replayed onto the rebuilt
+     * index before it is swapped in; {@code null} while no rebuild runs. Guarded by swapLock.
+     */
+    private Map<Long, int[]> pendingChanges;
+
+    private static final int[] FORGOTTEN = new int[0];
+
+    public CustomerDeduplicationServiceImpl(
+            CustomerRepository repository,
+            CustomerMapper mapper,
+            @Value("${crm.dedup.bands:16}") int bands,
+            @Value("${crm.dedup.rows:4}") int rows,
+            @Value("${crm.dedup.threshold:0.5}") double threshold,
+            @Value("${crm.dedup.page-size:2000}") int pageSize,
+            @Value("${crm.dedup.max-bucket-size:200}") int maxBucketSize
+    ) {
+        this.repository = repository;
+        this.mapper = mapper;
+        this.hasher = new MinHasher(bands * rows, 0x5eedL);
+        this.bands = bands;
+        this.rows = rows;
+        this.threshold = threshold;
+        this.pageSize = pageSize;
+        this.maxBucketSize = maxBucketSize;
+    }
+
+    @Override
+    public List<DuplicateClusterDTO> findDuplicateClusters(int limit) {
+        log.info("Running duplicate customer detection");
+        long start = System.currentTimeMillis();
+
+        LshIndex snapshot = currentIndex();
+
+        // Score candidate pairs in parallel; a pair may collide in several bands
+        Map<Long, Map<Long, Double>> pairs = new ConcurrentHashMap<>();
+        snapshot.collidingBuckets(maxBucketSize).parallelStream().forEach(bucket -> {
+            for (int i = 0; i < bucket.size(); i++) {
+                for (int j = i + 1; j < bucket.size(); j++) {
+                    long a = Math.min(bucket.get(i), bucket.get(j));
+                    long b = Math.max(bucket.get(i), bucket.get(j));
+                    double score = MinHasher.similarity(snapshot.signatureOf(a), snapshot.signatureOf(b));
+                    if (score >= threshold) {
+                        pairs.computeIfAbsent(a, k -> new ConcurrentHashMap<>()).put(b, score);
+                    }
+                }
+            }
+        });
+
+        List<Cluster> clusters = cluster(pairs);
+        clusters.sort(Comparator.comparingDouble(Cluster::score).reversed());
+        List<Cluster> top = clusters.subList(0, Math.min(limit, clusters.size()));
+
+        Map<Long, CustomerResponseDTO> customers = repository.findAllById(
+                        top.stream().flatMap(c -> c.ids().stream()).toList()).stream()
+                .map(mapper::toResponseDTO)
+                .collect(Collectors.toMap(CustomerResponseDTO::getId, Function.identity()));
+
+        log.info("Found {} duplicate clusters among {} customers in {} ms",
+                clusters.size(), snapshot.size(), System.currentTimeMillis() - start);
+
+        return top.stream()
+                .map(c -> DuplicateClusterDTO.builder()
+                        .score(c.score())
+                        .customers(c.ids().stream().map(customers::get).filter(Objects::nonNull).toList())
+                        .build())
+                .filter(c -> c.getCustomers().size() > 1)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<DuplicateCandidateDTO> findPossibleDuplicates(CustomerRequestDTO requestDTO) {
+        int[] signature = hasher.signature(CustomerTokenizer.tokenize(
+                requestDTO.getFirstName(), requestDTO.getLastName(), requestDTO.getEmail(), requestDTO.getPhone()));
+
+        Map<Long, Double> scores = score(currentIndex(), signature, null);
+        if (scores.isEmpty()) {
+            return List.of();
+        }
+
+        return repository.findAllById(scores.keySet()).stream()
+                .map(customer -> DuplicateCandidateDTO.builder()
+                        .customer(mapper.toResponseDTO(customer))
+                        .score(scores.get(customer.getId()))
+                        .build())
+                .sorted(Comparator.comparingDouble(DuplicateCandidateDTO::getScore).reversed())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Adds a saved customer to the in-memory index and returns ids of likely duplicates.
+     */
+    @Override
+    public Set<Long> register(Customer customer) {
+        int[] signature = hasher.signature(CustomerTokenizer.tokenize(
+                customer.getFirstName(), customer.getLastName(), customer.getEmail(), customer.getPhone()));
+        LshIndex current;
+        synchronized (swapLock) {
+            current = index;
+            if (current != null) {
+                current.add(customer.getId(), signature);
+            }
+            if (pendingChanges != null) {
+                pendingChanges.put(customer.getId(), signature);
+            }
+        }
+        if (current == null) {
+            return Set.of(); // index not built yet; a running build picks the customer up from pendingChanges
+        }
+        return score(current, signature, customer.getId()).keySet();
+    }
+
+    @Override
+    public void forget(Long customerId) {
+        synchronized (swapLock) {
+            LshIndex current = index;
+            if (current != null) {
+                current.remove(customerId);
+            }
+            if (pendingChanges != null) {
+                pendingChanges.put(customerId, FORGOTTEN);
+            }
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadIndex() {
+        currentIndex();
+    }
+
+    @Override
+    @Scheduled(cron = "${crm.dedup.rebuild-cron:0 30 3 * * *}")
+    public void rebuildIndex() {
+        buildIndex();
+    }
+
+    private LshIndex currentIndex() {
+        LshIndex current = index;
+        if (current != null) {
+            return current;
+        }
+        synchronized (buildLock) {
+            current = index;
+            return current != null ? current : buildIndex();
+        }
+    }
+
+    private LshIndex buildIndex() {
+        synchronized (buildLock) {
+            synchronized (swapLock) {
+                pendingChanges = new HashMap<>();
+            }
+            try {
+                LshIndex fresh = new LshIndex(bands, rows);
+                long afterId = 0L;
+                List<CustomerContact> page;
+                do {
+                    page = repository.findContactsAfter(afterId, PageRequest.of(0, pageSize));
+                    page.parallelStream().forEach(c -> fresh.add(c.id(), hasher.signature(
+                            CustomerTokenizer.tokenize(c.firstName(), c.lastName(), c.email(), c.phone()))));
+                    if (!page.isEmpty()) {
+                        afterId = page.get(page.size() - 1).id();
+                    }
+                } while (page.size() == pageSize);
+
+                synchronized (swapLock) {
+                    // Pages already read miss customers registered or deleted since
+                    pendingChanges.forEach((id, signature) -> {
+                        if (signature == FORGOTTEN) {
+                            fresh.remove(id);
+                        } else {
+                            fresh.add(id, signature);
+                        }
+                    });
+                    index = fresh;
+                }
+                log.debug("Duplicate detection index rebuilt with {} customers", fresh.size());
+                return fresh;
+            } finally {
+                synchronized (swapLock) {
+                    pendingChanges = null;
+                }
+            }
+        }
+    }
+
+    private Map<Long, Double> score(LshIndex target, int[] signature, Long excludeId) {
+        Map<Long, Double> scores = new HashMap<>();
+        for (Long candidate : target.candidates(signature)) {
+            int[] other = target.signatureOf(candidate);
+            if (other == null || candidate.equals(excludeId)) {
+                continue;
+            }
+            double score = MinHasher.similarity(signature, other);
+            if (score >= threshold) {
+                scores.put(candidate, score);
+            }
+        }
+        return scores;
+    }
+
+    /**
+     * Groups matched pairs into connected components with union-find.
+     */
+    private List<Cluster> cluster(Map<Long, Map<Long, Double>> pairs) {
+        Map<Long, Long> parent = new HashMap<>();
+        pairs.forEach((a, matches) -> matches.keySet().forEach(b -> union(parent, a, b)));
+
+        Map<Long, List<Long>> members = new HashMap<>();
+        Map<Long, double[]> totals = new HashMap<>(); // root -> {score sum, pair count}
+        for (Long id : parent.keySet()) {
+            members.computeIfAbsent(find(parent, id), k -> new ArrayList<>()).add(id);
+        }
+        pairs.forEach((a, matches) -> matches.forEach((b, score) -> {
+            double[] total = totals.computeIfAbsent(find(parent, a), k -> new double[2]);
+            total[0] += score;
+            total[1]++;
+        }));
+
+        List<Cluster> clusters = new ArrayList<>();
+        members.forEach((root, ids) -> {
+            double[] total = totals.get(root);
+            ids.sort(Comparator.naturalOrder());
+            clusters.add(new Cluster(ids, total[0] / total[1]));
+        });
+        return clusters;
+    }
+
+    private static void union(Map<Long, Long> parent, long a, long b) {
+        long rootA = find(parent, a);
+        long rootB = find(parent, b);
+        if (rootA != rootB) {
+            parent.put(Math.max(rootA, rootB), Math.min(rootA, rootB));
+        }
+    }
+
+    private static long find(Map<Long, Long> parent, long id) {
+        long root = id;
+        Long next;
+        while ((next = parent.get(root)) != null && next != root) {
+            root = next;
+        }
+        parent.putIfAbsent(id, root);
+        // Path compression
+        long current = id;
+        while (current != root) {
+            long up = parent.get(current);
+            parent.put(current, root);
+            current = up;
+        }
+        return root;
+    }
+
+    private record Cluster(List<Long> ids, double score) {
+    }
+}
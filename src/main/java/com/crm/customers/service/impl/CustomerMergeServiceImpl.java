@@ -0,0 +1,125 @@
+package com.crm.customers.service.impl;
+
+import com.crm.common.cache.BatchCache;
+import com.crm.common.outbox.OutboxEventType;
+import com.crm.common.outbox.OutboxPublisher;
+import com.crm.common.sync.ChangeFeed;
+import com.crm.common.sync.SyncResource;
+import com.crm.customers.dto.CustomerMergeResultDTO;
+import com.crm.customers.exceptions.CustomerNotFoundException;
+import com.crm.customers.mapper.CustomerMapper;
+import com.crm.customers.model.Customer;
+import com.crm.customers.repository.CustomerRepository;
+import com.crm.customers.service.CustomerDeduplicationService;
+import com.crm.customers.service.CustomerMergeService;
+import com.crm.offers.repository.OfferRepository;
+import com.crm.tasks.repository.TaskRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Merges a duplicate customer into a surviving one.
+ * Offers and tasks are re-parented with set-based UPDATEs regardless of how many
+ * children exist, and caches are invalidated once, after commit, for the affected keys only,
+ * each region's keys in one batch.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class CustomerMergeServiceImpl implements CustomerMergeService {
+
+    private final CustomerRepository customerRepository;
+    private final OfferRepository offerRepository;
+    private final TaskRepository taskRepository;
+    private final CustomerMapper customerMapper;
+    private final CustomerDeduplicationService deduplicationService;
+    private final CacheManager cacheManager;
+    private final OutboxPublisher outboxPublisher;
+    private final ChangeFeed changeFeed;
+
+    @Override
+    public CustomerMergeResultDTO mergeCustomers(Long targetId, Long duplicateId) {
+        log.info("Merging customer {} into customer {}", duplicateId, targetId);
+
+        if (targetId.equals(duplicateId)) {
+            throw new IllegalArgumentException("Cannot merge a customer into itself");
+        }
+        if (!customerRepository.existsById(duplicateId)) {
+            throw new CustomerNotFoundException(duplicateId);
+        }
+        Customer target = customerRepository.findById(targetId)
+                .orElseThrow(() -> new CustomerNotFoundException(targetId));
+
+        // Ids are only needed for targeted cache eviction
+        List<Long> movedOfferIds = offerRepository.findIdsByCustomerId(duplicateId);
+        List<Long> movedTaskIds = taskRepository.findIdsByCustomerId(duplicateId);
+
+        LocalDateTime now = LocalDateTime.now();
+        int offersMoved = offerRepository.reassignCustomer(duplicateId, target, now);
+        int tasksMoved = taskRepository.reassignCustomer(duplicateId, target, now);
+
+        // Children no longer reference the duplicate, so the FK cascade deletes nothing
+        customerRepository.deleteById(duplicateId);
+        deduplicationService.forget(duplicateId);
+        changeFeed.recordDeletion(SyncResource.CUSTOMER, duplicateId);
+
+        // The cache manager is transaction-aware, so these evictions are applied after commit
+        evictMergedEntries(targetId, duplicateId, movedOfferIds, movedTaskIds);
+
+        log.info("Merged customer {} into {}: {} offers and {} tasks moved",
+                duplicateId, targetId, offersMoved, tasksMoved);
+
+        CustomerMergeResultDTO result = CustomerMergeResultDTO.builder()
+                .customer(customerMapper.toResponseDTO(customerRepository.findById(targetId)
+                        .orElseThrow(() -> new CustomerNotFoundException(targetId))))
+                .mergedCustomerId(duplicateId)
+                .offersMoved(offersMoved)
+                .tasksMoved(tasksMoved)
+                .build();
+
+        // Re-parented children are covered by this single event rather than one per row
+        outboxPublisher.record(OutboxPublisher.CUSTOMER, targetId, OutboxEventType.MERGED, result);
+        return result;
+    }
+
+    /**
+     * Moved rows embed the customer name, and only the per-customer id lists change membership;
+     * lists by status or offer keep the same ids. Per-customer lists are cached in every user's
+     * visibility scope as well, so the offer and task id lists are cleared; merges are rare.
+     */
+    private void evictMergedEntries(Long targetId, Long duplicateId, List<Long> offerIds, List<Long> taskIds) {
+        evict("customers", List.of(targetId, duplicateId));
+        evict("customer-ids", List.of("all"));
+        evict("offers", offerIds);
+        evict("tasks", taskIds);
+        clear("offer-ids");
+        clear("task-ids");
+
+        // Offer and task responses are versioned by the customer region too
+        clear("customer-responses");
+    }
+
+    private void clear(String cacheName) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+
+    private void evict(String cacheName, List<?> keys) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache instanceof BatchCache batch) {
+            batch.evictAll(keys);
+        } else if (cache != null) {
+            keys.forEach(cache::evict);
+        }
+    }
+}
@@ -1,5 +1,12 @@
 package com.crm.customers.service.impl;
 
+import com.crm.common.cache.IdListCache;
+import com.crm.common.membership.MembershipIndex;
+import com.crm.common.outbox.OutboxEventType;
+import com.crm.common.outbox.OutboxPublisher;
+import com.crm.common.sync.ChangeFeed;
+import com.crm.common.sync.ChangesResponseDTO;
+import com.crm.common.sync.SyncResource;
 import com.crm.customers.dto.CustomerRequestDTO;
 import com.crm.customers.dto.CustomerResponseDTO;
 import com.crm.customers.exceptions.CustomerNotFoundException;
@@ -7,32 +14,54 @@ import com.crm.customers.exceptions.DuplicateResourceException;
 import com.crm.customers.mapper.CustomerMapper;
 import com.crm.customers.model.Customer;
 import com.crm.customers.repository.CustomerRepository;
+import com.crm.customers.service.CustomerDeduplicationService;
 import com.crm.customers.service.CustomerService;
+import com.crm.offers.repository.OfferRepository;
+import com.crm.tasks.repository.TaskRepository;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 @Transactional
+@Timed(value = "crm.service", histogram = true)
 public class CustomerServiceImpl implements CustomerService {
 
     private final CustomerRepository repository;
     private final CustomerMapper mapper;
+    private final MembershipIndex membershipIndex;
+    private final CustomerDeduplicationService deduplicationService;
+    private final OutboxPublisher outboxPublisher;
+    private final ChangeFeed changeFeed;
+    private final OfferRepository offerRepository;
+    private final TaskRepository taskRepository;
+    private final IdListCache idListCache;
 
     @Override
-    @CacheEvict(value = "customers", allEntries = true)
+    @Caching(evict = {
+            @CacheEvict(value = "customers", key = "#result.id"),
+            @CacheEvict(value = "customer-ids", key = "'all'"),
+            @CacheEvict(value = "customer-responses", allEntries = true)
+    })
     public CustomerResponseDTO createCustomer(CustomerRequestDTO requestDTO) {
         log.info("Creating new customer with email: {}", requestDTO.getEmail());
 
-        // Check if email already exists
-        if (repository.findByEmail(requestDTO.getEmail()).isPresent()) {
+        // Check if email already exists (definite negatives from the index skip the lookup)
+        if (membershipIndex.mightContainCustomerEmail(requestDTO.getEmail())
+                && repository.findByEmail(requestDTO.getEmail()).isPresent()) {
             throw new DuplicateResourceException("Customer", "email", requestDTO.getEmail());
         }
 
@@ -41,17 +70,25 @@ public class CustomerServiceImpl implements CustomerService {
 
         // Save to database
         Customer savedCustomer = repository.save(customer);
+        membershipIndex.addCustomerEmail(savedCustomer.getEmail());
 
         log.info("Customer created successfully with id: {}", savedCustomer.getId());
 
+        Set<Long> possibleDuplicates = deduplicationService.register(savedCustomer);
+        if (!possibleDuplicates.isEmpty()) {
+            log.warn("Customer {} looks like a duplicate of customers {}", savedCustomer.getId(), possibleDuplicates);
+        }
+
         // Convert Entity back to DTO
-        return mapper.toResponseDTO(savedCustomer);
+        CustomerResponseDTO responseDTO = mapper.toResponseDTO(savedCustomer);
+        outboxPublisher.record(OutboxPublisher.CUSTOMER, savedCustomer.getId(), OutboxEventType.CREATED, responseDTO);
+        return responseDTO;
     }
 
     @Override
-    @Cacheable(value = "customers", key = "#id")
+    @Cacheable(value = "customers", key = "#id", sync = true)
     public CustomerResponseDTO getCustomerById(Long id) {
-        log.info("Fetching customer {} FROM DATABASE (not cached)", id);
+        log.debug("Fetching customer {} FROM DATABASE (not cached)", id);
 
         Customer customer = repository.findById(id)
                 .orElseThrow(() -> new CustomerNotFoundException(id));
@@ -60,17 +97,25 @@ public class CustomerServiceImpl implements CustomerService {
     }
 
     @Override
-    @Cacheable(value = "customers", key = "'all'")
     public List<CustomerResponseDTO> getAllCustomers() {
-        log.info("Fetching all customers FROM DATABASE (not cached)");
-
-        return repository.findAll().stream()
-                .map(mapper::toResponseDTO)
-                .collect(Collectors.toList());
+        return idListCache.getList("customer-ids", "all", "customers",
+                () -> {
+                    log.debug("Fetching all customers FROM DATABASE (not cached)");
+                    return repository.findAll().stream()
+                            .map(mapper::toResponseDTO)
+                            .collect(Collectors.toList());
+                },
+                CustomerResponseDTO::getId,
+                ids -> repository.findAllById(ids).stream()
+                        .map(mapper::toResponseDTO)
+                        .collect(Collectors.toList()));
     }
 
     @Override
-    @CacheEvict(value = "customers", allEntries = true)
+    @Caching(evict = {
+            @CacheEvict(value = "customers", key = "#id"),
+            @CacheEvict(value = "customer-responses", allEntries = true)
+    })
     public CustomerResponseDTO updateCustomer(Long id, CustomerRequestDTO requestDTO) {
         log.info("Updating customer with id: {}", id);
 
@@ -79,11 +124,21 @@ public class CustomerServiceImpl implements CustomerService {
                 .orElseThrow(() -> new CustomerNotFoundException(id));
 
         // Check email uniqueness (if email is being changed)
-        repository.findByEmail(requestDTO.getEmail())
-                .filter(c -> !c.getId().equals(id))
-                .ifPresent(c -> {
-                    throw new DuplicateResourceException("Customer", "email", requestDTO.getEmail());
-                });
+        if (membershipIndex.mightContainCustomerEmail(requestDTO.getEmail())) {
+            repository.findByEmail(requestDTO.getEmail())
+                    .filter(c -> !c.getId().equals(id))
+                    .ifPresent(c -> {
+                        throw new DuplicateResourceException("Customer", "email", requestDTO.getEmail());
+                    });
+        }
+
+        // Offers and tasks embed the customer name in their cached entries
+        boolean renamed = !Objects.equals(requestDTO.getFirstName(), existing.getFirstName())
+                || !Objects.equals(requestDTO.getLastName(), existing.getLastName());
+        if (renamed) {
+            idListCache.evict("offers", offerRepository.findIdsByCustomerId(id));
+            idListCache.evict("tasks", taskRepository.findIdsByCustomerId(id));
+        }
 
         // Update fields
         existing.setFirstName(requestDTO.getFirstName());
@@ -94,14 +149,28 @@ public class CustomerServiceImpl implements CustomerService {
 
         // Save updated customer
         Customer updatedCustomer = repository.save(existing);
+        if (renamed) {
+            // ... and in the change feeds, which only re-deliver rows with a newer updated_at
+            LocalDateTime now = LocalDateTime.now();
+            offerRepository.touchByCustomerId(id, now);
+            taskRepository.touchByCustomerId(id, now);
+        }
+        membershipIndex.addCustomerEmail(updatedCustomer.getEmail());
+        deduplicationService.register(updatedCustomer);
 
         log.info("Customer updated successfully with id: {}", updatedCustomer.getId());
 
-        return mapper.toResponseDTO(updatedCustomer);
+        CustomerResponseDTO responseDTO = mapper.toResponseDTO(updatedCustomer);
+        outboxPublisher.record(OutboxPublisher.CUSTOMER, updatedCustomer.getId(), OutboxEventType.UPDATED, responseDTO);
+        return responseDTO;
     }
 
     @Override
-    @CacheEvict(value = "customers", allEntries = true)
+    @Caching(evict = {
+            @CacheEvict(value = "customers", key = "#id"),
+            @CacheEvict(value = "customer-ids", key = "'all'"),
+            @CacheEvict(value = {"offer-ids", "task-ids", "customer-responses"}, allEntries = true)
+    })
     public void deleteCustomer(Long id) {
         log.info("Deleting customer with id: {}", id);
 
@@ -109,8 +178,35 @@ public class CustomerServiceImpl implements CustomerService {
             throw new CustomerNotFoundException(id);
         }
 
+        // Offers and tasks go with the customer via ON DELETE CASCADE, which leaves no trace for sync clients
+        // or outbox consumers
+        List<Long> offerIds = offerRepository.findIdsByCustomerId(id);
+        List<Long> taskIds = taskRepository.findIdsByCustomerId(id);
+        changeFeed.recordDeletions(SyncResource.OFFER, offerIds);
+        changeFeed.recordDeletions(SyncResource.TASK, taskIds);
+        offerIds.forEach(offerId -> outboxPublisher.record(
+                OutboxPublisher.OFFER, offerId, OutboxEventType.DELETED, Map.of("id", offerId)));
+        taskIds.forEach(taskId -> outboxPublisher.record(
+                OutboxPublisher.TASK, taskId, OutboxEventType.DELETED, Map.of("id", taskId)));
+        idListCache.evict("offers", offerIds);
+        idListCache.evict("tasks", taskIds);
+
         repository.deleteById(id);
+        deduplicationService.forget(id);
+        changeFeed.recordDeletion(SyncResource.CUSTOMER, id);
+        outboxPublisher.record(OutboxPublisher.CUSTOMER, id, OutboxEventType.DELETED, Map.of("id", id));
 
         log.info("Customer deleted successfully with id: {}", id);
     }
-}
\ No newline at end of file
+
+    @Override
+    @Transactional(readOnly = true)
+    public ChangesResponseDTO<CustomerResponseDTO> getChanges(String since, int limit) {
+        return changeFeed.read(SyncResource.CUSTOMER, since, limit,
+                (afterTime, afterId, until, page) -> repository.findChangedAfter(
+                        ChangeFeed.toZonedDateTime(afterTime), afterId, ChangeFeed.toZonedDateTime(until), page),
+                customer -> customer.getUpdatedAt().toInstant(),
+                Customer::getId,
+                mapper::toResponseDTO);
+    }
+}
@@ -1,7 +1,14 @@
 package com.crm.offers.controller;
 
+import com.crm.common.query.ListQuery;
+import com.crm.common.query.PageResponseDTO;
+import com.crm.common.query.SparseQuery;
+import com.crm.common.sync.ChangesResponseDTO;
+import com.crm.offers.dto.OfferField;
+import com.crm.offers.dto.OfferQueryField;
 import com.crm.offers.dto.OfferRequestDTO;
 import com.crm.offers.dto.OfferResponseDTO;
+import com.crm.offers.model.Offer;
 import com.crm.offers.service.OfferService;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
@@ -25,17 +32,51 @@ public class OfferController {
     }
 
     @GetMapping
-    public ResponseEntity<List<OfferResponseDTO>> getAllOffers() {
+    public ResponseEntity<List<?>> getAllOffers(@RequestParam(required = false) String fields) {
+        if (fields != null) {
+            return ResponseEntity.ok(service.getAllOffers(SparseQuery.parse(fields, OfferField.class)));
+        }
         return ResponseEntity.ok(service.getAllOffers());
     }
 
+    /**
+     * {@code ?filter=status=SENT;price>=1000&sort=-price}, one keyset page at a time; see
+     * {@link ListQuery} for the grammar.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<PageResponseDTO<?>> searchOffers(
+            @RequestParam(required = false) String filter,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam(required = false) String fields) {
+        ListQuery<Offer> query = ListQuery.parse(filter, sort, after, limit, OfferQueryField.class);
+        if (fields != null) {
+            return ResponseEntity.ok(service.searchOffers(query, SparseQuery.parse(fields, OfferField.class)));
+        }
+        return ResponseEntity.ok(service.searchOffers(query));
+    }
+
+    @GetMapping("/changes")
+    public ResponseEntity<ChangesResponseDTO<OfferResponseDTO>> getChanges(
+            @RequestParam(required = false) String since,
+            @RequestParam(defaultValue = "500") int limit) {
+        return ResponseEntity.ok(service.getChanges(since, limit));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<OfferResponseDTO> getOfferById(@PathVariable Long id) {
         return ResponseEntity.ok(service.getOfferById(id));
     }
 
     @GetMapping("/customer/{customerId}")
-    public ResponseEntity<List<OfferResponseDTO>> getOffersByCustomerId(@PathVariable Long customerId) {
+    public ResponseEntity<List<?>> getOffersByCustomerId(
+            @PathVariable Long customerId,
+            @RequestParam(required = false) String fields) {
+        if (fields != null) {
+            return ResponseEntity.ok(service.getOffersByCustomerId(customerId,
+                    SparseQuery.parse(fields, OfferField.class)));
+        }
         return ResponseEntity.ok(service.getOffersByCustomerId(customerId));
     }
 
@@ -60,7 +101,7 @@ public class OfferController {
             @PathVariable Long id,
             @RequestBody Map<String, String> request) {
         String status = request.get("status");
-        log.info("PATCH /api/offers/{}/status - Changing status to {}", id, status);
+        log.debug("PATCH /api/offers/{}/status - Changing status to {}", id, status);
         service.changeOfferStatus(id, status);
         return ResponseEntity.ok().build();
     }
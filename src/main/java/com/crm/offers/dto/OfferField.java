@@ -0,0 +1,59 @@
+package com.crm.offers.dto;
+
+import com.crm.common.query.SparseField;
+import com.crm.common.query.SparseSelect;
+import com.crm.customers.model.Customer;
+import com.crm.offers.model.Offer;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+
+/**
+ * Fields of {@link OfferResponseDTO} that list endpoints can be narrowed to with {@code ?fields=}.
+ * Only customerName joins the customer.
+ */
+public enum OfferField implements SparseField<Offer> {
+
+    ID("id"),
+    TITLE("title"),
+    DESCRIPTION("description"),
+    PRICE("price"),
+    STATUS("status"),
+    CUSTOMER_ID("customerId") {
+        @Override
+        public Expression<?> select(SparseSelect<Offer> select) {
+            return select.root().get("customer").get("id");
+        }
+    },
+    CUSTOMER_NAME("customerName") {
+        @Override
+        public Expression<?> select(SparseSelect<Offer> select) {
+            Join<Offer, Customer> customer = select.join("customer", JoinType.INNER);
+            CriteriaBuilder cb = select.builder();
+            return cb.concat(cb.concat(customer.get("firstName"), " "), customer.get("lastName"));
+        }
+    },
+    OWNER_ID("ownerId"),
+    CREATED_AT("createdAt"),
+    UPDATED_AT("updatedAt");
+
+    private final String fieldName;
+
+    OfferField(String fieldName) {
+        this.fieldName = fieldName;
+    }
+
+    @Override
+    public String fieldName() {
+        return fieldName;
+    }
+
+    /**
+     * The offer column of the same name.
+     */
+    @Override
+    public Expression<?> select(SparseSelect<Offer> select) {
+        return select.root().get(fieldName);
+    }
+}
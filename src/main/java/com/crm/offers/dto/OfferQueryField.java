@@ -0,0 +1,61 @@
+package com.crm.offers.dto;
+
+import com.crm.common.query.QueryField;
+import com.crm.offers.model.Offer;
+import com.crm.offers.model.OfferStatus;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Root;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Fields offer searches can filter on, and the ones they can be sorted by with the index serving
+ * that order.
+ */
+public enum OfferQueryField implements QueryField<Offer> {
+
+    ID("id", Long.class, true, "PRIMARY"),
+    STATUS("status", OfferStatus.class, false, null),
+    PRICE("price", BigDecimal.class, true, "idx_offers_price_id"),
+    UPDATED_AT("updatedAt", LocalDateTime.class, true, "idx_offers_updated_at"),
+    CUSTOMER_ID("customerId", Long.class, false, null) {
+        @Override
+        public Expression<?> path(Root<Offer> root) {
+            return root.get("customer").get("id");
+        }
+    },
+    OWNER_ID("ownerId", Long.class, false, null);
+
+    private final String fieldName;
+    private final Class<?> type;
+    private final boolean ranged;
+    private final String sortIndex;
+
+    OfferQueryField(String fieldName, Class<?> type, boolean ranged, String sortIndex) {
+        this.fieldName = fieldName;
+        this.type = type;
+        this.ranged = ranged;
+        this.sortIndex = sortIndex;
+    }
+
+    @Override
+    public String fieldName() {
+        return fieldName;
+    }
+
+    @Override
+    public Class<?> type() {
+        return type;
+    }
+
+    @Override
+    public boolean ranged() {
+        return ranged;
+    }
+
+    @Override
+    public String sortIndex() {
+        return sortIndex;
+    }
+}
@@ -35,4 +35,6 @@ public class OfferRequestDTO {
 
     @NotNull(message = "Customer ID is required")
     private Long customerId;
+
+    private Long ownerId; // Optional
 }
\ No newline at end of file
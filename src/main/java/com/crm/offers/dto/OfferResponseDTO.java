@@ -26,6 +26,7 @@ public class OfferResponseDTO {
     private OfferStatus status;
     private Long customerId;
     private String customerName; // firstName + lastName
+    private Long ownerId;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 }
\ No newline at end of file
@@ -1,11 +1,13 @@
 package com.crm.offers.exceptions;
 
+import com.crm.customers.exceptions.EntityNotFoundException;
+
 /**
  * Exception thrown when an offer is not found.
  */
-public class OfferNotFoundException extends RuntimeException {
+public class OfferNotFoundException extends EntityNotFoundException {
 
     public OfferNotFoundException(Long id) {
-        super("Offer not found with id: " + id);
+        super("Offer", id);
     }
-}
\ No newline at end of file
+}
@@ -22,6 +22,7 @@ public class OfferMapper {
                 .description(dto.getDescription())
                 .price(dto.getPrice())
                 .status(dto.getStatus())
+                .ownerId(dto.getOwnerId())
                 .build();
     }
 
@@ -39,6 +40,7 @@ public class OfferMapper {
                 .status(entity.getStatus())
                 .customerId(customer.getId())
                 .customerName(customer.getFirstName() + " " + customer.getLastName())
+                .ownerId(entity.getOwnerId())
                 .createdAt(entity.getCreatedAt())
                 .updatedAt(entity.getUpdatedAt())
                 .build();
@@ -52,5 +54,6 @@ public class OfferMapper {
         entity.setDescription(dto.getDescription());
         entity.setPrice(dto.getPrice());
         entity.setStatus(dto.getStatus());
+        entity.setOwnerId(dto.getOwnerId());
     }
 }
\ No newline at end of file
@@ -3,6 +3,9 @@ package com.crm.offers.model;
 import com.crm.customers.model.Customer;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Filter;
+import org.hibernate.annotations.FilterDef;
+import org.hibernate.annotations.ParamDef;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -12,6 +15,9 @@ import java.time.LocalDateTime;
  */
 @Entity
 @Table(name = "offers")
+@FilterDef(name = Offer.VISIBILITY_FILTER, defaultCondition = "owner_id = :userId",
+        parameters = @ParamDef(name = "userId", type = Long.class))
+@Filter(name = Offer.VISIBILITY_FILTER)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -19,6 +25,11 @@ import java.time.LocalDateTime;
 @Builder
 public class Offer {
 
+    /**
+     * Limits queries to offers owned by a user; enabled per transaction by RowVisibility.
+     */
+    public static final String VISIBILITY_FILTER = "offerOwner";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -40,6 +51,12 @@ public class Offer {
     @JoinColumn(name = "customer_id", nullable = false)
     private Customer customer;
 
+    /**
+     * User owning the offer; offers without an owner are only visible to managers and admins.
+     */
+    @Column(name = "owner_id")
+    private Long ownerId;
+
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
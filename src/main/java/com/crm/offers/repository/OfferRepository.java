@@ -1,9 +1,16 @@
 package com.crm.offers.repository;
 
+import com.crm.customers.model.Customer;
 import com.crm.offers.model.Offer;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -13,7 +20,52 @@ import java.util.List;
 public interface OfferRepository extends JpaRepository<Offer, Long> {
 
     /**
-     * Find all offers for a specific customer.
+     * All offers with their customer in the same query, which the DTOs embed.
      */
-    List<Offer> findByCustomerId(Long customerId);
+    @Override
+    @Query("SELECT o FROM Offer o JOIN FETCH o.customer")
+    List<Offer> findAll();
+
+    /**
+     * Find all offers for a specific customer, with the customer in the same query.
+     */
+    @Query("SELECT o FROM Offer o JOIN FETCH o.customer WHERE o.customer.id = :customerId")
+    List<Offer> findByCustomerId(@Param("customerId") Long customerId);
+
+    /**
+     * Offers by id with their customer in the same query, for hydrating cached id lists.
+     */
+    @Query("SELECT o FROM Offer o JOIN FETCH o.customer WHERE o.id IN :ids")
+    List<Offer> findWithCustomerByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Keyset page of offers changed after the (updatedAt, id) position, served by idx_offers_updated_at.
+     */
+    @Query("SELECT o FROM Offer o JOIN FETCH o.customer " +
+            "WHERE (o.updatedAt > :afterTime OR (o.updatedAt = :afterTime AND o.id > :afterId)) " +
+            "AND o.updatedAt < :until ORDER BY o.updatedAt, o.id")
+    List<Offer> findChangedAfter(@Param("afterTime") LocalDateTime afterTime,
+                                 @Param("afterId") Long afterId,
+                                 @Param("until") LocalDateTime until,
+                                 Pageable pageable);
+
+    @Query("SELECT o.id FROM Offer o WHERE o.customer.id = :customerId")
+    List<Long> findIdsByCustomerId(@Param("customerId") Long customerId);
+
+    /**
+     * Marks all offers of a customer as changed, since they embed its name.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Offer o SET o.updatedAt = :now WHERE o.customer.id = :customerId")
+    int touchByCustomerId(@Param("customerId") Long customerId, @Param("now") LocalDateTime now);
+
+    /**
+     * Moves all offers of one customer to another in a single set-based UPDATE.
+     * Bulk updates bypass entity callbacks, so updatedAt is set explicitly.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Offer o SET o.customer = :target, o.updatedAt = :now WHERE o.customer.id = :sourceId")
+    int reassignCustomer(@Param("sourceId") Long sourceId,
+                         @Param("target") Customer target,
+                         @Param("now") LocalDateTime now);
 }
\ No newline at end of file
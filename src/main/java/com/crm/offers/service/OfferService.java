@@ -1,9 +1,15 @@
 package com.crm.offers.service;
 
+import com.crm.common.query.ListQuery;
+import com.crm.common.query.PageResponseDTO;
+import com.crm.common.sync.ChangesResponseDTO;
+import com.crm.offers.dto.OfferField;
 import com.crm.offers.dto.OfferRequestDTO;
 import com.crm.offers.dto.OfferResponseDTO;
+import com.crm.offers.model.Offer;
 
 import java.util.List;
+import java.util.Map;
 
 public interface OfferService {
 
@@ -15,9 +21,19 @@ public interface OfferService {
 
     List<OfferResponseDTO> getOffersByCustomerId(Long customerId);
 
+    List<Map<String, Object>> getAllOffers(List<OfferField> fields);
+
+    List<Map<String, Object>> getOffersByCustomerId(Long customerId, List<OfferField> fields);
+
+    PageResponseDTO<OfferResponseDTO> searchOffers(ListQuery<Offer> query);
+
+    PageResponseDTO<Map<String, Object>> searchOffers(ListQuery<Offer> query, List<OfferField> fields);
+
     OfferResponseDTO updateOffer(Long id, OfferRequestDTO requestDTO);
 
     void deleteOffer(Long id);
 
     void changeOfferStatus(Long id, String status);
+
+    ChangesResponseDTO<OfferResponseDTO> getChanges(String since, int limit);
 }
\ No newline at end of file
@@ -1,8 +1,18 @@
 package com.crm.offers.service.impl;
 
+import com.crm.common.cache.IdListCache;
+import com.crm.common.outbox.OutboxEventType;
+import com.crm.common.outbox.OutboxPublisher;
+import com.crm.common.query.ListQuery;
+import com.crm.common.query.PageResponseDTO;
+import com.crm.common.query.SparseQuery;
+import com.crm.common.sync.ChangeFeed;
+import com.crm.common.sync.ChangesResponseDTO;
+import com.crm.common.sync.SyncResource;
 import com.crm.customers.exceptions.CustomerNotFoundException;
 import com.crm.customers.model.Customer;
 import com.crm.customers.repository.CustomerRepository;
+import com.crm.offers.dto.OfferField;
 import com.crm.offers.dto.OfferRequestDTO;
 import com.crm.offers.dto.OfferResponseDTO;
 import com.crm.offers.exceptions.OfferNotFoundException;
@@ -11,12 +21,24 @@ import com.crm.offers.model.Offer;
 import com.crm.offers.model.OfferStatus;
 import com.crm.offers.repository.OfferRepository;
 import com.crm.offers.service.OfferService;
+import com.crm.security.repository.UserRepository;
+import com.crm.security.service.RowVisibility;
+import com.crm.tasks.repository.TaskRepository;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.access.prepost.PostAuthorize;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import org.springframework.cache.annotation.Cacheable;
 
@@ -24,34 +46,51 @@ import org.springframework.cache.annotation.Cacheable;
 @RequiredArgsConstructor
 @Slf4j
 @Transactional
+@Timed(value = "crm.service", histogram = true)
 public class OfferServiceImpl implements OfferService {
 
     private final OfferRepository offerRepository;
     private final CustomerRepository customerRepository;
     private final OfferMapper offerMapper;
+    private final OutboxPublisher outboxPublisher;
+    private final ChangeFeed changeFeed;
+    private final TaskRepository taskRepository;
+    private final IdListCache idListCache;
+    private final SparseQuery sparseQuery;
+    private final UserRepository userRepository;
+    private final RowVisibility rowVisibility;
 
     @Override
-    @CacheEvict(value = "offers", allEntries = true)
+    @Caching(evict = {
+            @CacheEvict(value = "offers", key = "#result.id"),
+            @CacheEvict(value = "offer-responses", allEntries = true)
+    })
     public OfferResponseDTO createOffer(OfferRequestDTO requestDTO) {
         log.info("Creating new offer for customer id: {}", requestDTO.getCustomerId());
 
         Customer customer = customerRepository.findById(requestDTO.getCustomerId())
                 .orElseThrow(() -> new CustomerNotFoundException(requestDTO.getCustomerId()));
+        validateOwner(requestDTO.getOwnerId());
 
         Offer offer = offerMapper.toEntity(requestDTO);
         offer.setCustomer(customer);
 
         Offer savedOffer = offerRepository.save(offer);
+        idListCache.evict("offer-ids", RowVisibility.scopedKeys(
+                List.of("all", "customer:" + customer.getId()), savedOffer.getOwnerId()));
 
         log.info("Offer created successfully with id: {}", savedOffer.getId());
-        return offerMapper.toResponseDTO(savedOffer);
+        OfferResponseDTO responseDTO = offerMapper.toResponseDTO(savedOffer);
+        outboxPublisher.record(OutboxPublisher.OFFER, savedOffer.getId(), OutboxEventType.CREATED, responseDTO);
+        return responseDTO;
     }
 
     @Override
     @Transactional(readOnly = true)
-    @Cacheable(value = "offers", key = "#id")
+    @Cacheable(value = "offers", key = "#id", sync = true)
+    @PostAuthorize("@rowVisibility.canSee(returnObject.ownerId)")
     public OfferResponseDTO getOfferById(Long id) {
-        log.info("Fetching offer {} FROM DATABASE (not cached)", id);
+        log.debug("Fetching offer {} FROM DATABASE (not cached)", id);
 
         Offer offer = offerRepository.findById(id)
                 .orElseThrow(() -> new OfferNotFoundException(id));
@@ -61,57 +100,114 @@ public class OfferServiceImpl implements OfferService {
 
     @Override
     @Transactional(readOnly = true)
-    @Cacheable(value = "offers", key = "'all'")
     public List<OfferResponseDTO> getAllOffers() {
-        log.info("Fetching all offers FROM DATABASE (not cached)");
-
-        return offerRepository.findAll().stream()
-                .map(offerMapper::toResponseDTO)
-                .collect(Collectors.toList());
+        return cachedList("all", () -> {
+            log.debug("Fetching all offers FROM DATABASE (not cached)");
+            return offerRepository.findAll();
+        });
     }
 
     @Override
     @Transactional(readOnly = true)
-    @Cacheable(value = "offers", key = "#customerId")
     public List<OfferResponseDTO> getOffersByCustomerId(Long customerId) {
-        log.info("Fetching offers for customer {} FROM DATABASE (not cached)", customerId);
+        return cachedList("customer:" + customerId, () -> {
+            log.debug("Fetching offers for customer {} FROM DATABASE (not cached)", customerId);
+
+            if (!customerRepository.existsById(customerId)) {
+                throw new CustomerNotFoundException(customerId);
+            }
+
+            return offerRepository.findByCustomerId(customerId);
+        });
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getAllOffers(List<OfferField> fields) {
+        return sparseQuery.list(Offer.class, fields, null);
+    }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getOffersByCustomerId(Long customerId, List<OfferField> fields) {
         if (!customerRepository.existsById(customerId)) {
             throw new CustomerNotFoundException(customerId);
         }
+        return sparseQuery.list(Offer.class, fields,
+                select -> select.builder().equal(select.root().get("customer").get("id"), customerId));
+    }
 
-        return offerRepository.findByCustomerId(customerId).stream()
-                .map(offerMapper::toResponseDTO)
-                .collect(Collectors.toList());
+    @Override
+    @Transactional(readOnly = true)
+    public PageResponseDTO<OfferResponseDTO> searchOffers(ListQuery<Offer> query) {
+        return sparseQuery.page(Offer.class, query, root -> root.fetch("customer"))
+                .map(offerMapper::toResponseDTO);
     }
 
     @Override
-    @CacheEvict(value = "offers", allEntries = true)
+    @Transactional(readOnly = true)
+    public PageResponseDTO<Map<String, Object>> searchOffers(ListQuery<Offer> query, List<OfferField> fields) {
+        return sparseQuery.page(Offer.class, fields, query);
+    }
+
+    @Override
+    @Caching(evict = {
+            @CacheEvict(value = "offers", key = "#id"),
+            @CacheEvict(value = "offer-responses", allEntries = true)
+    })
     public OfferResponseDTO updateOffer(Long id, OfferRequestDTO requestDTO) {
         log.info("Updating offer with id: {}", id);
 
         Offer existing = offerRepository.findById(id)
                 .orElseThrow(() -> new OfferNotFoundException(id));
+        validateOwner(requestDTO.getOwnerId());
 
+        Long previousOwnerId = existing.getOwnerId();
+        List<String> lists = new ArrayList<>();
         if (!existing.getCustomer().getId().equals(requestDTO.getCustomerId())) {
             Customer newCustomer = customerRepository.findById(requestDTO.getCustomerId())
                     .orElseThrow(() -> new CustomerNotFoundException(requestDTO.getCustomerId()));
+            lists.add("customer:" + existing.getCustomer().getId());
+            lists.add("customer:" + newCustomer.getId());
             existing.setCustomer(newCustomer);
         }
+        // A new owner moves the offer between the scoped lists of both users
+        if (!Objects.equals(previousOwnerId, requestDTO.getOwnerId())) {
+            lists.add("all");
+            lists.add("customer:" + existing.getCustomer().getId());
+        }
+        if (!lists.isEmpty()) {
+            idListCache.evict("offer-ids",
+                    RowVisibility.scopedKeys(lists, previousOwnerId, requestDTO.getOwnerId()));
+        }
+
+        // Tasks embed the offer title in their cached entries
+        if (!Objects.equals(existing.getTitle(), requestDTO.getTitle())) {
+            idListCache.evict("tasks", taskRepository.findIdsByOfferId(id));
+        }
 
         existing.setTitle(requestDTO.getTitle());
         existing.setDescription(requestDTO.getDescription());
         existing.setPrice(requestDTO.getPrice());
         existing.setStatus(requestDTO.getStatus());
+        existing.setOwnerId(requestDTO.getOwnerId());
 
         Offer updatedOffer = offerRepository.save(existing);
+        changeFeed.recordReassignment(SyncResource.OFFER, updatedOffer.getId(),
+                previousOwnerId, updatedOffer.getOwnerId());
 
         log.info("Offer updated successfully with id: {}", updatedOffer.getId());
-        return offerMapper.toResponseDTO(updatedOffer);
+        OfferResponseDTO responseDTO = offerMapper.toResponseDTO(updatedOffer);
+        outboxPublisher.record(OutboxPublisher.OFFER, updatedOffer.getId(), OutboxEventType.UPDATED, responseDTO);
+        return responseDTO;
     }
 
     @Override
-    @CacheEvict(value = "offers", allEntries = true)
+    @Caching(evict = {
+            @CacheEvict(value = "offers", key = "#id"),
+            @CacheEvict(value = {"offer-ids", "offer-responses"}, allEntries = true),
+            @CacheEvict(value = "task-ids", key = "'offer:' + #id")
+    })
     public void deleteOffer(Long id) {
         log.info("Deleting offer with id: {}", id);
 
@@ -119,26 +215,69 @@ public class OfferServiceImpl implements OfferService {
             throw new OfferNotFoundException(id);
         }
 
+        idListCache.evict("tasks", taskRepository.findIdsByOfferId(id));
+        taskRepository.detachOffer(id, LocalDateTime.now());
         offerRepository.deleteById(id);
+        changeFeed.recordDeletion(SyncResource.OFFER, id);
+        outboxPublisher.record(OutboxPublisher.OFFER, id, OutboxEventType.DELETED, Map.of("id", id));
         log.info("Offer deleted successfully with id: {}", id);
     }
 
     @Override
-    @CacheEvict(value = "offers", allEntries = true)
+    @Caching(evict = {
+            @CacheEvict(value = "offers", key = "#id"),
+            @CacheEvict(value = "offer-responses", allEntries = true)
+    })
     public void changeOfferStatus(Long id, String status) {
         log.info("Changing status for offer id: {} to {}", id, status);
 
         Offer offer = offerRepository.findById(id)
                 .orElseThrow(() -> new OfferNotFoundException(id));
+        if (!rowVisibility.canSee(offer.getOwnerId())) {
+            throw new AccessDeniedException("Offer " + id + " is not owned by the current user");
+        }
 
         try {
             OfferStatus newStatus = OfferStatus.valueOf(status);
             offer.setStatus(newStatus);
             offerRepository.save(offer);
+            outboxPublisher.record(OutboxPublisher.OFFER, id, OutboxEventType.STATUS_CHANGED,
+                    Map.of("id", id, "status", newStatus.name()));
             log.info("Status changed successfully for offer {}", id);
         } catch (IllegalArgumentException e) {
             log.error("Invalid status: {}", status);
             throw new IllegalArgumentException("Nieprawidłowy status: " + status);
         }
     }
-}
\ No newline at end of file
+
+    private void validateOwner(Long ownerId) {
+        if (ownerId != null && !userRepository.existsById(ownerId)) {
+            throw new IllegalArgumentException("Owner not found with id: " + ownerId);
+        }
+    }
+
+    /**
+     * Offer list cached as ids in the caller's visibility scope, hydrated from the per-offer entries.
+     */
+    private List<OfferResponseDTO> cachedList(String key, Supplier<List<Offer>> query) {
+        return idListCache.getList("offer-ids", rowVisibility.scopedKey(key), "offers",
+                () -> query.get().stream()
+                        .map(offerMapper::toResponseDTO)
+                        .collect(Collectors.toList()),
+                OfferResponseDTO::getId,
+                ids -> offerRepository.findWithCustomerByIdIn(ids).stream()
+                        .map(offerMapper::toResponseDTO)
+                        .collect(Collectors.toList()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ChangesResponseDTO<OfferResponseDTO> getChanges(String since, int limit) {
+        return changeFeed.read(SyncResource.OFFER, since, limit,
+                (afterTime, afterId, until, page) -> offerRepository.findChangedAfter(
+                        ChangeFeed.toLocalDateTime(afterTime), afterId, ChangeFeed.toLocalDateTime(until), page),
+                offer -> ChangeFeed.toInstant(offer.getUpdatedAt()),
+                Offer::getId,
+                offerMapper::toResponseDTO);
+    }
+}
@@ -28,7 +28,7 @@ public class UserController {
     @PostMapping
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<UserResponseDTO> createUser(@Valid @RequestBody UserRequestDTO requestDTO) {
-        log.info("POST /api/users - Creating new user");
+        log.debug("POST /api/users - Creating new user");
         UserResponseDTO response = userService.createUser(requestDTO);
         return new ResponseEntity<>(response, HttpStatus.CREATED);
     }
@@ -57,7 +57,7 @@ public class UserController {
     @PatchMapping("/{id}/role")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Void> changeUserRole(@PathVariable Long id, @RequestBody ChangeRoleRequest request) {
-        log.info("PATCH /api/users/{}/role - Changing role to {}", id, request.getRole());
+        log.debug("PATCH /api/users/{}/role - Changing role to {}", id, request.getRole());
         userService.changeUserRole(id, request);
         return ResponseEntity.ok().build();
     }
@@ -72,7 +72,7 @@ public class UserController {
     @PatchMapping("/{id}/enable")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Void> enableUser(@PathVariable Long id) {
-        log.info("PATCH /api/users/{}/enable - Enabling user", id);
+        log.debug("PATCH /api/users/{}/enable - Enabling user", id);
         userService.enableUser(id);
         return ResponseEntity.ok().build();
     }
@@ -80,7 +80,7 @@ public class UserController {
     @PatchMapping("/{id}/disable")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Void> disableUser(@PathVariable Long id) {
-        log.info("PATCH /api/users/{}/disable - Disabling user", id);
+        log.debug("PATCH /api/users/{}/disable - Disabling user", id);
         userService.disableUser(id);
         return ResponseEntity.ok().build();
     }
@@ -88,7 +88,7 @@ public class UserController {
     @PatchMapping("/{id}/lock")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Void> lockUser(@PathVariable Long id) {
-        log.info("PATCH /api/users/{}/lock - Locking user", id);
+        log.debug("PATCH /api/users/{}/lock - Locking user", id);
         userService.lockUser(id);
         return ResponseEntity.ok().build();
     }
@@ -96,7 +96,7 @@ public class UserController {
     @PatchMapping("/{id}/unlock")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Void> unlockUser(@PathVariable Long id) {
-        log.info("PATCH /api/users/{}/unlock - Unlocking user", id);
+        log.debug("PATCH /api/users/{}/unlock - Unlocking user", id);
         userService.unlockUser(id);
         return ResponseEntity.ok().build();
     }
@@ -35,7 +35,7 @@ public class UserMapper {
         user.setUsername(dto.getUsername());
         user.setEmail(dto.getEmail());
         user.setPassword(passwordEncoder.encode(dto.getPassword()));
-        user.setRoles(new HashSet<>());
+        user.setRolesMask(0);
         user.setEnabled(true);
         user.setAccountNonLocked(true);
         return user;
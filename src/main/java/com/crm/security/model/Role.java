@@ -1,7 +1,83 @@
 package com.crm.security.model;
 
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Roles are stored on {@link User} as a bitmask of their {@link #bit()}s. The role names and
+ * granted authorities of every possible mask are built once, so loading a user allocates nothing
+ * for its roles.
+ */
 public enum Role {
-    USER,
-    MANAGER,
-    ADMIN
-}
\ No newline at end of file
+    USER(1),
+    MANAGER(1 << 1),
+    ADMIN(1 << 2);
+
+    private static final String PREFIX = "ROLE_";
+    private static final int MASKS = 1 << values().length;
+
+    private static final List<Set<String>> NAMES = new ArrayList<>(MASKS);
+    private static final List<Set<GrantedAuthority>> AUTHORITIES = new ArrayList<>(MASKS);
+
+    static {
+        for (int mask = 0; mask < MASKS; mask++) {
+            Set<String> names = new LinkedHashSet<>();
+            for (Role role : values()) {
+                if ((mask & role.bit) != 0) {
+                    names.add(role.authority());
+                }
+            }
+            NAMES.add(Set.copyOf(names));
+            AUTHORITIES.add(Set.copyOf(names.stream().map(SimpleGrantedAuthority::new).toList()));
+        }
+    }
+
+    private final int bit;
+
+    Role(int bit) {
+        this.bit = bit;
+    }
+
+    public int bit() {
+        return bit;
+    }
+
+    public String authority() {
+        return PREFIX + name();
+    }
+
+    /**
+     * Role by name, with or without the {@code ROLE_} prefix.
+     */
+    public static Role of(String name) {
+        return valueOf(name.startsWith(PREFIX) ? name.substring(PREFIX.length()) : name);
+    }
+
+    public static int mask(Collection<String> names) {
+        int mask = 0;
+        for (String name : names) {
+            mask |= of(name).bit;
+        }
+        return mask;
+    }
+
+    /**
+     * Immutable set of the {@code ROLE_} names in the mask; bits of no role are ignored.
+     */
+    public static Set<String> names(int mask) {
+        return NAMES.get(mask & (MASKS - 1));
+    }
+
+    /**
+     * Immutable, shared authorities of the mask.
+     */
+    public static Set<GrantedAuthority> authorities(int mask) {
+        return AUTHORITIES.get(mask & (MASKS - 1));
+    }
+}
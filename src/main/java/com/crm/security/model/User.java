@@ -11,7 +11,6 @@ import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
-import java.util.HashSet;
 import java.util.Set;
 
 @Entity
@@ -39,10 +38,11 @@ public class User {
     @Column(nullable = false, unique = true)
     private String email;
 
-    @ElementCollection(fetch = FetchType.EAGER)
-    @CollectionTable(name = "user_roles", joinColumns = @JoinColumn(name = "user_id"))
-    @Column(name = "role")
-    private Set<String> roles = new HashSet<>();
+    /**
+     * Bits of the user's {@link Role}s, read with the row instead of from a separate roles table.
+     */
+    @Column(name = "roles_mask", nullable = false)
+    private int rolesMask;
 
     @Column(nullable = false)
     private Boolean enabled = true;
@@ -58,15 +58,29 @@ public class User {
     @Column(nullable = false)
     private LocalDateTime updatedAt;
 
+    /**
+     * Immutable {@code ROLE_} names of the user's roles.
+     */
+    public Set<String> getRoles() {
+        return Role.names(rolesMask);
+    }
+
+    /**
+     * Names may omit the {@code ROLE_} prefix; unknown roles are rejected.
+     */
+    public void setRoles(Set<String> roles) {
+        this.rolesMask = Role.mask(roles);
+    }
+
     public void addRole(String role) {
-        this.roles.add(role);
+        this.rolesMask |= Role.of(role).bit();
     }
 
     public void removeRole(String role) {
-        this.roles.remove(role);
+        this.rolesMask &= ~Role.of(role).bit();
     }
 
     public boolean hasRole(String role) {
-        return this.roles.contains(role);
+        return (rolesMask & Role.of(role).bit()) != 0;
     }
 }
\ No newline at end of file
@@ -2,9 +2,11 @@ package com.crm.security.repository;
 
 import com.crm.security.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
@@ -16,4 +18,10 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Boolean existsByUsername(String username);
 
     Boolean existsByEmail(String email);
+
+    @Query("SELECT u.username FROM User u")
+    Stream<String> streamAllUsernames();
+
+    @Query("SELECT u.email FROM User u")
+    Stream<String> streamAllEmails();
 }
\ No newline at end of file
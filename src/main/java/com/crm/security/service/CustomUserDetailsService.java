@@ -1,20 +1,17 @@
 package com.crm.security.service;
 
+import com.crm.security.model.AuthenticatedUser;
+import com.crm.security.model.Role;
 import com.crm.security.model.User;
 import com.crm.security.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Collection;
-import java.util.stream.Collectors;
-
 @Service
 @RequiredArgsConstructor
 @Slf4j
@@ -32,26 +29,13 @@ public class CustomUserDetailsService implements UserDetailsService {
 
         log.debug("User found: {}, Roles: {}", user.getUsername(), user.getRoles());
 
-        return new org.springframework.security.core.userdetails.User(
+        return new AuthenticatedUser(
+                user.getId(),
                 user.getUsername(),
                 user.getPassword(),
                 user.getEnabled(),
-                true, // accountNonExpired
-                true, // credentialsNonExpired
                 user.getAccountNonLocked(),
-                mapRolesToAuthorities(user)
+                Role.authorities(user.getRolesMask())
         );
     }
-
-    private Collection<? extends GrantedAuthority> mapRolesToAuthorities(User user) {
-        return user.getRoles().stream()
-                .map(role -> {
-                    if (role.startsWith("ROLE_")) {
-                        return new SimpleGrantedAuthority(role);
-                    } else {
-                        return new SimpleGrantedAuthority("ROLE_" + role);
-                    }
-                })
-                .collect(Collectors.toList());
-    }
 }
\ No newline at end of file
@@ -0,0 +1,112 @@
+package com.crm.security.service;
+
+import com.crm.offers.model.Offer;
+import com.crm.security.model.AuthenticatedUser;
+import com.crm.tasks.model.Task;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Which tasks and offers the current principal may see. Managers and admins see every row, users
+ * only tasks assigned to them and offers they own. Work outside a request (schedulers, warm-up,
+ * relays) has no principal and is not restricted.
+ *
+ * The restriction is pushed into SQL by enabling the entities' Hibernate filters on every
+ * transaction, so list, search and change feed queries only ever read the user's slice. Loads by
+ * id are not filtered, as their cache entries are shared; the services check those results with
+ * {@link #canSee}. Cached id lists are partitioned per scope with {@link #scopedKey}.
+ */
+@Component("rowVisibility")
+public class RowVisibility {
+
+    public static final String ALL = "all";
+
+    private static final Set<String> UNRESTRICTED_ROLES = Set.of("ROLE_MANAGER", "ROLE_ADMIN");
+
+    /**
+     * Restricted principals without a user id, such as mock users in tests, see no rows.
+     */
+    private static final long NO_USER = 0L;
+
+    /**
+     * Id of the user the current principal is restricted to, or {@code null} when it sees every row.
+     */
+    public Long restrictedTo() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null) {
+            return null;
+        }
+        for (GrantedAuthority authority : authentication.getAuthorities()) {
+            if (UNRESTRICTED_ROLES.contains(authority.getAuthority())) {
+                return null;
+            }
+        }
+        return authentication.getPrincipal() instanceof AuthenticatedUser user ? user.getId() : NO_USER;
+    }
+
+    /**
+     * Name of the slice of rows the current principal sees, {@value #ALL} or {@code user:<id>}.
+     */
+    public String scope() {
+        Long userId = restrictedTo();
+        return userId == null ? ALL : "user:" + userId;
+    }
+
+    public boolean canSee(Long ownerId) {
+        Long userId = restrictedTo();
+        return userId == null || userId.equals(ownerId);
+    }
+
+    /**
+     * Cache key of a list in the current principal's scope.
+     */
+    public String scopedKey(String key) {
+        return scopedKey(restrictedTo(), key);
+    }
+
+    /**
+     * Global keys stay unprefixed, so existing evictions of them keep working.
+     */
+    public static String scopedKey(Long userId, String key) {
+        return userId == null ? key : "user:" + userId + ":" + key;
+    }
+
+    /**
+     * The given list keys in the global scope and in the scopes of the given users, the lists a
+     * change to a row owned by or assigned to them can affect.
+     */
+    public static List<String> scopedKeys(Collection<String> keys, Long... userIds) {
+        Set<String> scoped = new LinkedHashSet<>(keys);
+        for (Long userId : userIds) {
+            if (userId != null) {
+                keys.forEach(key -> scoped.add(scopedKey(userId, key)));
+            }
+        }
+        return new ArrayList<>(scoped);
+    }
+
+    /**
+     * Enables or disables the visibility filters on the session of a new transaction.
+     */
+    public void applyFilters(EntityManager entityManager) {
+        Session session = entityManager.unwrap(Session.class);
+        Long userId = restrictedTo();
+        if (userId == null) {
+            session.disableFilter(Task.VISIBILITY_FILTER);
+            session.disableFilter(Offer.VISIBILITY_FILTER);
+            return;
+        }
+        session.enableFilter(Task.VISIBILITY_FILTER).setParameter("userId", userId);
+        session.enableFilter(Offer.VISIBILITY_FILTER).setParameter("userId", userId);
+    }
+}
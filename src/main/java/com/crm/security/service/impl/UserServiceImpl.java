@@ -1,5 +1,6 @@
 package com.crm.security.service.impl;
 
+import com.crm.common.membership.MembershipIndex;
 import com.crm.security.dto.ChangeRoleRequest;
 import com.crm.security.dto.RegisterRequest;
 import com.crm.security.dto.UserRequestDTO;
@@ -11,35 +12,36 @@ import com.crm.security.model.Role;
 import com.crm.security.model.User;
 import com.crm.security.repository.UserRepository;
 import com.crm.security.service.UserService;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 @Transactional
+@Timed(value = "crm.service", histogram = true)
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
     private final UserMapper userMapper;
     private final PasswordEncoder passwordEncoder;
+    private final MembershipIndex membershipIndex;
 
     @Override
     public void registerNewUser(RegisterRequest request) {
         log.info("Registering new user: {}", request.getUsername());
 
-        if (userRepository.existsByUsername(request.getUsername())) {
+        if (isUsernameTaken(request.getUsername())) {
             throw new DuplicateUserException("Nazwa użytkownika jest już zajęta: " + request.getUsername());
         }
-        if (userRepository.existsByEmail(request.getEmail())) {
+        if (isEmailTaken(request.getEmail())) {
             throw new DuplicateUserException("Email jest już zajęty: " + request.getEmail());
         }
 
@@ -48,14 +50,13 @@ public class UserServiceImpl implements UserService {
         user.setEmail(request.getEmail());
         user.setPassword(passwordEncoder.encode(request.getPassword()));
 
-        Set<String> roles = new HashSet<>();
-        roles.add(Role.USER.name());
-        user.setRoles(roles);
+        user.setRolesMask(Role.USER.bit());
 
         user.setEnabled(true);
         user.setAccountNonLocked(true);
 
         userRepository.save(user);
+        registerInIndex(user);
         log.info("User registered successfully: {}", user.getUsername());
     }
 
@@ -74,9 +75,7 @@ public class UserServiceImpl implements UserService {
                 throw new IllegalArgumentException("Nie można zmienić roli na ADMIN przez interfejs");
             }
 
-            Set<String> roles = new HashSet<>();
-            roles.add(newRole.name());
-            user.setRoles(roles);
+            user.setRolesMask(newRole.bit());
 
             userRepository.save(user);
             log.info("Role changed successfully for user {} to {}", id, newRole);
@@ -89,14 +88,15 @@ public class UserServiceImpl implements UserService {
     @Override
     public UserResponseDTO createUser(UserRequestDTO requestDTO) {
         log.info("Creating new user with username: {}", requestDTO.getUsername());
-        if (userRepository.existsByUsername(requestDTO.getUsername())) {
+        if (isUsernameTaken(requestDTO.getUsername())) {
             throw new DuplicateUserException("Username already exists: " + requestDTO.getUsername());
         }
-        if (userRepository.existsByEmail(requestDTO.getEmail())) {
+        if (isEmailTaken(requestDTO.getEmail())) {
             throw new DuplicateUserException("Email already exists: " + requestDTO.getEmail());
         }
         User user = userMapper.toEntity(requestDTO, passwordEncoder);
         User savedUser = userRepository.save(user);
+        registerInIndex(savedUser);
         return userMapper.toDTO(savedUser);
     }
 
@@ -130,16 +130,17 @@ public class UserServiceImpl implements UserService {
                 .orElseThrow(() -> new UserNotFoundException(id));
 
         if (!existingUser.getUsername().equals(requestDTO.getUsername()) &&
-                userRepository.existsByUsername(requestDTO.getUsername())) {
+                isUsernameTaken(requestDTO.getUsername())) {
             throw new DuplicateUserException("Username already exists");
         }
         if (!existingUser.getEmail().equals(requestDTO.getEmail()) &&
-                userRepository.existsByEmail(requestDTO.getEmail())) {
+                isEmailTaken(requestDTO.getEmail())) {
             throw new DuplicateUserException("Email already exists");
         }
 
         userMapper.updateEntity(existingUser, requestDTO, passwordEncoder);
         User updatedUser = userRepository.save(existingUser);
+        registerInIndex(updatedUser);
         return userMapper.toDTO(updatedUser);
     }
 
@@ -176,4 +177,20 @@ public class UserServiceImpl implements UserService {
         user.setAccountNonLocked(true);
         userRepository.save(user);
     }
+
+    /**
+     * Definite negatives from the membership index skip the database lookup.
+     */
+    private boolean isUsernameTaken(String username) {
+        return membershipIndex.mightContainUsername(username) && userRepository.existsByUsername(username);
+    }
+
+    private boolean isEmailTaken(String email) {
+        return membershipIndex.mightContainUserEmail(email) && userRepository.existsByEmail(email);
+    }
+
+    private void registerInIndex(User user) {
+        membershipIndex.addUsername(user.getUsername());
+        membershipIndex.addUserEmail(user.getEmail());
+    }
 }
\ No newline at end of file
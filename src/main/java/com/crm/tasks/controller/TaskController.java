@@ -1,7 +1,14 @@
 package com.crm.tasks.controller;
 
+import com.crm.common.query.ListQuery;
+import com.crm.common.query.PageResponseDTO;
+import com.crm.common.query.SparseQuery;
+import com.crm.common.sync.ChangesResponseDTO;
+import com.crm.tasks.dto.TaskField;
+import com.crm.tasks.dto.TaskQueryField;
 import com.crm.tasks.dto.TaskRequestDTO;
 import com.crm.tasks.dto.TaskResponseDTO;
+import com.crm.tasks.model.Task;
 import com.crm.tasks.model.TaskStatus;
 import com.crm.tasks.service.TaskService;
 import jakarta.validation.Valid;
@@ -24,49 +31,97 @@ public class TaskController {
 
     @PostMapping
     public ResponseEntity<TaskResponseDTO> createTask(@Valid @RequestBody TaskRequestDTO requestDTO) {
-        log.info("POST /api/tasks - Creating new task");
+        log.debug("POST /api/tasks - Creating new task");
         TaskResponseDTO response = taskService.createTask(requestDTO);
         return new ResponseEntity<>(response, HttpStatus.CREATED);
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<TaskResponseDTO> getTaskById(@PathVariable Long id) {
-        log.info("GET /api/tasks/{} - Fetching task", id);
+        log.debug("GET /api/tasks/{} - Fetching task", id);
         TaskResponseDTO response = taskService.getTaskById(id);
         return ResponseEntity.ok(response);
     }
 
     @GetMapping
-    public ResponseEntity<List<TaskResponseDTO>> getAllTasks() {
-        log.info("GET /api/tasks - Fetching all tasks");
+    public ResponseEntity<List<?>> getAllTasks(@RequestParam(required = false) String fields) {
+        log.debug("GET /api/tasks - Fetching all tasks");
+        if (fields != null) {
+            return ResponseEntity.ok(taskService.getAllTasks(parseFields(fields)));
+        }
         List<TaskResponseDTO> response = taskService.getAllTasks();
         return ResponseEntity.ok(response);
     }
 
     @GetMapping("/customer/{customerId}")
-    public ResponseEntity<List<TaskResponseDTO>> getTasksByCustomer(@PathVariable Long customerId) {
-        log.info("GET /api/tasks/customer/{} - Fetching tasks for customer", customerId);
+    public ResponseEntity<List<?>> getTasksByCustomer(
+            @PathVariable Long customerId,
+            @RequestParam(required = false) String fields) {
+        log.debug("GET /api/tasks/customer/{} - Fetching tasks for customer", customerId);
+        if (fields != null) {
+            return ResponseEntity.ok(taskService.getTasksByCustomerId(customerId, parseFields(fields)));
+        }
         List<TaskResponseDTO> response = taskService.getTasksByCustomerId(customerId);
         return ResponseEntity.ok(response);
     }
 
     @GetMapping("/offer/{offerId}")
-    public ResponseEntity<List<TaskResponseDTO>> getTasksByOffer(@PathVariable Long offerId) {
-        log.info("GET /api/tasks/offer/{} - Fetching tasks for offer", offerId);
+    public ResponseEntity<List<?>> getTasksByOffer(
+            @PathVariable Long offerId,
+            @RequestParam(required = false) String fields) {
+        log.debug("GET /api/tasks/offer/{} - Fetching tasks for offer", offerId);
+        if (fields != null) {
+            return ResponseEntity.ok(taskService.getTasksByOfferId(offerId, parseFields(fields)));
+        }
         List<TaskResponseDTO> response = taskService.getTasksByOfferId(offerId);
         return ResponseEntity.ok(response);
     }
 
     @GetMapping("/status/{status}")
-    public ResponseEntity<List<TaskResponseDTO>> getTasksByStatus(@PathVariable TaskStatus status) {
-        log.info("GET /api/tasks/status/{} - Fetching tasks with status", status);
+    public ResponseEntity<List<?>> getTasksByStatus(
+            @PathVariable TaskStatus status,
+            @RequestParam(required = false) String fields) {
+        log.debug("GET /api/tasks/status/{} - Fetching tasks with status", status);
+        if (fields != null) {
+            return ResponseEntity.ok(taskService.getTasksByStatus(status, parseFields(fields)));
+        }
         List<TaskResponseDTO> response = taskService.getTasksByStatus(status);
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * {@code ?filter=status=TODO,IN_PROGRESS;dueDate<2026-11-01T00:00:00&sort=dueDate}, one keyset
+     * page at a time; see {@link ListQuery} for the grammar.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<PageResponseDTO<?>> searchTasks(
+            @RequestParam(required = false) String filter,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam(required = false) String fields) {
+        log.debug("GET /api/tasks/search - Searching tasks");
+        ListQuery<Task> query = ListQuery.parse(filter, sort, after, limit, TaskQueryField.class);
+        if (fields != null) {
+            return ResponseEntity.ok(taskService.searchTasks(query, parseFields(fields)));
+        }
+        return ResponseEntity.ok(taskService.searchTasks(query));
+    }
+
+    @GetMapping("/changes")
+    public ResponseEntity<ChangesResponseDTO<TaskResponseDTO>> getChanges(
+            @RequestParam(required = false) String since,
+            @RequestParam(defaultValue = "500") int limit) {
+        log.debug("GET /api/tasks/changes - Fetching task changes");
+        return ResponseEntity.ok(taskService.getChanges(since, limit));
+    }
+
     @GetMapping("/overdue")
-    public ResponseEntity<List<TaskResponseDTO>> getOverdueTasks() {
-        log.info("GET /api/tasks/overdue - Fetching overdue tasks");
+    public ResponseEntity<List<?>> getOverdueTasks(@RequestParam(required = false) String fields) {
+        log.debug("GET /api/tasks/overdue - Fetching overdue tasks");
+        if (fields != null) {
+            return ResponseEntity.ok(taskService.getOverdueTasks(parseFields(fields)));
+        }
         List<TaskResponseDTO> response = taskService.getOverdueTasks();
         return ResponseEntity.ok(response);
     }
@@ -75,14 +130,14 @@ public class TaskController {
     public ResponseEntity<TaskResponseDTO> updateTask(
             @PathVariable Long id,
             @Valid @RequestBody TaskRequestDTO requestDTO) {
-        log.info("PUT /api/tasks/{} - Updating task", id);
+        log.debug("PUT /api/tasks/{} - Updating task", id);
         TaskResponseDTO response = taskService.updateTask(id, requestDTO);
         return ResponseEntity.ok(response);
     }
 
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteTask(@PathVariable Long id) {
-        log.info("DELETE /api/tasks/{} - Deleting task", id);
+        log.debug("DELETE /api/tasks/{} - Deleting task", id);
         taskService.deleteTask(id);
         return ResponseEntity.noContent().build();
     }
@@ -92,11 +147,19 @@ public class TaskController {
             @PathVariable Long id,
             @RequestBody Map<String, String> statusUpdate) {
 
-        log.info("PATCH /api/tasks/{}/status - Updating status", id);
+        log.debug("PATCH /api/tasks/{}/status - Updating status", id);
 
         String newStatus = statusUpdate.get("status");
         TaskResponseDTO response = taskService.updateTaskStatus(id, TaskStatus.valueOf(newStatus));
 
         return ResponseEntity.ok(response);
     }
-}
\ No newline at end of file
+
+    /**
+     * {@code ?fields=id,title,status} narrows a list to those fields, selected without the
+     * columns and joins the others need.
+     */
+    private static List<TaskField> parseFields(String fields) {
+        return SparseQuery.parse(fields, TaskField.class);
+    }
+}
@@ -0,0 +1,87 @@
+package com.crm.tasks.dto;
+
+import com.crm.common.query.SparseField;
+import com.crm.common.query.SparseSelect;
+import com.crm.customers.model.Customer;
+import com.crm.offers.model.Offer;
+import com.crm.tasks.model.Task;
+import com.crm.tasks.model.TaskStatus;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+
+/**
+ * Fields of {@link TaskResponseDTO} that list endpoints can be narrowed to with {@code ?fields=}.
+ * Only customerName joins the customer and only offerTitle the offer; both ids are read from
+ * the task's foreign keys.
+ */
+public enum TaskField implements SparseField<Task> {
+
+    ID("id"),
+    TITLE("title"),
+    DESCRIPTION("description"),
+    DUE_DATE("dueDate"),
+    STATUS("status"),
+    PRIORITY("priority"),
+    CUSTOMER_ID("customerId") {
+        @Override
+        public Expression<?> select(SparseSelect<Task> select) {
+            return select.root().get("customer").get("id");
+        }
+    },
+    CUSTOMER_NAME("customerName") {
+        @Override
+        public Expression<?> select(SparseSelect<Task> select) {
+            Join<Task, Customer> customer = select.join("customer", JoinType.INNER);
+            CriteriaBuilder cb = select.builder();
+            return cb.concat(cb.concat(customer.get("firstName"), " "), customer.get("lastName"));
+        }
+    },
+    OFFER_ID("offerId") {
+        @Override
+        public Expression<?> select(SparseSelect<Task> select) {
+            return select.root().get("offer").get("id");
+        }
+    },
+    OFFER_TITLE("offerTitle") {
+        @Override
+        public Expression<?> select(SparseSelect<Task> select) {
+            Join<Task, Offer> offer = select.join("offer", JoinType.LEFT);
+            return offer.get("title");
+        }
+    },
+    ASSIGNEE_ID("assigneeId"),
+    CREATED_AT("createdAt"),
+    UPDATED_AT("updatedAt"),
+    OVERDUE("overdue") {
+        @Override
+        public Expression<?> select(SparseSelect<Task> select) {
+            CriteriaBuilder cb = select.builder();
+            return cb.<Boolean>selectCase()
+                    .when(cb.and(
+                            cb.lessThan(select.root().get("dueDate"), select.now()),
+                            cb.notEqual(select.root().get("status"), TaskStatus.DONE)), true)
+                    .otherwise(false);
+        }
+    };
+
+    private final String fieldName;
+
+    TaskField(String fieldName) {
+        this.fieldName = fieldName;
+    }
+
+    @Override
+    public String fieldName() {
+        return fieldName;
+    }
+
+    /**
+     * The task column of the same name.
+     */
+    @Override
+    public Expression<?> select(SparseSelect<Task> select) {
+        return select.root().get(fieldName);
+    }
+}
@@ -0,0 +1,68 @@
+package com.crm.tasks.dto;
+
+import com.crm.common.query.QueryField;
+import com.crm.tasks.model.Task;
+import com.crm.tasks.model.TaskPriority;
+import com.crm.tasks.model.TaskStatus;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Root;
+
+import java.time.LocalDateTime;
+
+/**
+ * Fields task searches can filter on, and the ones they can be sorted by with the index serving
+ * that order.
+ */
+public enum TaskQueryField implements QueryField<Task> {
+
+    ID("id", Long.class, true, "PRIMARY"),
+    STATUS("status", TaskStatus.class, false, null),
+    PRIORITY("priority", TaskPriority.class, false, null),
+    DUE_DATE("dueDate", LocalDateTime.class, true, "idx_tasks_due_date_id"),
+    UPDATED_AT("updatedAt", LocalDateTime.class, true, "idx_tasks_updated_at"),
+    CUSTOMER_ID("customerId", Long.class, false, null) {
+        @Override
+        public Expression<?> path(Root<Task> root) {
+            return root.get("customer").get("id");
+        }
+    },
+    OFFER_ID("offerId", Long.class, false, null) {
+        @Override
+        public Expression<?> path(Root<Task> root) {
+            return root.get("offer").get("id");
+        }
+    },
+    ASSIGNEE_ID("assigneeId", Long.class, false, null);
+
+    private final String fieldName;
+    private final Class<?> type;
+    private final boolean ranged;
+    private final String sortIndex;
+
+    TaskQueryField(String fieldName, Class<?> type, boolean ranged, String sortIndex) {
+        this.fieldName = fieldName;
+        this.type = type;
+        this.ranged = ranged;
+        this.sortIndex = sortIndex;
+    }
+
+    @Override
+    public String fieldName() {
+        return fieldName;
+    }
+
+    @Override
+    public Class<?> type() {
+        return type;
+    }
+
+    @Override
+    public boolean ranged() {
+        return ranged;
+    }
+
+    @Override
+    public String sortIndex() {
+        return sortIndex;
+    }
+}
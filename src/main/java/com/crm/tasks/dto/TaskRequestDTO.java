@@ -34,4 +34,6 @@ public class TaskRequestDTO {
     private Long customerId;
 
     private Long offerId; // Optional
+
+    private Long assigneeId; // Optional
 }
\ No newline at end of file
@@ -2,6 +2,7 @@ package com.crm.tasks.dto;
 
 import com.crm.tasks.model.TaskPriority;
 import com.crm.tasks.model.TaskStatus;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -9,6 +10,8 @@ import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
 
+// overdue is derived: written for clients, ignored when reading cached values back
+@JsonIgnoreProperties(value = "overdue", allowGetters = true)
 @Data
 @Builder
 @NoArgsConstructor
@@ -29,6 +32,8 @@ public class TaskResponseDTO {
     private Long offerId;
     private String offerTitle;
 
+    private Long assigneeId;
+
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 
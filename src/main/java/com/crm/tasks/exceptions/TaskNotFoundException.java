@@ -1,11 +1,10 @@
 package com.crm.tasks.exceptions;
 
-public class TaskNotFoundException extends RuntimeException {
-    public TaskNotFoundException(String message) {
-        super(message);
-    }
+import com.crm.customers.exceptions.EntityNotFoundException;
+
+public class TaskNotFoundException extends EntityNotFoundException {
 
     public TaskNotFoundException(Long id) {
-        super("Task not found with id: " + id);
+        super("Task", id);
     }
-}
\ No newline at end of file
+}
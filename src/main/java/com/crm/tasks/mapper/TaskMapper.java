@@ -19,6 +19,7 @@ public class TaskMapper {
         task.setPriority(dto.getPriority());
         task.setCustomer(customer);
         task.setOffer(offer);
+        task.setAssigneeId(dto.getAssigneeId());
         return task;
     }
 
@@ -34,6 +35,7 @@ public class TaskMapper {
                 .customerName(task.getCustomer().getFirstName() + " " + task.getCustomer().getLastName())
                 .offerId(task.getOffer() != null ? task.getOffer().getId() : null)
                 .offerTitle(task.getOffer() != null ? task.getOffer().getTitle() : null)
+                .assigneeId(task.getAssigneeId())
                 .createdAt(task.getCreatedAt())
                 .updatedAt(task.getUpdatedAt())
                 .build();
@@ -47,5 +49,6 @@ public class TaskMapper {
         task.setPriority(dto.getPriority());
         task.setCustomer(customer);
         task.setOffer(offer);
+        task.setAssigneeId(dto.getAssigneeId());
     }
 }
\ No newline at end of file
@@ -10,17 +10,28 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.Filter;
+import org.hibernate.annotations.FilterDef;
+import org.hibernate.annotations.ParamDef;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "tasks")
+@FilterDef(name = Task.VISIBILITY_FILTER, defaultCondition = "assignee_id = :userId",
+        parameters = @ParamDef(name = "userId", type = Long.class))
+@Filter(name = Task.VISIBILITY_FILTER)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Task {
 
+    /**
+     * Limits queries to tasks assigned to a user; enabled per transaction by RowVisibility.
+     */
+    public static final String VISIBILITY_FILTER = "taskAssignee";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -57,6 +68,12 @@ public class Task {
     @JoinColumn(name = "offer_id")
     private Offer offer;
 
+    /**
+     * User the task is assigned to; unassigned tasks are only visible to managers and admins.
+     */
+    @Column(name = "assignee_id")
+    private Long assigneeId;
+
     @CreationTimestamp
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -1,26 +1,89 @@
 package com.crm.tasks.repository;
 
+import com.crm.customers.model.Customer;
 import com.crm.tasks.model.Task;
 import com.crm.tasks.model.TaskStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface TaskRepository extends JpaRepository<Task, Long> {
 
-    List<Task> findByCustomerId(Long customerId);
+    /**
+     * All tasks with customer and offer in the same query. The DTOs embed both, so this and the
+     * list loaders below fetch them instead of loading them lazily per task.
+     */
+    @Override
+    @Query("SELECT t FROM Task t JOIN FETCH t.customer LEFT JOIN FETCH t.offer")
+    List<Task> findAll();
 
-    List<Task> findByOfferId(Long offerId);
+    @Query("SELECT t FROM Task t JOIN FETCH t.customer LEFT JOIN FETCH t.offer WHERE t.customer.id = :customerId")
+    List<Task> findByCustomerId(@Param("customerId") Long customerId);
 
-    List<Task> findByStatus(TaskStatus status);
+    @Query("SELECT t FROM Task t JOIN FETCH t.customer LEFT JOIN FETCH t.offer WHERE t.offer.id = :offerId")
+    List<Task> findByOfferId(@Param("offerId") Long offerId);
 
-    @Query("SELECT t FROM Task t WHERE t.dueDate < :now AND t.status != 'DONE'")
+    @Query("SELECT t FROM Task t JOIN FETCH t.customer LEFT JOIN FETCH t.offer WHERE t.status = :status")
+    List<Task> findByStatus(@Param("status") TaskStatus status);
+
+    @Query("SELECT t FROM Task t JOIN FETCH t.customer LEFT JOIN FETCH t.offer " +
+            "WHERE t.dueDate < :now AND t.status != 'DONE'")
     List<Task> findOverdueTasks(@Param("now") LocalDateTime now);
 
     List<Task> findByCustomerIdAndStatus(Long customerId, TaskStatus status);
+
+    /**
+     * Tasks by id with customer and offer in the same query, for hydrating cached id lists.
+     */
+    @Query("SELECT t FROM Task t JOIN FETCH t.customer LEFT JOIN FETCH t.offer WHERE t.id IN :ids")
+    List<Task> findWithRelationsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Keyset page of tasks changed after the (updatedAt, id) position, served by idx_tasks_updated_at.
+     */
+    @Query("SELECT t FROM Task t JOIN FETCH t.customer LEFT JOIN FETCH t.offer " +
+            "WHERE (t.updatedAt > :afterTime OR (t.updatedAt = :afterTime AND t.id > :afterId)) " +
+            "AND t.updatedAt < :until ORDER BY t.updatedAt, t.id")
+    List<Task> findChangedAfter(@Param("afterTime") LocalDateTime afterTime,
+                                @Param("afterId") Long afterId,
+                                @Param("until") LocalDateTime until,
+                                Pageable pageable);
+
+    /**
+     * Unlinks tasks from an offer before it is deleted. The FK would do the same with
+     * ON DELETE SET NULL, but without touching updated_at, so sync clients would miss it.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Task t SET t.offer = null, t.updatedAt = :now WHERE t.offer.id = :offerId")
+    int detachOffer(@Param("offerId") Long offerId, @Param("now") LocalDateTime now);
+
+    @Query("SELECT t.id FROM Task t WHERE t.customer.id = :customerId")
+    List<Long> findIdsByCustomerId(@Param("customerId") Long customerId);
+
+    @Query("SELECT t.id FROM Task t WHERE t.offer.id = :offerId")
+    List<Long> findIdsByOfferId(@Param("offerId") Long offerId);
+
+    /**
+     * Marks all tasks of a customer as changed, since they embed its name.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Task t SET t.updatedAt = :now WHERE t.customer.id = :customerId")
+    int touchByCustomerId(@Param("customerId") Long customerId, @Param("now") LocalDateTime now);
+
+    /**
+     * Moves all tasks of one customer to another in a single set-based UPDATE.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Task t SET t.customer = :target, t.updatedAt = :now WHERE t.customer.id = :sourceId")
+    int reassignCustomer(@Param("sourceId") Long sourceId,
+                         @Param("target") Customer target,
+                         @Param("now") LocalDateTime now);
 }
\ No newline at end of file
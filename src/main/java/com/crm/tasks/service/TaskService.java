@@ -1,10 +1,16 @@
 package com.crm.tasks.service;
 
+import com.crm.common.query.ListQuery;
+import com.crm.common.query.PageResponseDTO;
+import com.crm.common.sync.ChangesResponseDTO;
+import com.crm.tasks.dto.TaskField;
 import com.crm.tasks.dto.TaskRequestDTO;
 import com.crm.tasks.dto.TaskResponseDTO;
+import com.crm.tasks.model.Task;
 import com.crm.tasks.model.TaskStatus;
 
 import java.util.List;
+import java.util.Map;
 
 public interface TaskService {
 
@@ -22,9 +28,25 @@ public interface TaskService {
 
     List<TaskResponseDTO> getOverdueTasks();
 
+    List<Map<String, Object>> getAllTasks(List<TaskField> fields);
+
+    List<Map<String, Object>> getTasksByCustomerId(Long customerId, List<TaskField> fields);
+
+    List<Map<String, Object>> getTasksByOfferId(Long offerId, List<TaskField> fields);
+
+    List<Map<String, Object>> getTasksByStatus(TaskStatus status, List<TaskField> fields);
+
+    List<Map<String, Object>> getOverdueTasks(List<TaskField> fields);
+
+    PageResponseDTO<TaskResponseDTO> searchTasks(ListQuery<Task> query);
+
+    PageResponseDTO<Map<String, Object>> searchTasks(ListQuery<Task> query, List<TaskField> fields);
+
     TaskResponseDTO updateTask(Long id, TaskRequestDTO requestDTO);
 
     TaskResponseDTO updateTaskStatus(Long id, TaskStatus status);
 
     void deleteTask(Long id);
-}
\ No newline at end of file
+
+    ChangesResponseDTO<TaskResponseDTO> getChanges(String since, int limit);
+}
@@ -1,11 +1,23 @@
 package com.crm.tasks.service.impl;
 
+import com.crm.common.cache.IdListCache;
+import com.crm.common.outbox.OutboxEventType;
+import com.crm.common.query.ListQuery;
+import com.crm.common.query.PageResponseDTO;
+import com.crm.common.query.SparseQuery;
+import com.crm.common.outbox.OutboxPublisher;
+import com.crm.common.sync.ChangeFeed;
+import com.crm.common.sync.ChangesResponseDTO;
+import com.crm.common.sync.SyncResource;
 import com.crm.customers.exceptions.CustomerNotFoundException;
 import com.crm.customers.model.Customer;
 import com.crm.customers.repository.CustomerRepository;
 import com.crm.offers.exceptions.OfferNotFoundException;
 import com.crm.offers.model.Offer;
 import com.crm.offers.repository.OfferRepository;
+import com.crm.security.repository.UserRepository;
+import com.crm.security.service.RowVisibility;
+import com.crm.tasks.dto.TaskField;
 import com.crm.tasks.dto.TaskRequestDTO;
 import com.crm.tasks.dto.TaskResponseDTO;
 import com.crm.tasks.exceptions.TaskNotFoundException;
@@ -14,29 +26,48 @@ import com.crm.tasks.model.Task;
 import com.crm.tasks.model.TaskStatus;
 import com.crm.tasks.repository.TaskRepository;
 import com.crm.tasks.service.TaskService;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.criteria.JoinType;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.access.prepost.PostAuthorize;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 @Transactional
+@Timed(value = "crm.service", histogram = true)
 public class TaskServiceImpl implements TaskService {
 
     private final TaskRepository taskRepository;
     private final CustomerRepository customerRepository;
     private final OfferRepository offerRepository;
     private final TaskMapper taskMapper;
+    private final OutboxPublisher outboxPublisher;
+    private final ChangeFeed changeFeed;
+    private final IdListCache idListCache;
+    private final SparseQuery sparseQuery;
+    private final UserRepository userRepository;
+    private final RowVisibility rowVisibility;
 
     @Override
-    @CacheEvict(value = "tasks", allEntries = true)
+    @Caching(evict = {
+            @CacheEvict(value = "tasks", key = "#result.id"),
+            @CacheEvict(value = "task-responses", allEntries = true)
+    })
     public TaskResponseDTO createTask(TaskRequestDTO requestDTO) {
         log.info("Creating new task with title: {}", requestDTO.getTitle());
 
@@ -63,18 +94,27 @@ public class TaskServiceImpl implements TaskService {
             throw new IllegalArgumentException("Due date must be in the future");
         }
 
+        validateAssignee(requestDTO.getAssigneeId());
+
         Task task = taskMapper.toEntity(requestDTO, customer, offer);
         Task savedTask = taskRepository.save(task);
 
+        Set<String> lists = listKeys(savedTask);
+        lists.add("all");
+        idListCache.evict("task-ids", RowVisibility.scopedKeys(lists, savedTask.getAssigneeId()));
+
         log.info("Task created successfully with id: {}", savedTask.getId());
-        return taskMapper.toDTO(savedTask);
+        TaskResponseDTO responseDTO = taskMapper.toDTO(savedTask);
+        outboxPublisher.record(OutboxPublisher.TASK, savedTask.getId(), OutboxEventType.CREATED, responseDTO);
+        return responseDTO;
     }
 
     @Override
     @Transactional(readOnly = true)
-    @Cacheable(value = "tasks", key = "#id")
+    @Cacheable(value = "tasks", key = "#id", sync = true)
+    @PostAuthorize("@rowVisibility.canSee(returnObject.assigneeId)")
     public TaskResponseDTO getTaskById(Long id) {
-        log.info("Fetching task {} FROM DATABASE (not cached)", id);
+        log.debug("Fetching task {} FROM DATABASE (not cached)", id);
 
         Task task = taskRepository.findById(id)
                 .orElseThrow(() -> new TaskNotFoundException(id));
@@ -84,71 +124,122 @@ public class TaskServiceImpl implements TaskService {
 
     @Override
     @Transactional(readOnly = true)
-    @Cacheable(value = "tasks", key = "'all'")
     public List<TaskResponseDTO> getAllTasks() {
-        log.info("Fetching all tasks FROM DATABASE (not cached)");
-
-        return taskRepository.findAll().stream()
-                .map(taskMapper::toDTO)
-                .collect(Collectors.toList());
+        return cachedList("all", () -> {
+            log.debug("Fetching all tasks FROM DATABASE (not cached)");
+            return taskRepository.findAll();
+        });
     }
 
     @Override
     @Transactional(readOnly = true)
-    @Cacheable(value = "tasks", key = "#customerId")
     public List<TaskResponseDTO> getTasksByCustomerId(Long customerId) {
-        log.info("Fetching tasks for customer {} FROM DATABASE (not cached)", customerId);
+        return cachedList("customer:" + customerId, () -> {
+            log.debug("Fetching tasks for customer {} FROM DATABASE (not cached)", customerId);
 
-        // Validate customer exists
-        if (!customerRepository.existsById(customerId)) {
-            throw new CustomerNotFoundException(customerId);
-        }
+            // Validate customer exists
+            if (!customerRepository.existsById(customerId)) {
+                throw new CustomerNotFoundException(customerId);
+            }
 
-        return taskRepository.findByCustomerId(customerId).stream()
-                .map(taskMapper::toDTO)
-                .collect(Collectors.toList());
+            return taskRepository.findByCustomerId(customerId);
+        });
     }
 
     @Override
     @Transactional(readOnly = true)
-    @Cacheable(value = "tasks", key = "#offerId")
     public List<TaskResponseDTO> getTasksByOfferId(Long offerId) {
-        log.info("Fetching tasks for offer {} FROM DATABASE (not cached)", offerId);
+        return cachedList("offer:" + offerId, () -> {
+            log.debug("Fetching tasks for offer {} FROM DATABASE (not cached)", offerId);
+
+            // Validate offer exists
+            if (!offerRepository.existsById(offerId)) {
+                throw new OfferNotFoundException(offerId);
+            }
+
+            return taskRepository.findByOfferId(offerId);
+        });
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<TaskResponseDTO> getTasksByStatus(TaskStatus status) {
+        return cachedList("status:" + status, () -> {
+            log.debug("Fetching tasks with status {} FROM DATABASE (not cached)", status);
+            return taskRepository.findByStatus(status);
+        });
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<TaskResponseDTO> getOverdueTasks() {
+        return cachedList("overdue", () -> {
+            log.debug("Fetching overdue tasks FROM DATABASE (not cached)");
+            return taskRepository.findOverdueTasks(LocalDateTime.now());
+        });
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getAllTasks(List<TaskField> fields) {
+        return sparseQuery.list(Task.class, fields, null);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getTasksByCustomerId(Long customerId, List<TaskField> fields) {
+        if (!customerRepository.existsById(customerId)) {
+            throw new CustomerNotFoundException(customerId);
+        }
+        return sparseQuery.list(Task.class, fields,
+                select -> select.builder().equal(select.root().get("customer").get("id"), customerId));
+    }
 
-        // Validate offer exists
+    @Override
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getTasksByOfferId(Long offerId, List<TaskField> fields) {
         if (!offerRepository.existsById(offerId)) {
             throw new OfferNotFoundException(offerId);
         }
-
-        return taskRepository.findByOfferId(offerId).stream()
-                .map(taskMapper::toDTO)
-                .collect(Collectors.toList());
+        return sparseQuery.list(Task.class, fields,
+                select -> select.builder().equal(select.root().get("offer").get("id"), offerId));
     }
 
     @Override
     @Transactional(readOnly = true)
-    @Cacheable(value = "tasks", key = "#status")
-    public List<TaskResponseDTO> getTasksByStatus(TaskStatus status) {
-        log.info("Fetching tasks with status {} FROM DATABASE (not cached)", status);
+    public List<Map<String, Object>> getTasksByStatus(TaskStatus status, List<TaskField> fields) {
+        return sparseQuery.list(Task.class, fields,
+                select -> select.builder().equal(select.root().get("status"), status));
+    }
 
-        return taskRepository.findByStatus(status).stream()
-                .map(taskMapper::toDTO)
-                .collect(Collectors.toList());
+    @Override
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getOverdueTasks(List<TaskField> fields) {
+        return sparseQuery.list(Task.class, fields, select -> select.builder().and(
+                select.builder().lessThan(select.root().get("dueDate"), select.now()),
+                select.builder().notEqual(select.root().get("status"), TaskStatus.DONE)));
     }
 
     @Override
     @Transactional(readOnly = true)
-    @Cacheable(value = "tasks", key = "'all'")
-    public List<TaskResponseDTO> getOverdueTasks() {
-        log.info("Fetching overdue tasks FROM DATABASE (not cached)");
+    public PageResponseDTO<TaskResponseDTO> searchTasks(ListQuery<Task> query) {
+        return sparseQuery.page(Task.class, query, root -> {
+            root.fetch("customer");
+            root.fetch("offer", JoinType.LEFT);
+        }).map(taskMapper::toDTO);
+    }
 
-        return taskRepository.findOverdueTasks(LocalDateTime.now()).stream()
-                .map(taskMapper::toDTO)
-                .collect(Collectors.toList());
+    @Override
+    @Transactional(readOnly = true)
+    public PageResponseDTO<Map<String, Object>> searchTasks(ListQuery<Task> query, List<TaskField> fields) {
+        return sparseQuery.page(Task.class, fields, query);
     }
 
     @Override
-    @CacheEvict(value = "tasks", allEntries = true)
+    @Caching(evict = {
+            @CacheEvict(value = "tasks", key = "#id"),
+            @CacheEvict(value = "task-responses", allEntries = true)
+    })
     public TaskResponseDTO updateTask(Long id, TaskRequestDTO requestDTO) {
         log.info("Updating task with id: {}", id);
 
@@ -176,17 +267,32 @@ public class TaskServiceImpl implements TaskService {
 
         // Validate status transition
         validateStatusTransition(existingTask.getStatus(), requestDTO.getStatus());
+        validateAssignee(requestDTO.getAssigneeId());
 
         // Update entity
+        Set<String> lists = listKeys(existingTask);
+        Long previousAssigneeId = existingTask.getAssigneeId();
         taskMapper.updateEntity(existingTask, requestDTO, customer, offer);
+        lists.addAll(listKeys(existingTask));
         Task updatedTask = taskRepository.save(existingTask);
+        // Reassigning moves the task between the scoped lists of both users, 'all' included
+        lists.add("all");
+        idListCache.evict("task-ids",
+                RowVisibility.scopedKeys(lists, previousAssigneeId, updatedTask.getAssigneeId()));
+        changeFeed.recordReassignment(SyncResource.TASK, updatedTask.getId(),
+                previousAssigneeId, updatedTask.getAssigneeId());
 
         log.info("Task updated successfully with id: {}", updatedTask.getId());
-        return taskMapper.toDTO(updatedTask);
+        TaskResponseDTO responseDTO = taskMapper.toDTO(updatedTask);
+        outboxPublisher.record(OutboxPublisher.TASK, updatedTask.getId(), OutboxEventType.UPDATED, responseDTO);
+        return responseDTO;
     }
 
     @Override
-    @CacheEvict(value = "tasks", allEntries = true)
+    @Caching(evict = {
+            @CacheEvict(value = "tasks", key = "#id"),
+            @CacheEvict(value = {"task-ids", "task-responses"}, allEntries = true)
+    })
     public void deleteTask(Long id) {
         log.info("Deleting task with id: {}", id);
 
@@ -195,6 +301,8 @@ public class TaskServiceImpl implements TaskService {
         }
 
         taskRepository.deleteById(id);
+        changeFeed.recordDeletion(SyncResource.TASK, id);
+        outboxPublisher.record(OutboxPublisher.TASK, id, OutboxEventType.DELETED, Map.of("id", id));
         log.info("Task deleted successfully with id: {}", id);
     }
 
@@ -211,17 +319,73 @@ public class TaskServiceImpl implements TaskService {
     }
 
     @Override
-    @CacheEvict(value = "tasks", allEntries = true)
+    @Caching(evict = {
+            @CacheEvict(value = "tasks", key = "#id"),
+            @CacheEvict(value = "task-responses", allEntries = true)
+    })
     public TaskResponseDTO updateTaskStatus(Long id, TaskStatus newStatus) {
         log.info("Updating status for task id: {} to {}", id, newStatus);
 
         Task task = taskRepository.findById(id)
                 .orElseThrow(() -> new TaskNotFoundException(id));
+        if (!rowVisibility.canSee(task.getAssigneeId())) {
+            throw new AccessDeniedException("Task " + id + " is not assigned to the current user");
+        }
 
+        Set<String> lists = listKeys(task);
         task.setStatus(newStatus);
+        lists.addAll(listKeys(task));
         Task updatedTask = taskRepository.save(task);
+        idListCache.evict("task-ids", RowVisibility.scopedKeys(lists, updatedTask.getAssigneeId()));
 
-        return taskMapper.toDTO(updatedTask);
+        TaskResponseDTO responseDTO = taskMapper.toDTO(updatedTask);
+        outboxPublisher.record(OutboxPublisher.TASK, id, OutboxEventType.STATUS_CHANGED, responseDTO);
+        return responseDTO;
     }
-}
 
+    private void validateAssignee(Long assigneeId) {
+        if (assigneeId != null && !userRepository.existsById(assigneeId)) {
+            throw new IllegalArgumentException("Assignee not found with id: " + assigneeId);
+        }
+    }
+
+    /**
+     * Task list cached as ids in the caller's visibility scope, hydrated from the per-task entries.
+     */
+    private List<TaskResponseDTO> cachedList(String key, Supplier<List<Task>> query) {
+        return idListCache.getList("task-ids", rowVisibility.scopedKey(key), "tasks",
+                () -> query.get().stream()
+                        .map(taskMapper::toDTO)
+                        .collect(Collectors.toList()),
+                TaskResponseDTO::getId,
+                ids -> taskRepository.findWithRelationsByIdIn(ids).stream()
+                        .map(taskMapper::toDTO)
+                        .collect(Collectors.toList()));
+    }
+
+    /**
+     * Keys of the cached id lists the task belongs to; 'all' only changes on create and delete.
+     * Overdue membership depends on the clock as well, so that list is always included.
+     */
+    private static Set<String> listKeys(Task task) {
+        Set<String> keys = new LinkedHashSet<>();
+        keys.add("customer:" + task.getCustomer().getId());
+        if (task.getOffer() != null) {
+            keys.add("offer:" + task.getOffer().getId());
+        }
+        keys.add("status:" + task.getStatus());
+        keys.add("overdue");
+        return keys;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ChangesResponseDTO<TaskResponseDTO> getChanges(String since, int limit) {
+        return changeFeed.read(SyncResource.TASK, since, limit,
+                (afterTime, afterId, until, page) -> taskRepository.findChangedAfter(
+                        ChangeFeed.toLocalDateTime(afterTime), afterId, ChangeFeed.toLocalDateTime(until), page),
+                task -> ChangeFeed.toInstant(task.getUpdatedAt()),
+                Task::getId,
+                taskMapper::toDTO);
+    }
+}
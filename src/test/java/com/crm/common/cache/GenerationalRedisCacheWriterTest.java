@@ -0,0 +1,251 @@
+package com.crm.common.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisScriptingCommands;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.core.types.Expiration;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GenerationalRedisCacheWriterTest {
+
+    @Mock
+    private RedisCacheWriter delegate;
+
+    @Mock
+    private StringRedisTemplate redis;
+
+    @Mock
+    private ValueOperations<String, String> values;
+
+    private GenerationalRedisCacheWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(redis.opsForValue()).thenReturn(values);
+        writer = new GenerationalRedisCacheWriter(delegate, redis, Duration.ofMinutes(20));
+    }
+
+    @Test
+    @DisplayName("Should read and write keys of the current generation and key version")
+    void shouldStampKeysWithGenerationAndVersion() {
+        // Given
+        when(values.multiGet(List.of("gen:customers", "ver:customers::all"))).thenReturn(Arrays.asList("3", "7"));
+        byte[] value = "v".getBytes(StandardCharsets.UTF_8);
+
+        // When
+        writer.put("customers", bytes("customers::all"), value, Duration.ofMinutes(10));
+        writer.get("customers", bytes("customers::all"));
+
+        // Then
+        verify(delegate).put("customers", bytes("customers::3.7::all"), value, Duration.ofMinutes(10));
+        verify(delegate).get("customers", bytes("customers::3.7::all"));
+    }
+
+    @Test
+    @DisplayName("Should drop a put loaded before the region was cleared")
+    void shouldDropStalePut() {
+        // Given
+        when(values.multiGet(anyList())).thenReturn(Arrays.asList("3", null), Arrays.asList("4", null));
+        byte[] value = "old row".getBytes(StandardCharsets.UTF_8);
+
+        // When
+        assertNull(writer.get("customers", bytes("customers::1")));
+        writer.put("customers", bytes("customers::1"), value, Duration.ofMinutes(10));
+
+        // Then
+        verify(delegate, never()).put(any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should drop a put loaded before the key was evicted")
+    void shouldDropPutAfterKeyEviction() {
+        // Given
+        when(values.multiGet(anyList())).thenReturn(Arrays.asList("3", null), Arrays.asList("3", "12"));
+        byte[] value = "old row".getBytes(StandardCharsets.UTF_8);
+
+        // When
+        assertNull(writer.get("tasks", bytes("tasks::5")));
+        writer.put("tasks", bytes("tasks::5"), value, Duration.ofMinutes(10));
+
+        // Then
+        verify(delegate, never()).put(any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should write a value loaded after a miss under the stamp of the miss")
+    void shouldWriteFreshPut() {
+        // Given
+        when(values.multiGet(anyList())).thenReturn(Arrays.asList("3", null));
+        byte[] value = "row".getBytes(StandardCharsets.UTF_8);
+
+        // When
+        writer.get("customers", bytes("customers::1"));
+        writer.put("customers", bytes("customers::1"), value, Duration.ofMinutes(10));
+
+        // Then
+        verify(delegate).put("customers", bytes("customers::3.0::1"), value, Duration.ofMinutes(10));
+    }
+
+    @Test
+    @DisplayName("Should drop an early refresh of a cached entry evicted while it was reloaded")
+    void shouldDropRefreshAfterKeyEviction() {
+        // Given
+        when(values.multiGet(anyList())).thenReturn(Arrays.asList("3", null), Arrays.asList("3", "12"));
+        when(delegate.get("tasks", bytes("tasks::3.0::5"))).thenReturn(bytes("cached row"));
+        byte[] value = "old row".getBytes(StandardCharsets.UTF_8);
+
+        // When
+        assertArrayEquals(bytes("cached row"), writer.get("tasks", bytes("tasks::5")));
+        writer.remove("tasks", bytes("tasks::5"));
+        writer.put("tasks", bytes("tasks::5"), value, Duration.ofMinutes(10));
+
+        // Then
+        verify(redis).execute(any(RedisScript.class), eq(List.of("seq:tasks", "ver:tasks::5")), eq("1200000"));
+        verify(delegate, never()).put(any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should write an early refresh of a cached entry under the stamp of the hit")
+    void shouldWriteRefreshOfUnchangedKey() {
+        // Given
+        when(values.multiGet(anyList())).thenReturn(Arrays.asList("3", "12"));
+        when(delegate.get("tasks", bytes("tasks::3.12::5"))).thenReturn(bytes("cached row"));
+        byte[] value = "row".getBytes(StandardCharsets.UTF_8);
+
+        // When
+        writer.get("tasks", bytes("tasks::5"));
+        writer.put("tasks", bytes("tasks::5"), value, Duration.ofMinutes(10));
+
+        // Then
+        verify(delegate).put("tasks", bytes("tasks::3.12::5"), value, Duration.ofMinutes(10));
+    }
+
+    @Test
+    @DisplayName("Should start at generation and version 0 for regions and keys never invalidated")
+    void shouldDefaultToGenerationZero() {
+        // Given
+        when(values.multiGet(anyList())).thenReturn(Arrays.asList(null, null));
+
+        // When
+        writer.get("tasks", bytes("tasks::overdue"));
+
+        // Then
+        verify(delegate).get("tasks", bytes("tasks::0.0::overdue"));
+        assertEquals(0, writer.generation("tasks"));
+    }
+
+    @Test
+    @DisplayName("Should evict a key by moving it to a fresh version from the region sequence")
+    void shouldBumpVersionOnEvict() {
+        // When
+        writer.remove("tasks", bytes("tasks::5"));
+
+        // Then
+        verify(redis).execute(any(RedisScript.class), eq(List.of("seq:tasks", "ver:tasks::5")), eq("1200000"));
+        verify(delegate, never()).remove(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should evict a batch of keys with one pipeline of version bumps")
+    @SuppressWarnings("unchecked")
+    void shouldBatchEvictInOnePipeline() {
+        // Given
+        RedisConnection connection = mock(RedisConnection.class);
+        RedisScriptingCommands scripting = mock(RedisScriptingCommands.class);
+        when(connection.scriptingCommands()).thenReturn(scripting);
+
+        // When
+        writer.removeAll("tasks", List.of(bytes("tasks::5"), bytes("tasks::6")));
+
+        // Then
+        ArgumentCaptor<RedisCallback<Object>> pipeline = ArgumentCaptor.forClass(RedisCallback.class);
+        verify(redis).executePipelined(pipeline.capture());
+        pipeline.getValue().doInRedis(connection);
+        verify(scripting).eval(any(byte[].class), eq(ReturnType.INTEGER), eq(2),
+                eq(bytes("seq:tasks")), eq(bytes("ver:tasks::5")), eq(bytes("1200000")));
+        verify(scripting).eval(any(byte[].class), eq(ReturnType.INTEGER), eq(2),
+                eq(bytes("seq:tasks")), eq(bytes("ver:tasks::6")), eq(bytes("1200000")));
+        verify(redis, never()).execute(any(RedisScript.class), anyList(), any());
+    }
+
+    @Test
+    @DisplayName("Should clear a whole region by bumping its generation instead of scanning")
+    void shouldBumpGenerationOnClear() {
+        // When
+        writer.clean("offers", bytes("offers::*"));
+
+        // Then
+        verify(values).increment("gen:offers");
+        verify(delegate, never()).clean(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should scan only the current generation for narrower patterns")
+    void shouldStampNarrowerPatterns() {
+        // Given
+        when(values.get("gen:tasks")).thenReturn("5");
+
+        // When
+        writer.clean("tasks", bytes("tasks::customer:*"));
+
+        // Then
+        verify(delegate).clean(eq("tasks"), eq(bytes("tasks::5.*::customer:*")));
+        verify(values, never()).increment(any());
+    }
+
+    @Test
+    @DisplayName("Should read a batch with one MGET and write back only the keys it missed")
+    @SuppressWarnings("unchecked")
+    void shouldBatchReadAndWriteMissedKeys() {
+        // Given
+        when(values.multiGet(List.of("gen:tasks", "ver:tasks::1", "ver:tasks::2")))
+                .thenReturn(Arrays.asList("2", null, "4"));
+        when(redis.execute(any(RedisCallback.class))).thenReturn(Arrays.asList(null, bytes("cached")));
+        RedisConnection connection = mock(RedisConnection.class);
+        RedisStringCommands commands = mock(RedisStringCommands.class);
+        when(connection.stringCommands()).thenReturn(commands);
+
+        // When
+        List<byte[]> read = writer.getAll("tasks", List.of(bytes("tasks::1"), bytes("tasks::2")));
+        writer.putAll("tasks", List.of(bytes("tasks::1"), bytes("tasks::2")),
+                List.of(bytes("one"), bytes("two")), Duration.ofMinutes(10));
+
+        // Then
+        assertNull(read.get(0));
+        assertArrayEquals(bytes("cached"), read.get(1));
+        ArgumentCaptor<RedisCallback<Object>> pipeline = ArgumentCaptor.forClass(RedisCallback.class);
+        verify(redis).executePipelined(pipeline.capture());
+        pipeline.getValue().doInRedis(connection);
+        verify(commands).set(eq(bytes("tasks::2.0::1")), eq(bytes("one")), any(Expiration.class),
+                eq(RedisStringCommands.SetOption.upsert()));
+        verifyNoMoreInteractions(commands);
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
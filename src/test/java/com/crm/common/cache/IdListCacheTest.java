@@ -0,0 +1,99 @@
+package com.crm.common.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdListCacheTest {
+
+    private record Row(Long id, String name) {
+    }
+
+    private ConcurrentMapCacheManager cacheManager;
+    private IdListCache idListCache;
+
+    private final AtomicInteger queries = new AtomicInteger();
+    private final List<Collection<Long>> loadedIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        cacheManager = new ConcurrentMapCacheManager();
+        idListCache = new IdListCache(cacheManager);
+    }
+
+    @Test
+    @DisplayName("Should cache a list as ids and return the rows of the query on a miss")
+    void shouldCacheIdsOnMiss() {
+        // When
+        List<Row> result = list(List.of(new Row(3L, "c"), new Row(1L, "a")));
+
+        // Then
+        assertEquals(List.of(new Row(3L, "c"), new Row(1L, "a")), result);
+        assertEquals(List.of(3L, 1L), cacheManager.getCache("row-ids").get("all").get());
+        assertNull(cacheManager.getCache("rows").get(3L));
+    }
+
+    @Test
+    @DisplayName("Should hydrate a cached list in order, loading only rows missing from the entity region")
+    void shouldHydrateFromEntityRegion() {
+        // Given
+        cacheManager.getCache("row-ids").put("all", List.of(3L, 1L, 2L));
+        cacheManager.getCache("rows").put(1L, new Row(1L, "cached"));
+
+        // When
+        List<Row> result = list(List.of());
+
+        // Then
+        assertEquals(List.of(new Row(3L, "loaded"), new Row(1L, "cached"), new Row(2L, "loaded")), result);
+        assertEquals(0, queries.get());
+        assertEquals(List.of(List.of(3L, 2L)), loadedIds);
+        assertEquals(new Row(2L, "loaded"), cacheManager.getCache("rows").get(2L).get());
+    }
+
+    @Test
+    @DisplayName("Should leave out rows deleted since the list was cached")
+    void shouldSkipDeletedRows() {
+        // Given
+        cacheManager.getCache("row-ids").put("all", List.of(1, 99));
+
+        // When
+        List<Row> result = idListCache.getList("row-ids", "all", "rows", List::of, Row::id,
+                ids -> ids.contains(1L) ? List.of(new Row(1L, "a")) : List.of());
+
+        // Then
+        assertEquals(List.of(new Row(1L, "a")), result);
+    }
+
+    @Test
+    @DisplayName("Should propagate the query's own exception, not the cache's wrapper")
+    void shouldUnwrapQueryException() {
+        // When & Then
+        assertThrows(IllegalStateException.class, () -> idListCache.getList("row-ids", "all", "rows",
+                () -> {
+                    throw new IllegalStateException("not found");
+                },
+                Row::id, ids -> List.of()));
+        assertNull(cacheManager.getCache("row-ids").get("all"));
+    }
+
+    private List<Row> list(List<Row> queryResult) {
+        return idListCache.getList("row-ids", "all", "rows",
+                () -> {
+                    queries.incrementAndGet();
+                    return queryResult;
+                },
+                Row::id,
+                ids -> {
+                    loadedIds.add(List.copyOf(ids));
+                    return ids.stream().map(id -> new Row(id, "loaded")).toList();
+                });
+    }
+}
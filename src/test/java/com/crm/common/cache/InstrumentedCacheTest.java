@@ -0,0 +1,81 @@
+package com.crm.common.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InstrumentedCacheTest {
+
+    private SimpleMeterRegistry registry;
+
+    private Cache cache;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        cache = new InstrumentedCacheManager(new ConcurrentMapCacheManager("customers"), registry).getCache("customers");
+    }
+
+    @Test
+    @DisplayName("Should count misses and hits and time the load between miss and put")
+    void shouldRecordHitsMissesAndLoadTime() {
+        // When
+        assertNull(cache.get(1L));
+        cache.put(1L, "customer");
+        assertNotNull(cache.get(1L));
+        assertNotNull(cache.get(1L));
+
+        // Then
+        assertEquals(1.0, counter("crm.cache.gets", "result", "miss"));
+        assertEquals(2.0, counter("crm.cache.gets", "result", "hit"));
+        assertEquals(1.0, registry.get("crm.cache.puts").tag("cache", "customers").counter().count());
+        assertEquals(1L, registry.get("crm.cache.load").tag("cache", "customers").timer().count());
+    }
+
+    @Test
+    @DisplayName("Should not record a load when the put is for a different key")
+    void shouldIgnorePutForOtherKey() {
+        // When
+        assertNull(cache.get(1L));
+        cache.put(2L, "customer");
+
+        // Then
+        assertEquals(0L, registry.get("crm.cache.load").tag("cache", "customers").timer().count());
+    }
+
+    @Test
+    @DisplayName("Should time value loaders and count them as misses")
+    void shouldTimeValueLoader() {
+        // When
+        assertEquals("loaded", cache.get(1L, () -> "loaded"));
+        assertEquals("loaded", cache.get(1L, () -> "reloaded"));
+
+        // Then
+        assertEquals(1.0, counter("crm.cache.gets", "result", "miss"));
+        assertEquals(1.0, counter("crm.cache.gets", "result", "hit"));
+        assertEquals(1L, registry.get("crm.cache.load").tag("cache", "customers").timer().count());
+    }
+
+    @Test
+    @DisplayName("Should count key evictions and clears separately")
+    void shouldCountEvictions() {
+        // When
+        cache.put(1L, "customer");
+        cache.evict(1L);
+        cache.clear();
+
+        // Then
+        assertEquals(1.0, counter("crm.cache.evictions", "scope", "key"));
+        assertEquals(1.0, counter("crm.cache.evictions", "scope", "all"));
+        assertNull(cache.get(1L));
+    }
+
+    private double counter(String name, String tag, String value) {
+        return registry.get(name).tag("cache", "customers").tag(tag, value).counter().count();
+    }
+}
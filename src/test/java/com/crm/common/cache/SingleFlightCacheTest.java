@@ -0,0 +1,218 @@
+package com.crm.common.cache;
+
+import com.crm.customers.exceptions.CustomerNotFoundException;
+import com.crm.customers.exceptions.EntityNotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.cache.interceptor.CacheErrorHandler;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class SingleFlightCacheTest {
+
+    private static final Duration TTL = Duration.ofMinutes(10);
+
+    private final AtomicLong clock = new AtomicLong(1_000_000);
+
+    private SimpleMeterRegistry registry;
+    private ConcurrentMapCache target;
+    private CacheErrorHandler errorHandler;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        target = new ConcurrentMapCache("customers");
+        errorHandler = mock(CacheErrorHandler.class);
+    }
+
+    @Test
+    @DisplayName("Should load a missing key once for concurrent callers")
+    void shouldCoalesceConcurrentMisses() throws Exception {
+        // Given
+        Cache cache = cache(new AlwaysFreeLock());
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        // When
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            results.add(executor.submit(() -> cache.get("all", () -> {
+                loads.incrementAndGet();
+                release.await();
+                return "customers";
+            })));
+        }
+        while (registry.get("crm.cache.coalesced").counter().count() < 7) {
+            Thread.sleep(5);
+        }
+        release.countDown();
+
+        // Then
+        for (Future<String> result : results) {
+            assertEquals("customers", result.get(5, TimeUnit.SECONDS));
+        }
+        executor.shutdown();
+        assertEquals(1, loads.get());
+        assertEquals("customers", cache.get("all").get());
+        assertInstanceOf(CacheEntry.class, target.get("all").get());
+    }
+
+    @Test
+    @DisplayName("Should wait for the replica holding the lock instead of loading")
+    void shouldWaitForOtherReplica() {
+        // Given
+        CacheLock heldElsewhere = mock(CacheLock.class);
+        Cache cache = new SingleFlightCache(target, (key, value) -> TTL, heldElsewhere, errorHandler,
+                new SingleFlightCache.Settings(1.0, Duration.ofSeconds(2)), registry);
+        Executors.newSingleThreadScheduledExecutor().schedule(
+                () -> target.put("all", new CacheEntry("from other replica", 10, 0)), 100, TimeUnit.MILLISECONDS);
+
+        // When
+        String value = cache.get("all", () -> fail("must not load"));
+
+        // Then
+        assertEquals("from other replica", value);
+        assertEquals(1.0, registry.get("crm.cache.lock.waits").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should recompute an entry close to expiry and keep serving fresh entries")
+    void shouldRefreshEarlyNearExpiry() {
+        // Given
+        Cache cache = cache(new AlwaysFreeLock());
+        target.put("all", new CacheEntry("old", 1_000, clock.get() + 500));
+        target.put("overdue", new CacheEntry("fresh", 1_000, clock.get() + TTL.toMillis()));
+
+        // When & Then
+        assertEquals("new", cache.get("all", () -> "new"));
+        assertEquals(1.0, registry.get("crm.cache.early.refreshes").counter().count());
+        assertEquals("fresh", cache.get("overdue", () -> fail("must not load")));
+    }
+
+    @Test
+    @DisplayName("Should read values stored without an envelope as they are")
+    void shouldReadLegacyValues() {
+        // Given
+        Cache cache = cache(new AlwaysFreeLock());
+        target.put(1L, "customer");
+
+        // When & Then
+        assertEquals("customer", cache.get(1L).get());
+        assertEquals("customer", cache.get(1L, String.class));
+        assertEquals("customer", cache.get(1L, () -> fail("must not load")));
+    }
+
+    @Test
+    @DisplayName("Should fall back to the loader when the cache store fails")
+    void shouldLoadWhenCacheFails() {
+        // Given
+        Cache failing = mock(Cache.class);
+        when(failing.getName()).thenReturn("customers");
+        RuntimeException down = new IllegalStateException("redis down");
+        when(failing.get("all")).thenThrow(down);
+        doThrow(down).when(failing).put(eq("all"), any());
+        CacheLock unavailable = mock(CacheLock.class);
+        when(unavailable.tryAcquire(any())).thenThrow(down);
+        Cache cache = new SingleFlightCache(failing, (key, value) -> TTL, unavailable, errorHandler,
+                new SingleFlightCache.Settings(1.0, Duration.ofSeconds(1)), registry, clock::get, () -> 0.5);
+
+        // When
+        String value = cache.get("all", () -> "customers");
+
+        // Then
+        assertEquals("customers", value);
+        verify(errorHandler).handleCacheGetError(down, cache, "all");
+        verify(errorHandler).handleCachePutError(down, cache, "all", "customers");
+    }
+
+    @Test
+    @DisplayName("Should wrap loader failures in ValueRetrievalException")
+    void shouldWrapLoaderFailures() {
+        // Given
+        Cache cache = cache(new AlwaysFreeLock());
+
+        // When & Then
+        assertThrows(Cache.ValueRetrievalException.class, () -> cache.get("all", () -> {
+            throw new IllegalStateException("db down");
+        }));
+        assertNull(target.get("all"));
+    }
+
+    @Test
+    @DisplayName("Should cache a not-found lookup and answer repeats without loading")
+    void shouldCacheNotFound() {
+        // Given
+        Cache cache = cache(new AlwaysFreeLock());
+        AtomicInteger loads = new AtomicInteger();
+        Callable<String> loader = () -> {
+            loads.incrementAndGet();
+            throw new CustomerNotFoundException(7L);
+        };
+
+        // When
+        Cache.ValueRetrievalException first = assertThrows(Cache.ValueRetrievalException.class,
+                () -> cache.get(7L, loader));
+        Cache.ValueRetrievalException repeated = assertThrows(Cache.ValueRetrievalException.class,
+                () -> cache.get(7L, loader));
+
+        // Then
+        assertInstanceOf(CustomerNotFoundException.class, first.getCause());
+        assertInstanceOf(EntityNotFoundException.class, repeated.getCause());
+        assertEquals(first.getCause().getMessage(), repeated.getCause().getMessage());
+        assertEquals(1, loads.get());
+        assertEquals(1.0, registry.get("crm.cache.not.found.hits").counter().count());
+        assertNull(cache.get(7L));
+    }
+
+    @Test
+    @DisplayName("Should not cache a not-found failure about another entity than the key")
+    void shouldNotCacheForeignNotFound() {
+        // Given
+        Cache cache = cache(new AlwaysFreeLock());
+
+        // When
+        assertThrows(Cache.ValueRetrievalException.class, () -> cache.get("customer:7", () -> {
+            throw new CustomerNotFoundException(7L);
+        }));
+
+        // Then
+        assertNull(target.get("customer:7"));
+    }
+
+    private Cache cache(CacheLock lock) {
+        return new SingleFlightCache(target, (key, value) -> TTL, lock, errorHandler,
+                new SingleFlightCache.Settings(1.0, Duration.ofSeconds(1)), registry, clock::get, () -> 0.5);
+    }
+
+    private static class AlwaysFreeLock implements CacheLock {
+
+        @Override
+        public String tryAcquire(String name) {
+            return "token";
+        }
+
+        @Override
+        public void release(String name, String token) {
+        }
+    }
+}
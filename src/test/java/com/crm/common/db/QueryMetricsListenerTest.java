@@ -0,0 +1,124 @@
+package com.crm.common.db;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.PreparedStatement;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QueryMetricsListenerTest {
+
+    private SimpleMeterRegistry registry;
+
+    private SlowQueryLog slowQueryLog;
+
+    private QueryMetricsListener listener;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        slowQueryLog = new SlowQueryLog(2);
+        listener = new QueryMetricsListener(registry, slowQueryLog, Duration.ofMillis(100));
+    }
+
+    @AfterEach
+    void tearDown() {
+        QueryContext.exitRepository(null);
+        QueryContext.endRequest();
+    }
+
+    @Test
+    @DisplayName("Should time statements per repository method and count them for the request")
+    void shouldTagStatementsWithRepositoryMethod() {
+        // Given
+        QueryContext.beginRequest("GET /api/tasks/overdue");
+        QueryContext.enterRepository("TaskRepository.findOverdueTasks");
+
+        // When
+        listener.afterQuery(execution(5), List.of(query("select * from tasks where due_date < ?", "2026-10-19")));
+        listener.afterQuery(execution(7), List.of(query("select * from tasks where due_date < ?", "2026-10-19")));
+
+        // Then
+        assertEquals(2L, registry.get("crm.db.statement")
+                .tag("repository", "TaskRepository.findOverdueTasks")
+                .tag("type", "select")
+                .timer().count());
+        assertEquals(2, QueryContext.endRequest());
+        assertTrue(slowQueryLog.slowest().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should keep slow statements with bind parameters, slowest first, within capacity")
+    void shouldCaptureSlowQueries() {
+        // Given
+        QueryContext.enterRepository("CustomerRepository.findByEmail");
+
+        // When
+        listener.afterQuery(execution(150), List.of(query("select * from customers where email = ?", "a@example.com")));
+        listener.afterQuery(execution(400), List.of(query("select * from customers where email = ?", "b@example.com")));
+        listener.afterQuery(execution(300), List.of(query("select * from customers where email = ?", "c@example.com")));
+
+        // Then
+        List<SlowQuery> slowest = slowQueryLog.slowest();
+        assertEquals(2, slowest.size());
+        assertEquals(400, slowest.get(0).durationMillis());
+        assertEquals(List.of(List.of("b@example.com")), slowest.get(0).parameters());
+        assertEquals("CustomerRepository.findByEmail", slowest.get(0).repositoryMethod());
+        assertEquals(300, slowest.get(1).durationMillis());
+    }
+
+    @Test
+    @DisplayName("Should keep the slowest statements when a faster one arrives at capacity")
+    void shouldKeepSlowestAtCapacity() {
+        // Given
+        listener.afterQuery(execution(400), List.of(query("select * from offers where id = ?", 1)));
+        listener.afterQuery(execution(300), List.of(query("select * from tasks where id = ?", 2)));
+
+        // When
+        listener.afterQuery(execution(150), List.of(query("select * from customers where id = ?", 3)));
+
+        // Then
+        List<SlowQuery> slowest = slowQueryLog.slowest();
+        assertEquals(List.of(400L, 300L), slowest.stream().map(SlowQuery::durationMillis).toList());
+    }
+
+    @Test
+    @DisplayName("Should attribute statements outside repositories to 'none'")
+    void shouldUseUnattributedOutsideRepositories() {
+        // When
+        listener.afterQuery(execution(1), List.of(query("insert into tasks (title) values (?)", "Call")));
+
+        // Then
+        assertEquals(1L, registry.get("crm.db.statement")
+                .tag("repository", QueryContext.UNATTRIBUTED)
+                .tag("type", "insert")
+                .timer().count());
+    }
+
+    private static ExecutionInfo execution(long elapsedMillis) {
+        ExecutionInfo execution = new ExecutionInfo();
+        execution.setElapsedTime(elapsedMillis);
+        execution.setSuccess(true);
+        return execution;
+    }
+
+    private static QueryInfo query(String sql, Object parameter) {
+        QueryInfo query = new QueryInfo(sql);
+        try {
+            query.getParametersList().add(List.of(new ParameterSetOperation(
+                    PreparedStatement.class.getMethod("setObject", int.class, Object.class), new Object[]{1, parameter})));
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+        return query;
+    }
+}
@@ -0,0 +1,241 @@
+package com.crm.common.http;
+
+import com.crm.common.resilience.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class ResponseCacheFilterTest {
+
+    private static final String BODY = "[" + "{\"id\":1,\"title\":\"Call the customer\"},".repeat(100) + "{}]";
+
+    private final AtomicInteger renders = new AtomicInteger();
+    private final AtomicLong now = new AtomicLong(1_000_000);
+
+    private ValueOperations<String, String> generations;
+    private SimpleMeterRegistry registry;
+    private ResponseCacheFilter filter;
+    private String partition = "all";
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        StringRedisTemplate redis = mock(StringRedisTemplate.class);
+        generations = mock(ValueOperations.class);
+        when(redis.opsForValue()).thenReturn(generations);
+        when(generations.multiGet(anyList())).thenReturn(Arrays.asList("3", null));
+
+        registry = new SimpleMeterRegistry();
+        CircuitBreaker circuitBreaker = new CircuitBreaker("redis",
+                new CircuitBreaker.Settings(50, Duration.ofSeconds(1), 20, 10, Duration.ofSeconds(10), 3), registry);
+        ResponseBodyCache cache = new ResponseBodyCache(redis, circuitBreaker, Duration.ofMinutes(10),
+                1024 * 1024, 2048, registry, now::get);
+        filter = new ResponseCacheFilter(cache,
+                List.of(ResponseCacheFilter.Endpoint.of("/api/tasks", "task-responses", "customer-responses")),
+                () -> partition, registry);
+
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                "user", null, AuthorityUtils.createAuthorityList("ROLE_USER")));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Should render once and serve repeats from the stored bytes, gzipped when accepted")
+    void shouldServeRepeatsFromCache() throws Exception {
+        // When
+        MockHttpServletResponse first = get("/api/tasks", null);
+        MockHttpServletResponse second = get("/api/tasks", "gzip, deflate");
+
+        // Then
+        assertEquals(1, renders.get());
+        assertEquals(BODY, first.getContentAsString());
+        assertEquals(200, second.getStatus());
+        assertEquals("gzip", second.getHeader("Content-Encoding"));
+        assertEquals(BODY, gunzip(second.getContentAsByteArray()));
+        assertEquals(1.0, registry.get("crm.http.response.cache").tag("result", "hit").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should render again once a region generation moves")
+    void shouldMissAfterGenerationChange() throws Exception {
+        // Given
+        get("/api/tasks", null);
+        when(generations.multiGet(anyList())).thenReturn(Arrays.asList("3", "1"));
+
+        // When
+        get("/api/tasks", null);
+
+        // Then
+        assertEquals(2, renders.get());
+    }
+
+    @Test
+    @DisplayName("Should keep responses of different roles apart")
+    void shouldKeyByRole() throws Exception {
+        // Given
+        get("/api/tasks", null);
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                "admin", null, AuthorityUtils.createAuthorityList("ROLE_ADMIN")));
+
+        // When
+        get("/api/tasks", null);
+
+        // Then
+        assertEquals(2, renders.get());
+    }
+
+    @Test
+    @DisplayName("Should keep responses of different visibility partitions apart")
+    void shouldKeyByPartition() throws Exception {
+        // Given
+        partition = "user:2";
+        MockHttpServletResponse first = get("/api/tasks", null);
+        partition = "user:3";
+
+        // When
+        MockHttpServletResponse second = get("/api/tasks", null, first.getHeader("ETag"));
+
+        // Then
+        assertEquals(2, renders.get());
+        assertEquals(200, second.getStatus());
+        assertNotEquals(first.getHeader("ETag"), second.getHeader("ETag"));
+    }
+
+    @Test
+    @DisplayName("Should answer a matching If-None-Match with 304 without rendering or reading the body")
+    void shouldAnswerNotModified() throws Exception {
+        // Given
+        MockHttpServletResponse first = get("/api/tasks", null, null);
+        MockHttpServletResponse gzipped = get("/api/tasks", "gzip", null);
+
+        // When
+        MockHttpServletResponse revalidated = get("/api/tasks", null, first.getHeader("ETag"));
+        MockHttpServletResponse revalidatedGzip = get("/api/tasks", "gzip", "W/" + gzipped.getHeader("ETag"));
+
+        // Then
+        assertNotEquals(first.getHeader("ETag"), gzipped.getHeader("ETag"));
+        assertEquals("private, no-cache", first.getHeader("Cache-Control"));
+        assertEquals(304, revalidated.getStatus());
+        assertEquals(0, revalidated.getContentLength());
+        assertEquals(first.getHeader("ETag"), revalidated.getHeader("ETag"));
+        assertEquals(304, revalidatedGzip.getStatus());
+        assertEquals(1, renders.get());
+    }
+
+    @Test
+    @DisplayName("Should send the full body once the ETag is outdated")
+    void shouldIgnoreOutdatedETag() throws Exception {
+        // Given
+        String etag = get("/api/tasks", null, null).getHeader("ETag");
+        when(generations.multiGet(anyList())).thenReturn(Arrays.asList("4", null));
+
+        // When
+        MockHttpServletResponse response = get("/api/tasks", null, etag);
+
+        // Then
+        assertEquals(200, response.getStatus());
+        assertNotEquals(etag, response.getHeader("ETag"));
+        assertEquals(BODY, response.getContentAsString());
+    }
+
+    @Test
+    @DisplayName("Should send the full body once the ETag is older than the body TTL")
+    void shouldRenderTimeDependentBodyAgainAfterTtl() throws Exception {
+        // Given
+        String etag = get("/api/tasks", null, null).getHeader("ETag");
+        now.addAndGet(Duration.ofMinutes(10).toMillis());
+
+        // When
+        MockHttpServletResponse response = get("/api/tasks", null, etag);
+
+        // Then
+        assertEquals(200, response.getStatus());
+        assertNotEquals(etag, response.getHeader("ETag"));
+        assertEquals(2, renders.get());
+    }
+
+    @Test
+    @DisplayName("Should not treat If-None-Match: * as a match")
+    void shouldIgnoreWildcardETag() throws Exception {
+        // Given
+        get("/api/tasks", null, null);
+
+        // When
+        MockHttpServletResponse response = get("/api/tasks", null, "*");
+
+        // Then
+        assertEquals(200, response.getStatus());
+        assertEquals(BODY, response.getContentAsString());
+    }
+
+    @Test
+    @DisplayName("Should bypass the cache while Redis is unavailable and leave other paths alone")
+    void shouldBypassWithoutVersion() throws Exception {
+        // Given
+        when(generations.multiGet(anyList())).thenThrow(new IllegalStateException("redis down"));
+
+        // When
+        get("/api/tasks", null);
+        get("/api/tasks", null);
+        get("/api/tasks/changes", null);
+
+        // Then
+        assertEquals(3, renders.get());
+        assertEquals(2.0, registry.get("crm.http.response.cache").tag("result", "bypass").counter().count());
+    }
+
+    private MockHttpServletResponse get(String uri, String acceptEncoding) throws Exception {
+        return get(uri, acceptEncoding, null);
+    }
+
+    private MockHttpServletResponse get(String uri, String acceptEncoding, String ifNoneMatch) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        if (acceptEncoding != null) {
+            request.addHeader("Accept-Encoding", acceptEncoding);
+        }
+        if (ifNoneMatch != null) {
+            request.addHeader("If-None-Match", ifNoneMatch);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FilterChain chain = (req, res) -> {
+            renders.incrementAndGet();
+            res.setContentType("application/json");
+            res.getOutputStream().write(BODY.getBytes(StandardCharsets.UTF_8));
+        };
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    private static String gunzip(byte[] bytes) throws Exception {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.crm.common.logging;
+
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestLogFilterTest {
+
+    private final RequestLogFilter filter = new RequestLogFilter(0.0, Duration.ofSeconds(1));
+
+    @Test
+    @DisplayName("Should propagate the caller's request id to the MDC and the response")
+    void shouldPropagateRequestId() throws Exception {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/tasks");
+        request.addHeader(RequestLogFilter.REQUEST_ID_HEADER, "abc123");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        AtomicReference<String> requestIdInChain = new AtomicReference<>();
+
+        // When
+        filter.doFilter(request, response, new MockFilterChain() {
+            @Override
+            public void doFilter(ServletRequest req, ServletResponse res) {
+                requestIdInChain.set(MDC.get(RequestLogFilter.REQUEST_ID_MDC_KEY));
+            }
+        });
+
+        // Then
+        assertEquals("abc123", requestIdInChain.get());
+        assertEquals("abc123", response.getHeader(RequestLogFilter.REQUEST_ID_HEADER));
+        assertNull(MDC.get(RequestLogFilter.REQUEST_ID_MDC_KEY));
+    }
+
+    @Test
+    @DisplayName("Should generate a request id when the caller does not send one")
+    void shouldGenerateRequestId() throws Exception {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/tasks");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        filter.doFilter(request, response, new MockFilterChain());
+
+        // Then
+        String requestId = response.getHeader(RequestLogFilter.REQUEST_ID_HEADER);
+        assertNotNull(requestId);
+        assertFalse(requestId.isBlank());
+        assertNull(MDC.get(RequestLogFilter.REQUEST_ID_MDC_KEY));
+    }
+}
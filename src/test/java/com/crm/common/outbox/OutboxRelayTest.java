@@ -0,0 +1,145 @@
+package com.crm.common.outbox;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayTest {
+
+    @Mock
+    private OutboxEventRepository repository;
+
+    private InMemoryOutboxSink sink;
+
+    private OutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        sink = new InMemoryOutboxSink();
+        relay = new OutboxRelay(repository, sink, 100, Duration.ofDays(7), 3, Duration.ofMinutes(1));
+    }
+
+    @Test
+    @DisplayName("Should deliver pending events in id order and mark them published")
+    void shouldDeliverPendingEventsInOrder() {
+        // Given
+        OutboxEvent first = event(1L, OutboxPublisher.CUSTOMER, 10L);
+        OutboxEvent second = event(2L, OutboxPublisher.OFFER, 20L);
+        when(repository.claimPendingBatch(any(), any(), any(Pageable.class))).thenReturn(List.of(first, second));
+
+        // When
+        int delivered = relay.relay();
+
+        // Then
+        assertEquals(2, delivered);
+        assertEquals(List.of(1L, 2L), sink.getEvents().stream().map(OutboxEvent::getId).toList());
+        assertNotNull(first.getPublishedAt());
+        assertNotNull(second.getPublishedAt());
+    }
+
+    @Test
+    @DisplayName("Should hold back later events of an aggregate whose earlier event failed")
+    void shouldPreserveOrderingPerAggregateOnFailure() throws Exception {
+        // Given
+        OutboxEvent failing = event(1L, OutboxPublisher.TASK, 5L);
+        OutboxEvent sameAggregate = event(2L, OutboxPublisher.TASK, 5L);
+        OutboxEvent otherAggregate = event(3L, OutboxPublisher.TASK, 6L);
+        when(repository.claimPendingBatch(any(), any(), any(Pageable.class)))
+                .thenReturn(List.of(failing, sameAggregate, otherAggregate));
+
+        OutboxSink flakySink = mock(OutboxSink.class);
+        doThrow(new IllegalStateException("stream unavailable")).when(flakySink).publish(failing);
+        relay = new OutboxRelay(repository, flakySink, 100, Duration.ofDays(7), 3, Duration.ofMinutes(1));
+
+        // When
+        int delivered = relay.relay();
+
+        // Then
+        assertEquals(1, delivered);
+        verify(flakySink, never()).publish(sameAggregate);
+        verify(flakySink).publish(otherAggregate);
+        assertNull(failing.getPublishedAt());
+        assertEquals(1, failing.getAttempts());
+        assertTrue(failing.getLastError().contains("stream unavailable"));
+        assertNull(sameAggregate.getPublishedAt());
+        assertNotNull(otherAggregate.getPublishedAt());
+    }
+
+    @Test
+    @DisplayName("Should park an event after the last allowed attempt and save the batch outcome")
+    void shouldParkPoisonEvent() throws Exception {
+        // Given
+        OutboxEvent poison = event(1L, OutboxPublisher.TASK, 5L);
+        poison.setAttempts(2);
+        poison.setClaimedUntil(LocalDateTime.now().plusMinutes(1));
+        when(repository.claimPendingBatch(any(), any(), any(Pageable.class))).thenReturn(List.of(poison));
+
+        OutboxSink failingSink = mock(OutboxSink.class);
+        doThrow(new IllegalArgumentException("malformed payload")).when(failingSink).publish(poison);
+        relay = new OutboxRelay(repository, failingSink, 100, Duration.ofDays(7), 3, Duration.ofMinutes(1));
+
+        // When
+        int delivered = relay.relay();
+
+        // Then
+        assertEquals(0, delivered);
+        assertEquals(3, poison.getAttempts());
+        assertNotNull(poison.getParkedAt());
+        assertNull(poison.getPublishedAt());
+        assertNull(poison.getClaimedUntil());
+        verify(repository).saveAll(List.of(poison));
+    }
+
+    @Test
+    @DisplayName("Should back off while another relay's claim on the batch is valid")
+    void shouldNotClaimBatchHeldByAnotherRelay() {
+        // Given
+        LocalDateTime now = LocalDateTime.now();
+        OutboxEvent claimed = event(1L, OutboxPublisher.CUSTOMER, 10L);
+        claimed.setClaimedUntil(now.plusSeconds(30));
+        when(repository.lockPendingBatch(any(Pageable.class))).thenReturn(List.of(claimed));
+        when(repository.claimPendingBatch(any(), any(), any(Pageable.class))).thenCallRealMethod();
+
+        // When
+        List<OutboxEvent> batch = repository.claimPendingBatch(now, now.plusMinutes(1), Pageable.ofSize(10));
+
+        // Then
+        assertTrue(batch.isEmpty());
+        assertEquals(now.plusSeconds(30), claimed.getClaimedUntil());
+    }
+
+    @Test
+    @DisplayName("Should do nothing when there are no pending events")
+    void shouldSkipEmptyBatch() {
+        // Given
+        when(repository.claimPendingBatch(any(), any(), any(Pageable.class))).thenReturn(List.of());
+
+        // When & Then
+        assertEquals(0, relay.relay());
+        assertTrue(sink.getEvents().isEmpty());
+    }
+
+    private static OutboxEvent event(Long id, String aggregateType, Long aggregateId) {
+        return OutboxEvent.builder()
+                .id(id)
+                .aggregateType(aggregateType)
+                .aggregateId(aggregateId)
+                .eventType(OutboxEventType.UPDATED)
+                .payload("{}")
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,50 @@
+package com.crm.common.profiling;
+
+import jdk.jfr.Recording;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProfileSummarizerTest {
+
+    @TempDir
+    private Path tempDir;
+
+    @Test
+    @DisplayName("Should collapse CPU samples into root-first stacks with counts")
+    void shouldCollapseExecutionSamples() throws Exception {
+        // Given
+        Path file = tempDir.resolve("profile.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("jdk.ExecutionSample").withPeriod(Duration.ofMillis(10));
+            recording.start();
+            spin(Duration.ofMillis(500));
+            recording.stop();
+            recording.dump(file);
+        }
+
+        // When
+        String collapsed = ProfileSummarizer.collapsedStacks(file);
+
+        // Then
+        assertFalse(collapsed.isBlank());
+        for (String line : collapsed.lines().toList()) {
+            assertTrue(line.matches("\\S+ \\d+"), line);
+        }
+        assertTrue(collapsed.lines().anyMatch(line -> line.contains(ProfileSummarizerTest.class.getName() + ".spin")));
+    }
+
+    private static long spin(Duration duration) {
+        long end = System.nanoTime() + duration.toNanos();
+        long counter = 0;
+        while (System.nanoTime() < end) {
+            counter += Long.numberOfTrailingZeros(counter + System.nanoTime());
+        }
+        return counter;
+    }
+}
@@ -0,0 +1,67 @@
+package com.crm.common.query;
+
+import com.crm.tasks.dto.TaskQueryField;
+import com.crm.tasks.model.Task;
+import com.crm.tasks.model.TaskStatus;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ListQueryTest {
+
+    @Test
+    @DisplayName("Should parse equality lists and ranges into typed conditions")
+    void shouldParseConditions() {
+        // When
+        ListQuery<Task> query = ListQuery.parse("status=TODO,IN_PROGRESS; dueDate >= 2026-10-01T00:00:00;customerId=7",
+                "-dueDate", null, 20, TaskQueryField.class);
+
+        // Then
+        List<ListQuery.Condition<Task>> conditions = query.conditions();
+        assertEquals(3, conditions.size());
+        assertEquals(List.of(TaskStatus.TODO, TaskStatus.IN_PROGRESS), conditions.get(0).values());
+        assertEquals(ListQuery.Operator.GE, conditions.get(1).operator());
+        assertEquals(List.of(LocalDateTime.of(2026, 10, 1, 0, 0)), conditions.get(1).values());
+        assertEquals(List.of(7L), conditions.get(2).values());
+        assertEquals(20, query.limit());
+    }
+
+    @Test
+    @DisplayName("Should refuse sorts without an index and ranges on equality-only fields")
+    void shouldRefuseUnsupportedQueries() {
+        // When
+        IllegalArgumentException sort = assertThrows(IllegalArgumentException.class,
+                () -> ListQuery.parse(null, "priority", null, 20, TaskQueryField.class));
+        IllegalArgumentException range = assertThrows(IllegalArgumentException.class,
+                () -> ListQuery.parse("status>TODO", null, null, 20, TaskQueryField.class));
+        IllegalArgumentException value = assertThrows(IllegalArgumentException.class,
+                () -> ListQuery.parse("dueDate<tomorrow", null, null, 20, TaskQueryField.class));
+
+        // Then
+        assertTrue(sort.getMessage().contains("dueDate, id, updatedAt"));
+        assertTrue(range.getMessage().contains("only supports '='"));
+        assertTrue(value.getMessage().contains("'tomorrow'"));
+    }
+
+    @Test
+    @DisplayName("Should accept its own cursors and reject cursors of another sort")
+    void shouldRoundTripCursor() {
+        // Given
+        ListQuery<Task> first = ListQuery.parse(null, "dueDate", null, 20, TaskQueryField.class);
+        String cursor = first.cursorAfter(LocalDateTime.of(2026, 10, 21, 9, 30), 42L);
+
+        // When
+        ListQuery<Task> next = ListQuery.parse(null, "dueDate", cursor, 20, TaskQueryField.class);
+
+        // Then
+        assertNotNull(next);
+        assertThrows(IllegalArgumentException.class,
+                () -> ListQuery.parse(null, "-dueDate", cursor, 20, TaskQueryField.class));
+        assertThrows(IllegalArgumentException.class,
+                () -> ListQuery.parse(null, "dueDate", "not-a-cursor", 20, TaskQueryField.class));
+    }
+}
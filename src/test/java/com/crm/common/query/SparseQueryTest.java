@@ -0,0 +1,37 @@
+package com.crm.common.query;
+
+import com.crm.tasks.dto.TaskField;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SparseQueryTest {
+
+    @Test
+    @DisplayName("Should parse fields in the requested order, ignoring blanks and repeats")
+    void shouldParseFields() {
+        // When
+        List<TaskField> fields = SparseQuery.parse(" title, id,,title,dueDate ", TaskField.class);
+
+        // Then
+        assertEquals(List.of(TaskField.TITLE, TaskField.ID, TaskField.DUE_DATE), fields);
+    }
+
+    @Test
+    @DisplayName("Should reject unknown and empty field lists")
+    void shouldRejectInvalidFields() {
+        // When
+        IllegalArgumentException unknown = assertThrows(IllegalArgumentException.class,
+                () -> SparseQuery.parse("id,password", TaskField.class));
+        IllegalArgumentException empty = assertThrows(IllegalArgumentException.class,
+                () -> SparseQuery.parse(" , ", TaskField.class));
+
+        // Then
+        assertTrue(unknown.getMessage().contains("'password'"));
+        assertTrue(unknown.getMessage().contains("offerTitle"));
+        assertTrue(empty.getMessage().contains("at least one"));
+    }
+}
@@ -0,0 +1,89 @@
+package com.crm.common.resilience;
+
+import com.crm.common.exception.BulkheadFullException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BulkheadTest {
+
+    @Mock
+    private DataSource targetDataSource;
+
+    @Mock
+    private Connection connection;
+
+    private SimpleMeterRegistry registry;
+
+    private Bulkhead bulkhead;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        bulkhead = new Bulkhead("database", 1, Duration.ofMillis(50), registry);
+    }
+
+    @Test
+    @DisplayName("Should reject callers once all permits are taken and the wait expires")
+    void shouldRejectWhenFull() {
+        // Given
+        bulkhead.acquire();
+
+        // When & Then
+        assertThrows(BulkheadFullException.class, () -> bulkhead.execute(() -> "never"));
+        assertEquals(1.0, registry.get("crm.bulkhead.rejected").tag("bulkhead", "database").counter().count());
+
+        bulkhead.release();
+        assertEquals("ok", bulkhead.execute(() -> "ok"));
+        assertEquals(1.0, registry.get("crm.bulkhead.available").tag("bulkhead", "database").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Should hold the permit until the connection is closed, releasing it once")
+    void shouldHoldPermitForConnectionLifetime() throws Exception {
+        // Given
+        when(targetDataSource.getConnection()).thenReturn(connection);
+        BulkheadDataSource dataSource = new BulkheadDataSource(targetDataSource, bulkhead);
+
+        // When
+        Connection first = dataSource.getConnection();
+
+        // Then
+        assertThrows(BulkheadFullException.class, dataSource::getConnection);
+
+        first.close();
+        first.close();
+        verify(connection, atLeastOnce()).close();
+
+        Connection second = dataSource.getConnection();
+        assertThrows(BulkheadFullException.class, dataSource::getConnection);
+        second.close();
+    }
+
+    @Test
+    @DisplayName("Should release the permit when the pool fails to hand out a connection")
+    void shouldReleasePermitWhenPoolFails() throws Exception {
+        // Given
+        when(targetDataSource.getConnection()).thenThrow(new SQLTransientConnectionException("timeout"));
+        BulkheadDataSource dataSource = new BulkheadDataSource(targetDataSource, bulkhead);
+
+        // When
+        assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+
+        // Then
+        assertEquals("ok", bulkhead.execute(() -> "ok"));
+    }
+}
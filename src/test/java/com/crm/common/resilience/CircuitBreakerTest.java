@@ -0,0 +1,112 @@
+package com.crm.common.resilience;
+
+import com.crm.common.exception.CircuitBreakerOpenException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CircuitBreakerTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    private SimpleMeterRegistry registry;
+
+    private CircuitBreaker circuitBreaker;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        CircuitBreaker.Settings settings = new CircuitBreaker.Settings(
+                50, Duration.ofMillis(100), 4, 4, Duration.ofSeconds(10), 2);
+        circuitBreaker = new CircuitBreaker("redis", settings, registry, clock::get);
+    }
+
+    @Test
+    @DisplayName("Should open once the failure rate over the window reaches the threshold")
+    void shouldOpenOnFailureRate() {
+        // Given
+        succeed();
+        fail();
+        succeed();
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+
+        // When
+        fail();
+
+        // Then
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertThrows(CircuitBreakerOpenException.class, this::succeed);
+        assertEquals(1.0, registry.get("crm.circuitbreaker.calls").tag("outcome", "rejected").counter().count());
+        assertEquals(1.0, registry.get("crm.circuitbreaker.state").tag("state", "open").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Should count calls slower than the threshold as failures")
+    void shouldCountSlowCallsAsFailures() {
+        // When
+        for (int i = 0; i < 4; i++) {
+            circuitBreaker.execute(() -> clock.addAndGet(Duration.ofMillis(150).toNanos()));
+        }
+
+        // Then
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertEquals(4.0, registry.get("crm.circuitbreaker.calls").tag("outcome", "slow").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should close again after the half-open probes succeed")
+    void shouldCloseAfterSuccessfulProbes() {
+        // Given
+        openBreaker();
+        clock.addAndGet(Duration.ofSeconds(10).toNanos());
+
+        // When
+        succeed();
+
+        // Then
+        assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+        succeed();
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+    }
+
+    @Test
+    @DisplayName("Should re-open when a half-open probe fails and limit concurrent probes")
+    void shouldReopenWhenProbeFails() {
+        // Given
+        openBreaker();
+        clock.addAndGet(Duration.ofSeconds(10).toNanos());
+
+        // When
+        circuitBreaker.acquirePermission();
+        circuitBreaker.acquirePermission();
+
+        // Then
+        assertThrows(CircuitBreakerOpenException.class, circuitBreaker::acquirePermission);
+        circuitBreaker.onResult(0, true);
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertThrows(CircuitBreakerOpenException.class, this::succeed);
+    }
+
+    private void openBreaker() {
+        for (int i = 0; i < 4; i++) {
+            fail();
+        }
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+    }
+
+    private void succeed() {
+        circuitBreaker.execute(() -> "ok");
+    }
+
+    private void fail() {
+        assertThrows(IllegalStateException.class, () -> circuitBreaker.execute(() -> {
+            throw new IllegalStateException("redis down");
+        }));
+    }
+}
@@ -0,0 +1,192 @@
+package com.crm.common.sync;
+
+import com.crm.common.exception.SyncCursorExpiredException;
+import com.crm.security.model.AuthenticatedUser;
+import com.crm.security.service.RowVisibility;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ChangeFeedTest {
+
+    @Mock
+    private TombstoneRepository tombstoneRepository;
+
+    private ChangeFeed changeFeed;
+
+    private final Instant base = Instant.now().minus(1, ChronoUnit.HOURS).truncatedTo(ChronoUnit.SECONDS);
+
+    private record Row(Long id, Instant updatedAt) {
+    }
+
+    @BeforeEach
+    void setUp() {
+        changeFeed = new ChangeFeed(tombstoneRepository, new RowVisibility(),
+                Duration.ofSeconds(5), Duration.ofDays(30), 1000);
+        lenient().when(tombstoneRepository.findDeletedAfter(any(), any(), any(), anyLong(), any(), any(Pageable.class)))
+                .thenReturn(List.of());
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Should round-trip cursor through its opaque encoding")
+    void shouldRoundTripCursor() {
+        SyncCursor cursor = new SyncCursor(base.plusNanos(123_000), 42L, base, 7L);
+
+        assertEquals(cursor, SyncCursor.decode(cursor.encode()));
+        assertTrue(SyncCursor.decode(null).isInitial());
+        assertThrows(IllegalArgumentException.class, () -> SyncCursor.decode("not-a-cursor"));
+    }
+
+    @Test
+    @DisplayName("Should page upserts by (updatedAt, id) and continue after the last row")
+    void shouldPageUpserts() {
+        // Given - two rows share a timestamp, so the id breaks the tie
+        Row first = new Row(1L, base);
+        Row second = new Row(2L, base);
+        Row third = new Row(3L, base.plusSeconds(1));
+        AtomicReference<Instant> seenAfterTime = new AtomicReference<>();
+        AtomicReference<Long> seenAfterId = new AtomicReference<>();
+        ChangeFeed.ChangeQuery<Row> query = (afterTime, afterId, until, page) -> {
+            seenAfterTime.set(afterTime);
+            seenAfterId.set(afterId);
+            return List.of(first, second, third).stream()
+                    .filter(r -> r.updatedAt().isAfter(afterTime)
+                            || (r.updatedAt().equals(afterTime) && r.id() > afterId))
+                    .limit(page.getPageSize())
+                    .toList();
+        };
+
+        // When
+        ChangesResponseDTO<Long> page1 = read(null, 2, query);
+        ChangesResponseDTO<Long> page2 = read(page1.getNextCursor(), 2, query);
+
+        // Then
+        assertEquals(List.of(1L, 2L), page1.getUpserts());
+        assertTrue(page1.isHasMore());
+        assertEquals(List.of(3L), page2.getUpserts());
+        assertFalse(page2.isHasMore());
+        assertEquals(base, seenAfterTime.get());
+        assertEquals(2L, seenAfterId.get());
+    }
+
+    @Test
+    @DisplayName("Should return deleted ids from tombstones")
+    void shouldReturnDeletions() {
+        // Given
+        Tombstone tombstone = Tombstone.builder()
+                .id(10L)
+                .resourceType(SyncResource.OFFER)
+                .resourceId(99L)
+                .deletedAt(LocalDateTime.now().minusMinutes(1))
+                .build();
+        when(tombstoneRepository.findDeletedAfter(eq(SyncResource.OFFER), any(), any(), anyLong(), any(),
+                any(Pageable.class)))
+                .thenReturn(List.of(tombstone));
+
+        // When
+        ChangesResponseDTO<Long> changes = read(null, 10, (afterTime, afterId, until, page) -> List.of());
+
+        // Then
+        assertEquals(List.of(99L), changes.getDeletedIds());
+        assertTrue(changes.getUpserts().isEmpty());
+        assertFalse(changes.isHasMore());
+    }
+
+    @Test
+    @DisplayName("Should report a reassigned row as deleted only to its previous user")
+    void shouldReportReassignmentToPreviousUser() {
+        // Given - the repository keeps saved tombstones and filters them by user like the query
+        List<Tombstone> tombstones = new ArrayList<>();
+        when(tombstoneRepository.save(any(Tombstone.class))).thenAnswer(invocation -> {
+            Tombstone tombstone = invocation.getArgument(0);
+            tombstone.setId(tombstones.size() + 1L);
+            tombstone.setDeletedAt(LocalDateTime.now().minusMinutes(1));
+            tombstones.add(tombstone);
+            return tombstone;
+        });
+        when(tombstoneRepository.findDeletedAfter(eq(SyncResource.TASK), any(), any(), anyLong(), any(),
+                any(Pageable.class))).thenAnswer(invocation -> {
+            Long userId = invocation.getArgument(1);
+            return tombstones.stream()
+                    .filter(t -> t.getUserId() == null || t.getUserId().equals(userId))
+                    .toList();
+        });
+        authenticate(3L, "ROLE_USER");
+        String cursor = readTasks(null).getNextCursor();
+
+        // When - the task moves from user 3 to user 4
+        changeFeed.recordReassignment(SyncResource.TASK, 7L, 3L, 4L);
+
+        // Then
+        assertEquals(List.of(7L), readTasks(cursor).getDeletedIds());
+        verify(tombstoneRepository).deleteRemoval(SyncResource.TASK, 7L, 4L);
+        authenticate(4L, "ROLE_USER");
+        assertTrue(readTasks(null).getDeletedIds().isEmpty());
+        authenticate(1L, "ROLE_MANAGER");
+        assertTrue(readTasks(null).getDeletedIds().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should record nothing when the user does not change")
+    void shouldIgnoreUnchangedUser() {
+        // When
+        changeFeed.recordReassignment(SyncResource.TASK, 7L, 3L, 3L);
+
+        // Then
+        verifyNoInteractions(tombstoneRepository);
+    }
+
+    @Test
+    @DisplayName("Should reject a cursor older than tombstone retention")
+    void shouldRejectExpiredCursor() {
+        String stale = new SyncCursor(base.minus(60, ChronoUnit.DAYS), 1L,
+                base.minus(60, ChronoUnit.DAYS), 1L).encode();
+
+        assertThrows(SyncCursorExpiredException.class,
+                () -> read(stale, 10, (afterTime, afterId, until, page) -> List.of()));
+    }
+
+    private ChangesResponseDTO<Long> readTasks(String since) {
+        return changeFeed.read(SyncResource.TASK, since, 10, (afterTime, afterId, until, page) -> List.<Row>of(),
+                Row::updatedAt, Row::id, Row::id);
+    }
+
+    private static void authenticate(Long id, String... roles) {
+        AuthenticatedUser user = new AuthenticatedUser(id, "user" + id, "secret", true, true,
+                AuthorityUtils.createAuthorityList(roles));
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+    }
+
+    private ChangesResponseDTO<Long> read(String since, int limit, ChangeFeed.ChangeQuery<Row> query) {
+        return changeFeed.read(SyncResource.OFFER, since, limit, query, Row::updatedAt, Row::id, Row::id);
+    }
+}
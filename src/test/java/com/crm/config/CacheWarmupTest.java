@@ -0,0 +1,84 @@
+package com.crm.config;
+
+import com.crm.customers.repository.CustomerRepository;
+import com.crm.customers.service.CustomerService;
+import com.crm.offers.service.OfferService;
+import com.crm.tasks.model.TaskStatus;
+import com.crm.tasks.service.TaskService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CacheWarmupTest {
+
+    @Mock
+    private CustomerService customerService;
+
+    @Mock
+    private OfferService offerService;
+
+    @Mock
+    private TaskService taskService;
+
+    @Mock
+    private CustomerRepository customerRepository;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    @DisplayName("Should load the hot regions and top customers, continuing past failures")
+    void shouldWarmHotRegions() {
+        // Given
+        when(customerRepository.findRecentlyUpdatedIds(any(Pageable.class))).thenReturn(List.of(7L));
+        when(offerService.getAllOffers()).thenThrow(new IllegalStateException("db down"));
+
+        // When
+        warmup(Duration.ofSeconds(10)).run(null);
+
+        // Then
+        verify(customerService).getAllCustomers();
+        verify(taskService).getAllTasks();
+        verify(taskService).getOverdueTasks();
+        verify(taskService).getTasksByStatus(TaskStatus.TODO);
+        verify(taskService).getTasksByStatus(TaskStatus.IN_PROGRESS);
+        verify(customerService).getCustomerById(7L);
+        verify(taskService).getTasksByCustomerId(7L);
+        verify(offerService).getOffersByCustomerId(7L);
+        assertEquals(1L, registry.get("crm.cache.warmup").tag("outcome", "completed").timer().count());
+    }
+
+    @Test
+    @DisplayName("Should give up on loads still running when the timeout expires")
+    void shouldStopAtTimeout() {
+        // Given
+        when(customerRepository.findRecentlyUpdatedIds(any(Pageable.class))).thenReturn(List.of());
+        when(customerService.getAllCustomers()).thenAnswer(invocation -> {
+            Thread.sleep(10_000);
+            return List.of();
+        });
+
+        // When
+        long start = System.nanoTime();
+        warmup(Duration.ofMillis(200)).run(null);
+
+        // Then
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() < 5_000);
+        assertEquals(1L, registry.get("crm.cache.warmup").tag("outcome", "timed-out").timer().count());
+    }
+
+    private CacheWarmup warmup(Duration timeout) {
+        return new CacheWarmup(customerService, offerService, taskService, customerRepository, registry, 2, timeout, 10);
+    }
+}
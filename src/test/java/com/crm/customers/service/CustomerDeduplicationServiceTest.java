@@ -0,0 +1,174 @@
+package com.crm.customers.service;
+
+import com.crm.customers.dedup.CustomerContact;
+import com.crm.customers.dto.CustomerRequestDTO;
+import com.crm.customers.dto.CustomerResponseDTO;
+import com.crm.customers.dto.DuplicateCandidateDTO;
+import com.crm.customers.dto.DuplicateClusterDTO;
+import com.crm.customers.mapper.CustomerMapper;
+import com.crm.customers.model.Customer;
+import com.crm.customers.model.CustomerStatus;
+import com.crm.customers.repository.CustomerRepository;
+import com.crm.customers.service.impl.CustomerDeduplicationServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CustomerDeduplicationServiceTest {
+
+    @Mock
+    private CustomerRepository customerRepository;
+
+    @Mock
+    private CustomerMapper customerMapper;
+
+    private CustomerDeduplicationService deduplicationService;
+
+    private final List<CustomerContact> contacts = List.of(
+            new CustomerContact(1L, "Jan", "Kowalski", "jan.kowalski@example.pl", "+48 501 234 567"),
+            new CustomerContact(2L, "Jan", "Kowalski", "Jan.Kowalski@example.pl", "501 234 568"),
+            new CustomerContact(3L, "Anna", "Nowak", "anna.nowak@example.pl", "+48 601 111 222"),
+            new CustomerContact(4L, "Piotr", "Wiśniewski", "p.wisniewski@firma.com", "+48 700 800 900")
+    );
+
+    @BeforeEach
+    void setUp() {
+        deduplicationService = new CustomerDeduplicationServiceImpl(
+                customerRepository, customerMapper, 16, 4, 0.5, 100, 200);
+
+        lenient().when(customerRepository.findContactsAfter(eq(0L), any())).thenReturn(contacts);
+        lenient().when(customerRepository.findAllById(anyIterable())).thenAnswer(invocation -> {
+            Collection<Long> ids = toCollection(invocation.getArgument(0));
+            return contacts.stream()
+                    .filter(c -> ids.contains(c.id()))
+                    .map(this::toCustomer)
+                    .collect(Collectors.toList());
+        });
+        lenient().when(customerMapper.toResponseDTO(any(Customer.class))).thenAnswer(invocation -> {
+            Customer customer = invocation.getArgument(0);
+            return CustomerResponseDTO.builder().id(customer.getId()).email(customer.getEmail()).build();
+        });
+    }
+
+    @Test
+    @DisplayName("Should cluster near-duplicate customers differing in email case and phone typo")
+    void shouldClusterNearDuplicates() {
+        // When
+        List<DuplicateClusterDTO> clusters = deduplicationService.findDuplicateClusters(10);
+
+        // Then
+        assertEquals(1, clusters.size());
+        Set<Long> ids = clusters.get(0).getCustomers().stream()
+                .map(CustomerResponseDTO::getId)
+                .collect(Collectors.toSet());
+        assertEquals(Set.of(1L, 2L), ids);
+        assertTrue(clusters.get(0).getScore() >= 0.5);
+    }
+
+    @Test
+    @DisplayName("Should find existing customers similar to submitted data")
+    void shouldFindPossibleDuplicatesForNewCustomer() {
+        // Given
+        CustomerRequestDTO requestDTO = CustomerRequestDTO.builder()
+                .firstName("Jan")
+                .lastName("Kowalsky")
+                .email("jan.kowalski+crm@example.pl")
+                .phone("+48501234567")
+                .status(CustomerStatus.LEAD)
+                .build();
+
+        // When
+        List<DuplicateCandidateDTO> candidates = deduplicationService.findPossibleDuplicates(requestDTO);
+
+        // Then
+        Map<Long, DuplicateCandidateDTO> byId = candidates.stream()
+                .collect(Collectors.toMap(c -> c.getCustomer().getId(), Function.identity()));
+        assertTrue(byId.containsKey(1L));
+        assertFalse(byId.containsKey(3L));
+        assertFalse(byId.containsKey(4L));
+    }
+
+    @Test
+    @DisplayName("Should report likely duplicates when registering a saved customer")
+    void shouldReportDuplicatesOnRegister() {
+        // Given
+        deduplicationService.rebuildIndex();
+        Customer saved = toCustomer(new CustomerContact(5L, "Anna", "Nowak", "ANNA.NOWAK@example.pl", "601111222"));
+
+        // When
+        Set<Long> duplicates = deduplicationService.register(saved);
+
+        // Then
+        assertEquals(Set.of(3L), duplicates);
+        verify(customerRepository, times(1)).findContactsAfter(eq(0L), any());
+    }
+
+    @Test
+    @DisplayName("Should keep a customer registered while the index is being rebuilt")
+    void shouldKeepRegistrationDuringRebuild() {
+        // Given
+        deduplicationService.rebuildIndex();
+        Customer saved = toCustomer(new CustomerContact(5L, "Ewa", "Zielińska", "ewa.zielinska@example.pl", "+48 602 333 444"));
+        when(customerRepository.findContactsAfter(eq(0L), any())).thenAnswer(invocation -> {
+            deduplicationService.register(saved); // commits after the scan read its page
+            return contacts;
+        });
+        deduplicationService.rebuildIndex();
+
+        // When
+        Set<Long> duplicates = deduplicationService.register(
+                toCustomer(new CustomerContact(6L, "Ewa", "Zielinska", "EWA.ZIELINSKA@example.pl", "602333444")));
+
+        // Then
+        assertEquals(Set.of(5L), duplicates);
+    }
+
+    @Test
+    @DisplayName("Should list clusters from the maintained index without rescanning")
+    void shouldReuseIndexForClusters() {
+        // Given
+        deduplicationService.rebuildIndex();
+
+        // When
+        deduplicationService.findDuplicateClusters(10);
+        deduplicationService.findDuplicateClusters(10);
+
+        // Then
+        verify(customerRepository, times(1)).findContactsAfter(eq(0L), any());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Collection<Long> toCollection(Object iterable) {
+        return iterable instanceof Collection<?> collection
+                ? (Collection<Long>) collection
+                : List.of();
+    }
+
+    private Customer toCustomer(CustomerContact contact) {
+        return Customer.builder()
+                .id(contact.id())
+                .firstName(contact.firstName())
+                .lastName(contact.lastName())
+                .email(contact.email())
+                .phone(contact.phone())
+                .status(CustomerStatus.ACTIVE)
+                .build();
+    }
+}
@@ -0,0 +1,165 @@
+package com.crm.customers.service;
+
+import com.crm.common.cache.BatchCache;
+import com.crm.common.outbox.OutboxEventType;
+import com.crm.common.outbox.OutboxPublisher;
+import com.crm.common.sync.ChangeFeed;
+import com.crm.common.sync.SyncResource;
+import com.crm.customers.dto.CustomerMergeResultDTO;
+import com.crm.customers.dto.CustomerResponseDTO;
+import com.crm.customers.exceptions.CustomerNotFoundException;
+import com.crm.customers.mapper.CustomerMapper;
+import com.crm.customers.model.Customer;
+import com.crm.customers.model.CustomerStatus;
+import com.crm.customers.repository.CustomerRepository;
+import com.crm.customers.service.impl.CustomerMergeServiceImpl;
+import com.crm.offers.repository.OfferRepository;
+import com.crm.tasks.repository.TaskRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CustomerMergeServiceTest {
+
+    @Mock
+    private CustomerRepository customerRepository;
+
+    @Mock
+    private OfferRepository offerRepository;
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private CustomerMapper customerMapper;
+
+    @Mock
+    private CustomerDeduplicationService deduplicationService;
+
+    @Mock
+    private OutboxPublisher outboxPublisher;
+
+    @Mock
+    private ChangeFeed changeFeed;
+
+    private ConcurrentMapCacheManager cacheManager;
+
+    private CustomerMergeService mergeService;
+
+    private Customer target;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager = new ConcurrentMapCacheManager("customers", "offers", "tasks");
+        mergeService = new CustomerMergeServiceImpl(customerRepository, offerRepository, taskRepository,
+                customerMapper, deduplicationService, cacheManager, outboxPublisher, changeFeed);
+
+        target = Customer.builder()
+                .id(1L)
+                .firstName("Jan")
+                .lastName("Kowalski")
+                .email("jan.kowalski@example.pl")
+                .status(CustomerStatus.ACTIVE)
+                .build();
+    }
+
+    @Test
+    @DisplayName("Should re-parent children in bulk, delete duplicate and evict only affected keys")
+    void shouldMergeCustomers() {
+        // Given
+        when(customerRepository.existsById(2L)).thenReturn(true);
+        when(customerRepository.findById(1L)).thenReturn(Optional.of(target));
+        when(offerRepository.findIdsByCustomerId(2L)).thenReturn(List.of(10L));
+        when(taskRepository.findIdsByCustomerId(2L)).thenReturn(List.of(20L, 21L));
+        when(offerRepository.reassignCustomer(eq(2L), eq(target), any(LocalDateTime.class))).thenReturn(1);
+        when(taskRepository.reassignCustomer(eq(2L), eq(target), any(LocalDateTime.class))).thenReturn(2);
+        when(customerMapper.toResponseDTO(target)).thenReturn(CustomerResponseDTO.builder().id(1L).build());
+
+        cacheManager.getCache("customers").put(2L, "duplicate");
+        cacheManager.getCache("customers").put(3L, "unrelated");
+        cacheManager.getCache("tasks").put(20L, "moved task");
+        cacheManager.getCache("tasks").put(99L, "unrelated task");
+
+        // When
+        CustomerMergeResultDTO result = mergeService.mergeCustomers(1L, 2L);
+
+        // Then
+        assertEquals(1L, result.getCustomer().getId());
+        assertEquals(2L, result.getMergedCustomerId());
+        assertEquals(1, result.getOffersMoved());
+        assertEquals(2, result.getTasksMoved());
+        verify(customerRepository).deleteById(2L);
+        verify(deduplicationService).forget(2L);
+        verify(changeFeed).recordDeletion(SyncResource.CUSTOMER, 2L);
+        verify(outboxPublisher).record(OutboxPublisher.CUSTOMER, 1L, OutboxEventType.MERGED, result);
+
+        assertNull(cacheManager.getCache("customers").get(2L));
+        assertNotNull(cacheManager.getCache("customers").get(3L));
+        assertNull(cacheManager.getCache("tasks").get(20L));
+        assertNotNull(cacheManager.getCache("tasks").get(99L));
+    }
+
+    @Test
+    @DisplayName("Should evict moved offers and tasks in one batch per region")
+    void shouldEvictMovedChildrenInBatches() {
+        // Given
+        CacheManager batchCacheManager = mock(CacheManager.class);
+        BatchCache offers = mock(BatchCache.class);
+        BatchCache tasks = mock(BatchCache.class);
+        Map<String, BatchCache> caches = Map.of("offers", offers, "tasks", tasks);
+        when(batchCacheManager.getCache(anyString())).thenAnswer(invocation -> caches.get(invocation.getArgument(0)));
+        mergeService = new CustomerMergeServiceImpl(customerRepository, offerRepository, taskRepository,
+                customerMapper, deduplicationService, batchCacheManager, outboxPublisher, changeFeed);
+        when(customerRepository.existsById(2L)).thenReturn(true);
+        when(customerRepository.findById(1L)).thenReturn(Optional.of(target));
+        when(offerRepository.findIdsByCustomerId(2L)).thenReturn(List.of(10L));
+        when(taskRepository.findIdsByCustomerId(2L)).thenReturn(List.of(20L, 21L));
+
+        // When
+        mergeService.mergeCustomers(1L, 2L);
+
+        // Then
+        verify(offers).evictAll(List.of(10L));
+        verify(tasks).evictAll(List.of(20L, 21L));
+        verify(tasks, never()).evict(any());
+    }
+
+    @Test
+    @DisplayName("Should refuse to merge a customer into itself")
+    void shouldRejectSelfMerge() {
+        assertThrows(IllegalArgumentException.class, () -> mergeService.mergeCustomers(1L, 1L));
+
+        verify(customerRepository, never()).deleteById(anyLong());
+    }
+
+    @Test
+    @DisplayName("Should throw exception when duplicate customer does not exist")
+    void shouldThrowWhenDuplicateNotFound() {
+        // Given
+        when(customerRepository.existsById(2L)).thenReturn(false);
+
+        // When & Then
+        assertThrows(CustomerNotFoundException.class, () -> mergeService.mergeCustomers(1L, 2L));
+
+        verify(offerRepository, never()).reassignCustomer(anyLong(), any(), any());
+        verify(taskRepository, never()).reassignCustomer(anyLong(), any(), any());
+    }
+}
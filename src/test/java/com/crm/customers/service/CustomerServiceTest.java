@@ -1,5 +1,10 @@
 package com.crm.customers.service;
 
+import com.crm.common.cache.IdListCache;
+import com.crm.common.membership.MembershipIndex;
+import com.crm.common.outbox.OutboxEventType;
+import com.crm.common.outbox.OutboxPublisher;
+import com.crm.common.sync.ChangeFeed;
 import com.crm.customers.dto.CustomerRequestDTO;
 import com.crm.customers.dto.CustomerResponseDTO;
 import com.crm.customers.exceptions.CustomerNotFoundException;
@@ -8,21 +13,31 @@ import com.crm.customers.mapper.CustomerMapper;
 import com.crm.customers.model.Customer;
 import com.crm.customers.model.CustomerStatus;
 import com.crm.customers.repository.CustomerRepository;
+import com.crm.customers.service.CustomerDeduplicationService;
 import com.crm.customers.service.impl.CustomerServiceImpl;
+import com.crm.offers.repository.OfferRepository;
+import com.crm.tasks.repository.TaskRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.support.NoOpCacheManager;
 
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -34,6 +49,27 @@ class CustomerServiceTest {
     @Mock
     private CustomerMapper customerMapper;
 
+    @Mock
+    private MembershipIndex membershipIndex;
+
+    @Mock
+    private CustomerDeduplicationService deduplicationService;
+
+    @Mock
+    private OutboxPublisher outboxPublisher;
+
+    @Mock
+    private ChangeFeed changeFeed;
+
+    @Mock
+    private OfferRepository offerRepository;
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Spy
+    private IdListCache idListCache = new IdListCache(new NoOpCacheManager());
+
     @InjectMocks
     private CustomerServiceImpl customerService;
 
@@ -43,6 +79,9 @@ class CustomerServiceTest {
 
     @BeforeEach
     void setUp() {
+        lenient().when(membershipIndex.mightContainCustomerEmail(anyString())).thenReturn(true);
+        lenient().when(deduplicationService.register(any(Customer.class))).thenReturn(Set.of());
+
         customer = Customer.builder()
                 .id(1L)
                 .firstName("John")
@@ -105,6 +144,23 @@ class CustomerServiceTest {
         verify(customerMapper, never()).toEntity(any());
     }
 
+    @Test
+    @DisplayName("Should skip email lookup when membership index rules the email out")
+    void createCustomer_DefiniteNegative_SkipsEmailLookup() {
+        // Given
+        when(membershipIndex.mightContainCustomerEmail(requestDTO.getEmail())).thenReturn(false);
+        when(customerMapper.toEntity(requestDTO)).thenReturn(customer);
+        when(customerRepository.save(customer)).thenReturn(customer);
+        when(customerMapper.toResponseDTO(customer)).thenReturn(responseDTO);
+
+        // When
+        customerService.createCustomer(requestDTO);
+
+        // Then
+        verify(customerRepository, never()).findByEmail(anyString());
+        verify(membershipIndex).addCustomerEmail("john@example.com");
+    }
+
     @Test
     @DisplayName("Should get customer by id successfully")
     void getCustomerById_Success() {
@@ -207,6 +263,8 @@ class CustomerServiceTest {
         assertEquals("jane@example.com", result.getEmail());
         verify(customerRepository, times(1)).save(any(Customer.class));
         verify(customerMapper, times(1)).toResponseDTO(updatedCustomer);
+        verify(offerRepository).touchByCustomerId(eq(1L), any(LocalDateTime.class));
+        verify(taskRepository).touchByCustomerId(eq(1L), any(LocalDateTime.class));
     }
 
     @Test
@@ -271,6 +329,24 @@ class CustomerServiceTest {
         verify(customerRepository, times(1)).deleteById(1L);
     }
 
+    @Test
+    @DisplayName("Should publish deletion events for offers and tasks removed by the cascade")
+    void deleteCustomer_PublishesCascadedDeletions() {
+        // Given
+        when(customerRepository.existsById(1L)).thenReturn(true);
+        when(offerRepository.findIdsByCustomerId(1L)).thenReturn(List.of(10L));
+        when(taskRepository.findIdsByCustomerId(1L)).thenReturn(List.of(20L, 21L));
+
+        // When
+        customerService.deleteCustomer(1L);
+
+        // Then
+        verify(outboxPublisher).record(OutboxPublisher.OFFER, 10L, OutboxEventType.DELETED, Map.of("id", 10L));
+        verify(outboxPublisher).record(OutboxPublisher.TASK, 20L, OutboxEventType.DELETED, Map.of("id", 20L));
+        verify(outboxPublisher).record(OutboxPublisher.TASK, 21L, OutboxEventType.DELETED, Map.of("id", 21L));
+        verify(outboxPublisher).record(OutboxPublisher.CUSTOMER, 1L, OutboxEventType.DELETED, Map.of("id", 1L));
+    }
+
     @Test
     @DisplayName("Should throw exception when deleting non-existent customer")
     void deleteCustomer_NotFound() {
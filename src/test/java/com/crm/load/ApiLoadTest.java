@@ -0,0 +1,341 @@
+package com.crm.load;
+
+import com.crm.common.membership.MembershipIndex;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * End-to-end load test: boots the application on H2 with an in-process cache,
+ * seeds a configurable data volume and drives a weighted mix of /api/** calls over
+ * HTTP Basic. Reports p50/p99 latency, throughput and SQL statements per endpoint.
+ *
+ * Excluded from the default build; run with
+ * {@code ./mvnw -Pload-test test -Dload.customers=100000 -Dload.tasks=1000000}.
+ */
+@Tag("load")
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.profiles.active=load"
+)
+@Import(LoadTestConfig.class)
+@Slf4j
+class ApiLoadTest {
+
+    private static final int CUSTOMERS = Integer.getInteger("load.customers", 5_000);
+    private static final int TASKS = Integer.getInteger("load.tasks", 50_000);
+    private static final int THREADS = Integer.getInteger("load.threads", 16);
+    private static final int REQUESTS = Integer.getInteger("load.requests", 10_000);
+    private static final int WARMUP_REQUESTS = Integer.getInteger("load.warmup", 1_000);
+    private static final double MAX_ERROR_RATE = Double.parseDouble(System.getProperty("load.max-error-rate", "0.01"));
+    private static final Path REPORT = Path.of(System.getProperty("load.report", "target/load-test-report.json"));
+    private static final int BATCH_SIZE = 10_000;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private StatementCounter statementCounter;
+
+    @Autowired
+    private MembershipIndex membershipIndex;
+
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    private final String authorization = "Basic " + Base64.getEncoder()
+            .encodeToString("admin:password".getBytes(StandardCharsets.UTF_8));
+    private final AtomicInteger createdCustomers = new AtomicInteger();
+
+    private long minCustomerId;
+    private long minOfferId;
+    private long minTaskId;
+
+    private record Operation(int weight, Function<ThreadLocalRandom, HttpRequest> request) {
+    }
+
+    @Test
+    void mixedApiWorkload() throws Exception {
+        seed();
+
+        List<Operation> mix = workload();
+        run(mix, WARMUP_REQUESTS);
+        statementCounter.reset();
+
+        long start = System.nanoTime();
+        Map<String, EndpointStats> stats = run(mix, REQUESTS);
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+
+        List<Map<String, Object>> rows = report(stats, statementCounter.snapshot(), elapsedSeconds);
+        Files.createDirectories(REPORT.toAbsolutePath().getParent());
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(REPORT.toFile(), Map.of(
+                "customers", CUSTOMERS,
+                "tasks", TASKS,
+                "threads", THREADS,
+                "requests", REQUESTS,
+                "elapsedSeconds", elapsedSeconds,
+                "endpoints", rows));
+        log.info("Load test report written to {}", REPORT.toAbsolutePath());
+
+        long errors = stats.values().stream().mapToLong(EndpointStats::errors).sum();
+        assertTrue(errors <= REQUESTS * MAX_ERROR_RATE,
+                "Error rate too high: " + errors + " of " + REQUESTS + " requests failed");
+    }
+
+    private List<Operation> workload() {
+        return List.of(
+                new Operation(25, r -> get("/api/customers/" + customerId(r))),
+                new Operation(15, r -> get("/api/offers/" + offerId(r))),
+                new Operation(15, r -> get("/api/tasks/" + taskId(r))),
+                new Operation(12, r -> get("/api/tasks/customer/" + customerId(r))),
+                new Operation(8, r -> get("/api/offers/customer/" + customerId(r))),
+                new Operation(5, r -> get("/api/customers/changes?limit=100")),
+                new Operation(2, r -> get("/api/tasks/status/TODO")),
+                new Operation(1, r -> get("/api/customers")),
+                new Operation(10, r -> send("POST", "/api/tasks", taskJson(r))),
+                new Operation(5, r -> send("PUT", "/api/customers/" + customerId(r), null)),
+                new Operation(2, r -> send("POST", "/api/customers", newCustomerJson()))
+        );
+    }
+
+    private Map<String, EndpointStats> run(List<Operation> mix, int requests) throws InterruptedException {
+        int totalWeight = mix.stream().mapToInt(Operation::weight).sum();
+        Map<String, EndpointStats> stats = new ConcurrentHashMap<>();
+        AtomicInteger remaining = new AtomicInteger(requests);
+
+        ExecutorService workers = Executors.newFixedThreadPool(THREADS);
+        for (int i = 0; i < THREADS; i++) {
+            workers.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (remaining.getAndDecrement() > 0) {
+                    HttpRequest request = pick(mix, totalWeight, random).request().apply(random);
+                    String endpoint = LoadTestConfig.endpointOf(request.method(), request.uri().getPath());
+                    long started = System.nanoTime();
+                    boolean ok;
+                    try {
+                        ok = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() < 400;
+                    } catch (Exception e) {
+                        ok = false;
+                    }
+                    stats.computeIfAbsent(endpoint, k -> new EndpointStats()).record(System.nanoTime() - started, ok);
+                }
+            });
+        }
+        workers.shutdown();
+        assertTrue(workers.awaitTermination(1, TimeUnit.HOURS), "Load test did not finish in time");
+        return stats;
+    }
+
+    private static Operation pick(List<Operation> mix, int totalWeight, ThreadLocalRandom random) {
+        int roll = random.nextInt(totalWeight);
+        for (Operation operation : mix) {
+            roll -= operation.weight();
+            if (roll < 0) {
+                return operation;
+            }
+        }
+        return mix.get(mix.size() - 1);
+    }
+
+    private List<Map<String, Object>> report(Map<String, EndpointStats> stats, Map<String, Long> statements,
+                                             double elapsedSeconds) {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        StringBuilder table = new StringBuilder(String.format("%n%-40s %8s %6s %10s %9s %9s %9s %10s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p99 ms", "max ms", "stmts/req"));
+
+        new TreeMap<>(stats).forEach((endpoint, s) -> {
+            long[] sorted = s.sortedLatencies();
+            double statementsPerRequest = statements.getOrDefault(endpoint, 0L) / (double) sorted.length;
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("endpoint", endpoint);
+            row.put("requests", sorted.length);
+            row.put("errors", s.errors());
+            row.put("throughputPerSecond", sorted.length / elapsedSeconds);
+            row.put("p50Millis", percentile(sorted, 0.50));
+            row.put("p99Millis", percentile(sorted, 0.99));
+            row.put("maxMillis", sorted[sorted.length - 1] / 1e6);
+            row.put("statementsPerRequest", statementsPerRequest);
+            rows.add(row);
+            table.append(String.format("%-40s %8d %6d %10.1f %9.2f %9.2f %9.2f %10.2f%n", endpoint, sorted.length,
+                    s.errors(), sorted.length / elapsedSeconds, percentile(sorted, 0.50), percentile(sorted, 0.99),
+                    sorted[sorted.length - 1] / 1e6, statementsPerRequest));
+        });
+        table.append(String.format("total: %d requests in %.1f s (%.1f req/s), background statements: %d",
+                REQUESTS, elapsedSeconds, REQUESTS / elapsedSeconds, statements.getOrDefault("background", 0L)));
+
+        log.info(table.toString());
+        return rows;
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1e6;
+    }
+
+    // --- seeding
+
+    private void seed() {
+        log.info("Seeding {} customers, {} offers and {} tasks", CUSTOMERS, CUSTOMERS, TASKS);
+        long start = System.currentTimeMillis();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        Timestamp due = Timestamp.valueOf(LocalDateTime.now().plusDays(30));
+
+        batchInsert("INSERT INTO customers (first_name, last_name, email, phone, status, created_at, updated_at) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?)", CUSTOMERS, i -> new Object[]{
+                "Load" + i, "Customer" + i, "load" + i + "@example.com", phone(i), "ACTIVE", now, now});
+        minCustomerId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM customers", Long.class);
+
+        batchInsert("INSERT INTO offers (title, description, price, status, customer_id, created_at, updated_at) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?)", CUSTOMERS, i -> new Object[]{
+                "Offer " + i, "Load test offer", 1000 + i % 500, "SENT", minCustomerId + i, now, now});
+        minOfferId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM offers", Long.class);
+
+        batchInsert("INSERT INTO tasks (title, description, due_date, status, priority, customer_id, offer_id, " +
+                "created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)", TASKS, i -> {
+            int customer = i % CUSTOMERS;
+            return new Object[]{"Task " + i, "Load test task", due, i % 3 == 0 ? "TODO" : "IN_PROGRESS",
+                    i % 2 == 0 ? "HIGH" : "LOW", minCustomerId + customer,
+                    i % 2 == 0 ? minOfferId + customer : null, now, now};
+        });
+        minTaskId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM tasks", Long.class);
+
+        // Rows inserted behind the services' back must be visible to the uniqueness index
+        membershipIndex.rebuild();
+        log.info("Seeding finished in {} ms", System.currentTimeMillis() - start);
+    }
+
+    private void batchInsert(String sql, int count, Function<Integer, Object[]> row) {
+        for (int from = 0; from < count; from += BATCH_SIZE) {
+            List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+            for (int i = from; i < Math.min(count, from + BATCH_SIZE); i++) {
+                batch.add(row.apply(i));
+            }
+            jdbcTemplate.batchUpdate(sql, batch);
+        }
+    }
+
+    // --- requests
+
+    private long customerId(ThreadLocalRandom random) {
+        return minCustomerId + random.nextInt(CUSTOMERS);
+    }
+
+    private long offerId(ThreadLocalRandom random) {
+        return minOfferId + random.nextInt(CUSTOMERS);
+    }
+
+    private long taskId(ThreadLocalRandom random) {
+        return minTaskId + random.nextInt(TASKS);
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header("Authorization", authorization)
+                .timeout(Duration.ofSeconds(60))
+                .GET()
+                .build();
+    }
+
+    private HttpRequest send(String method, String path, String json) {
+        String body = json;
+        if (body == null) {
+            // PUT keeps the seeded values so the email stays unique
+            long id = Long.parseLong(path.substring(path.lastIndexOf('/') + 1));
+            int i = (int) (id - minCustomerId);
+            body = customerJson("Load" + i, "Customer" + i, "load" + i + "@example.com", phone(i), "INACTIVE");
+        }
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header("Authorization", authorization)
+                .header("Content-Type", "application/json")
+                .timeout(Duration.ofSeconds(60))
+                .method(method, HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private String taskJson(ThreadLocalRandom random) {
+        return """
+                {"title":"Load task","description":"Created by load test",\
+                "dueDate":"%s","status":"TODO","priority":"MEDIUM","customerId":%d}"""
+                .formatted(LocalDateTime.now().plusDays(7).withNano(0), customerId(random));
+    }
+
+    private String newCustomerJson() {
+        int n = createdCustomers.incrementAndGet();
+        return customerJson("New" + n, "Customer" + n, "new" + n + "@example.com", phone(CUSTOMERS + n), "LEAD");
+    }
+
+    private static String customerJson(String firstName, String lastName, String email, String phone, String status) {
+        return """
+                {"firstName":"%s","lastName":"%s",\
+                "email":"%s","phone":"%s","status":"%s"}""".formatted(firstName, lastName, email, phone, status);
+    }
+
+    private static String phone(int i) {
+        return String.format("+48 %09d", i);
+    }
+
+    /**
+     * Latency samples of one endpoint, in nanoseconds.
+     */
+    private static final class EndpointStats {
+
+        private long[] latencies = new long[256];
+        private int size;
+        private long errors;
+
+        synchronized void record(long nanos, boolean ok) {
+            if (size == latencies.length) {
+                latencies = Arrays.copyOf(latencies, size * 2);
+            }
+            latencies[size++] = nanos;
+            if (!ok) {
+                errors++;
+            }
+        }
+
+        synchronized long errors() {
+            return errors;
+        }
+
+        synchronized long[] sortedLatencies() {
+            long[] copy = Arrays.copyOf(latencies, size);
+            Arrays.sort(copy);
+            return copy;
+        }
+    }
+}
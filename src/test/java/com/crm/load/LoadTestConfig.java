@@ -0,0 +1,143 @@
+package com.crm.load;
+
+import com.crm.common.http.ResponseBodyCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.Ordered;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Embedded stand-ins for the load test: in-process replacements for everything that talks to
+ * Redis and per-endpoint SQL statement counting.
+ *
+ * The cache manager replaces the Redis cache stack as a whole, so its lock and region generations
+ * are never used, and the response body cache reads its versions from the generations of that
+ * cache manager instead of Redis. The Redis-backed beans are still created, but nothing calls them.
+ */
+@TestConfiguration
+public class LoadTestConfig {
+
+    private static final Pattern NUMERIC_SEGMENT = Pattern.compile("/\\d+");
+
+    @Bean
+    @Primary
+    public GenerationalCacheManager loadTestCacheManager() {
+        return new GenerationalCacheManager();
+    }
+
+    @Bean
+    @Primary
+    public ResponseBodyCache loadTestResponseBodyCache(
+            GenerationalCacheManager loadTestCacheManager,
+            MeterRegistry meterRegistry,
+            @Value("${crm.cache.ttl:PT10M}") Duration ttl,
+            @Value("${crm.http.response-cache.max-size:32MB}") DataSize maxSize,
+            @Value("${crm.http.response-cache.gzip-min-size:2KB}") DataSize gzipMinSize
+    ) {
+        return new ResponseBodyCache(null, null, ttl, maxSize.toBytes(), (int) gzipMinSize.toBytes(), meterRegistry) {
+            @Override
+            public String version(List<String> regions) {
+                return loadTestCacheManager.version(regions);
+            }
+        };
+    }
+
+    @Bean
+    public StatementCounter statementCounter() {
+        return new StatementCounter();
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer statementCounterCustomizer(StatementCounter statementCounter) {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, statementCounter);
+    }
+
+    /**
+     * Runs ahead of Spring Security so statements issued while authenticating are attributed too.
+     */
+    @Bean
+    public FilterRegistrationBean<OncePerRequestFilter> endpointTaggingFilter() {
+        FilterRegistrationBean<OncePerRequestFilter> registration = new FilterRegistrationBean<>(new OncePerRequestFilter() {
+            @Override
+            protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+                    throws ServletException, IOException {
+                StatementCounter.enter(endpointOf(request.getMethod(), request.getRequestURI()));
+                try {
+                    chain.doFilter(request, response);
+                } finally {
+                    StatementCounter.exit();
+                }
+            }
+        });
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    static String endpointOf(String method, String path) {
+        int query = path.indexOf('?');
+        String bare = query >= 0 ? path.substring(0, query) : path;
+        return method + " " + NUMERIC_SEGMENT.matcher(bare).replaceAll("/{id}");
+    }
+
+    /**
+     * Counts clears per region like the generations kept in Redis, so response bodies are
+     * versioned by the same writes that clear their regions.
+     */
+    static class GenerationalCacheManager extends ConcurrentMapCacheManager {
+
+        private final Map<String, AtomicLong> generations = new ConcurrentHashMap<>();
+
+        @Override
+        protected Cache createConcurrentMapCache(String name) {
+            AtomicLong generation = generation(name);
+            return new ConcurrentMapCache(name, isAllowNullValues()) {
+                @Override
+                public void clear() {
+                    super.clear();
+                    generation.incrementAndGet();
+                }
+
+                @Override
+                public boolean invalidate() {
+                    boolean invalidated = super.invalidate();
+                    generation.incrementAndGet();
+                    return invalidated;
+                }
+            };
+        }
+
+        String version(List<String> regions) {
+            StringBuilder version = new StringBuilder();
+            for (String region : regions) {
+                version.append(generation(region).get()).append('.');
+            }
+            return version.toString();
+        }
+
+        private AtomicLong generation(String name) {
+            return generations.computeIfAbsent(name, region -> new AtomicLong());
+        }
+    }
+}
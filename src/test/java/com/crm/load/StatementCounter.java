@@ -0,0 +1,44 @@
+package com.crm.load;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts SQL statements issued through Hibernate, attributed to the endpoint
+ * handled by the current request thread (or "background" outside requests).
+ */
+public class StatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<String> CURRENT_ENDPOINT = new ThreadLocal<>();
+
+    private final Map<String, LongAdder> counts = new ConcurrentHashMap<>();
+
+    @Override
+    public String inspect(String sql) {
+        String endpoint = CURRENT_ENDPOINT.get();
+        counts.computeIfAbsent(endpoint != null ? endpoint : "background", k -> new LongAdder()).increment();
+        return sql;
+    }
+
+    public static void enter(String endpoint) {
+        CURRENT_ENDPOINT.set(endpoint);
+    }
+
+    public static void exit() {
+        CURRENT_ENDPOINT.remove();
+    }
+
+    public Map<String, Long> snapshot() {
+        Map<String, Long> result = new TreeMap<>();
+        counts.forEach((endpoint, count) -> result.put(endpoint, count.sum()));
+        return result;
+    }
+
+    public void reset() {
+        counts.clear();
+    }
+}
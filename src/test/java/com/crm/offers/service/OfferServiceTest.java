@@ -1,5 +1,8 @@
 package com.crm.offers.service;
 
+import com.crm.common.cache.IdListCache;
+import com.crm.common.outbox.OutboxPublisher;
+import com.crm.common.sync.ChangeFeed;
 import com.crm.customers.exceptions.CustomerNotFoundException;
 import com.crm.customers.model.Customer;
 import com.crm.customers.model.CustomerStatus;
@@ -12,13 +15,22 @@ import com.crm.offers.model.Offer;
 import com.crm.offers.model.OfferStatus;
 import com.crm.offers.repository.OfferRepository;
 import com.crm.offers.service.impl.OfferServiceImpl;
+import com.crm.security.repository.UserRepository;
+import com.crm.security.service.RowVisibility;
+import com.crm.tasks.repository.TaskRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.support.NoOpCacheManager;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -42,6 +54,24 @@ class OfferServiceTest {
     @Mock
     private OfferMapper offerMapper;
 
+    @Mock
+    private OutboxPublisher outboxPublisher;
+
+    @Mock
+    private ChangeFeed changeFeed;
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Spy
+    private IdListCache idListCache = new IdListCache(new NoOpCacheManager());
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Spy
+    private RowVisibility rowVisibility = new RowVisibility();
+
     @InjectMocks
     private OfferServiceImpl offerService;
 
@@ -265,6 +295,26 @@ class OfferServiceTest {
         verify(offerRepository, never()).save(any());
     }
 
+    @Test
+    @DisplayName("Should refuse to change the status of another user's offer")
+    void changeOfferStatus_NotOwner() {
+        // Given
+        offer.setOwnerId(2L);
+        when(offerRepository.findById(1L)).thenReturn(Optional.of(offer));
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                "user", null, AuthorityUtils.createAuthorityList("ROLE_USER")));
+
+        // When & Then
+        try {
+            assertThrows(AccessDeniedException.class,
+                    () -> offerService.changeOfferStatus(1L, "SENT"));
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+        assertEquals(OfferStatus.DRAFT, offer.getStatus());
+        verify(offerRepository, never()).save(any());
+    }
+
     @Test
     @DisplayName("Should delete offer successfully")
     void deleteOffer_Success() {
@@ -0,0 +1,52 @@
+package com.crm.security.model;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.AuthorityUtils;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RoleTest {
+
+    @Test
+    @DisplayName("Should encode roles named with or without the prefix into one mask")
+    void shouldEncodeRoles() {
+        // Given
+        User user = new User();
+
+        // When
+        user.setRoles(Set.of("MANAGER", "ROLE_ADMIN"));
+
+        // Then
+        assertEquals(Role.MANAGER.bit() | Role.ADMIN.bit(), user.getRolesMask());
+        assertEquals(Set.of("ROLE_MANAGER", "ROLE_ADMIN"), user.getRoles());
+        assertTrue(user.hasRole("ROLE_MANAGER"));
+        assertFalse(user.hasRole("USER"));
+    }
+
+    @Test
+    @DisplayName("Should hand out the same immutable authorities for a mask")
+    void shouldShareAuthorities() {
+        // When
+        var first = Role.authorities(Role.USER.bit() | Role.MANAGER.bit());
+        var second = Role.authorities(Role.USER.bit() | Role.MANAGER.bit());
+
+        // Then
+        assertSame(first, second);
+        assertEquals(Set.copyOf(AuthorityUtils.createAuthorityList("ROLE_USER", "ROLE_MANAGER")), first);
+        assertThrows(UnsupportedOperationException.class, () -> first.clear());
+        assertTrue(Role.authorities(0).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should reject unknown role names")
+    void shouldRejectUnknownRole() {
+        // Given
+        User user = new User();
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> user.setRoles(Set.of("ROLE_OWNER")));
+    }
+}
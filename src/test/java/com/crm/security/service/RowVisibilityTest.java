@@ -0,0 +1,87 @@
+package com.crm.security.service;
+
+import com.crm.security.model.AuthenticatedUser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RowVisibilityTest {
+
+    private final RowVisibility rowVisibility = new RowVisibility();
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Should restrict users to their own rows and scope their list keys")
+    void shouldRestrictUsers() {
+        // Given
+        authenticate(7L, "ROLE_USER");
+
+        // When
+        Long restrictedTo = rowVisibility.restrictedTo();
+
+        // Then
+        assertEquals(7L, restrictedTo);
+        assertEquals("user:7", rowVisibility.scope());
+        assertEquals("user:7:status:TODO", rowVisibility.scopedKey("status:TODO"));
+        assertTrue(rowVisibility.canSee(7L));
+        assertFalse(rowVisibility.canSee(8L));
+        assertFalse(rowVisibility.canSee(null));
+    }
+
+    @Test
+    @DisplayName("Should let managers and work without a principal see every row")
+    void shouldNotRestrictManagersOrSystem() {
+        // Given
+        authenticate(3L, "ROLE_USER", "ROLE_MANAGER");
+
+        // When / Then
+        assertNull(rowVisibility.restrictedTo());
+        assertEquals(RowVisibility.ALL, rowVisibility.scope());
+        assertEquals("all", rowVisibility.scopedKey("all"));
+        assertTrue(rowVisibility.canSee(null));
+
+        SecurityContextHolder.clearContext();
+        assertNull(rowVisibility.restrictedTo());
+    }
+
+    @Test
+    @DisplayName("Should show nothing to a restricted principal without a user id")
+    void shouldHideRowsWithoutUserId() {
+        // Given
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                "user", null, AuthorityUtils.createAuthorityList("ROLE_USER")));
+
+        // When / Then
+        assertEquals(0L, rowVisibility.restrictedTo());
+        assertFalse(rowVisibility.canSee(1L));
+    }
+
+    @Test
+    @DisplayName("Should evict a list in the global scope and the scopes of affected users")
+    void shouldScopeEvictedKeys() {
+        // When
+        List<String> keys = RowVisibility.scopedKeys(List.of("all", "status:DONE"), 4L, null, 4L, 5L);
+
+        // Then
+        assertEquals(List.of("all", "status:DONE", "user:4:all", "user:4:status:DONE",
+                "user:5:all", "user:5:status:DONE"), keys);
+    }
+
+    private static void authenticate(Long id, String... roles) {
+        AuthenticatedUser user = new AuthenticatedUser(id, "user" + id, "secret", true, true,
+                AuthorityUtils.createAuthorityList(roles));
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+    }
+}
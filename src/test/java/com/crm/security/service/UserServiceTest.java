@@ -1,5 +1,6 @@
 package com.crm.security.service;
 
+import com.crm.common.membership.MembershipIndex;
 import com.crm.security.dto.UserRequestDTO;
 import com.crm.security.dto.UserResponseDTO;
 import com.crm.security.exceptions.DuplicateUserException;
@@ -41,6 +42,9 @@ class UserServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private MembershipIndex membershipIndex;
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -50,6 +54,9 @@ class UserServiceTest {
 
     @BeforeEach
     void setUp() {
+        lenient().when(membershipIndex.mightContainUsername(anyString())).thenReturn(true);
+        lenient().when(membershipIndex.mightContainUserEmail(anyString())).thenReturn(true);
+
         // Create test user
         testUser = new User();
         testUser.setId(1L);
@@ -138,6 +145,26 @@ class UserServiceTest {
         verify(userRepository, never()).save(any());
     }
 
+    @Test
+    @DisplayName("Should skip duplicate lookups when membership index rules both values out")
+    void shouldSkipDuplicateLookupsForDefiniteNegatives() {
+        // Given
+        when(membershipIndex.mightContainUsername("testuser")).thenReturn(false);
+        when(membershipIndex.mightContainUserEmail("test@example.com")).thenReturn(false);
+        when(userMapper.toEntity(testRequestDTO, passwordEncoder)).thenReturn(testUser);
+        when(userRepository.save(testUser)).thenReturn(testUser);
+        when(userMapper.toDTO(testUser)).thenReturn(testResponseDTO);
+
+        // When
+        userService.createUser(testRequestDTO);
+
+        // Then
+        verify(userRepository, never()).existsByUsername(anyString());
+        verify(userRepository, never()).existsByEmail(anyString());
+        verify(membershipIndex).addUsername("testuser");
+        verify(membershipIndex).addUserEmail("test@example.com");
+    }
+
     @Test
     @DisplayName("Should get user by id successfully")
     void shouldGetUserByIdSuccessfully() {
@@ -385,6 +385,113 @@ class TaskControllerIntegrationTest {
                 .andExpect(jsonPath("$", hasSize(greaterThanOrEqualTo(1))));
     }
 
+    @Test
+    @DisplayName("GET /api/tasks?fields= - Should return only the requested fields")
+    void shouldReturnSparseFieldset() throws Exception {
+        // Given - Task without offer
+        Task taskWithoutOffer = new Task();
+        taskWithoutOffer.setTitle("Send brochure");
+        taskWithoutOffer.setDueDate(LocalDateTime.now().minusDays(1));
+        taskWithoutOffer.setStatus(TaskStatus.TODO);
+        taskWithoutOffer.setPriority(TaskPriority.LOW);
+        taskWithoutOffer.setCustomer(testCustomer);
+        taskRepository.save(taskWithoutOffer);
+
+        // When & Then
+        mockMvc.perform(get("/api/tasks").param("fields", "id,title,offerTitle,overdue"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].id").value(testTask.getId()))
+                .andExpect(jsonPath("$[0].title").value("Follow up call"))
+                .andExpect(jsonPath("$[0].offerTitle").value("Premium Package"))
+                .andExpect(jsonPath("$[0].overdue").value(false))
+                .andExpect(jsonPath("$[0].description").doesNotExist())
+                .andExpect(jsonPath("$[0].customerName").doesNotExist())
+                .andExpect(jsonPath("$[1].offerTitle").value(nullValue()))
+                .andExpect(jsonPath("$[1].overdue").value(true));
+    }
+
+    @Test
+    @DisplayName("GET /api/tasks/customer/{customerId}?fields= - Should narrow filtered lists")
+    void shouldReturnSparseFieldsetByCustomer() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/api/tasks/customer/{customerId}", testCustomer.getId())
+                        .param("fields", "title,customerId,customerName,offerId"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].title").value("Follow up call"))
+                .andExpect(jsonPath("$[0].customerId").value(testCustomer.getId()))
+                .andExpect(jsonPath("$[0].customerName").value("John Doe"))
+                .andExpect(jsonPath("$[0].offerId").value(testOffer.getId()))
+                .andExpect(jsonPath("$[0].id").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("GET /api/tasks?fields= - Should return 400 for an unknown field")
+    void shouldReturn400ForUnknownField() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/api/tasks").param("fields", "id,secret"))
+                .andDo(print())
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", containsString("secret")));
+    }
+
+    @Test
+    @DisplayName("GET /api/tasks/search - Should filter, sort and page by keyset")
+    void shouldSearchTasksByKeyset() throws Exception {
+        // Given
+        for (int i = 1; i <= 3; i++) {
+            Task task = new Task();
+            task.setTitle("Search task " + i);
+            task.setDueDate(LocalDateTime.now().plusDays(10 + i));
+            task.setStatus(TaskStatus.IN_PROGRESS);
+            task.setPriority(TaskPriority.MEDIUM);
+            task.setCustomer(testCustomer);
+            taskRepository.save(task);
+        }
+
+        // When
+        String firstPage = mockMvc.perform(get("/api/tasks/search")
+                        .param("filter", "status=IN_PROGRESS;customerId=" + testCustomer.getId())
+                        .param("sort", "-dueDate")
+                        .param("limit", "2"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(2)))
+                .andExpect(jsonPath("$.items[0].title").value("Search task 3"))
+                .andExpect(jsonPath("$.items[1].title").value("Search task 2"))
+                .andExpect(jsonPath("$.hasMore").value(true))
+                .andReturn().getResponse().getContentAsString();
+        String cursor = objectMapper.readTree(firstPage).get("nextCursor").asText();
+
+        // Then
+        mockMvc.perform(get("/api/tasks/search")
+                        .param("filter", "status=IN_PROGRESS;customerId=" + testCustomer.getId())
+                        .param("sort", "-dueDate")
+                        .param("limit", "2")
+                        .param("after", cursor)
+                        .param("fields", "title"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.items[0].title").value("Search task 1"))
+                .andExpect(jsonPath("$.items[0].id").doesNotExist())
+                .andExpect(jsonPath("$.hasMore").value(false))
+                .andExpect(jsonPath("$.nextCursor").value(nullValue()));
+    }
+
+    @Test
+    @DisplayName("GET /api/tasks/search - Should refuse a sort that no index serves")
+    void shouldRefuseUnindexedSort() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/api/tasks/search").param("sort", "priority"))
+                .andDo(print())
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", containsString("not backed by an index")));
+    }
+
     @Test
     @DisplayName("PUT /api/tasks/{id} - Should update task successfully")
     void shouldUpdateTaskSuccessfully() throws Exception {
@@ -1,5 +1,10 @@
 package com.crm.tasks.service;
 
+import com.crm.common.cache.IdListCache;
+import com.crm.common.outbox.OutboxEventType;
+import com.crm.common.outbox.OutboxPublisher;
+import com.crm.common.sync.ChangeFeed;
+import com.crm.common.sync.SyncResource;
 import com.crm.customers.exceptions.CustomerNotFoundException;
 import com.crm.customers.model.Customer;
 import com.crm.customers.model.CustomerStatus;
@@ -8,6 +13,8 @@ import com.crm.offers.exceptions.OfferNotFoundException;
 import com.crm.offers.model.Offer;
 import com.crm.offers.model.OfferStatus;
 import com.crm.offers.repository.OfferRepository;
+import com.crm.security.repository.UserRepository;
+import com.crm.security.service.RowVisibility;
 import com.crm.tasks.dto.TaskRequestDTO;
 import com.crm.tasks.dto.TaskResponseDTO;
 import com.crm.tasks.exceptions.TaskNotFoundException;
@@ -23,12 +30,19 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.support.NoOpCacheManager;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -51,6 +65,21 @@ class TaskServiceTest {
     @Mock
     private TaskMapper taskMapper;
 
+    @Mock
+    private OutboxPublisher outboxPublisher;
+
+    @Mock
+    private ChangeFeed changeFeed;
+
+    @Spy
+    private IdListCache idListCache = new IdListCache(new NoOpCacheManager());
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Spy
+    private RowVisibility rowVisibility = new RowVisibility();
+
     @InjectMocks
     private TaskServiceImpl taskService;
 
@@ -396,6 +425,30 @@ class TaskServiceTest {
         verify(taskRepository).save(testTask);
     }
 
+    @Test
+    @DisplayName("Should report a reassigned task as removed to its previous assignee")
+    void shouldRecordReassignment() {
+        // Given
+        testTask.setAssigneeId(3L);
+        testRequestDTO.setAssigneeId(4L);
+        when(taskRepository.findById(1L)).thenReturn(Optional.of(testTask));
+        when(customerRepository.findById(1L)).thenReturn(Optional.of(testCustomer));
+        when(offerRepository.findById(1L)).thenReturn(Optional.of(testOffer));
+        when(userRepository.existsById(4L)).thenReturn(true);
+        doAnswer(invocation -> {
+            testTask.setAssigneeId(testRequestDTO.getAssigneeId());
+            return null;
+        }).when(taskMapper).updateEntity(testTask, testRequestDTO, testCustomer, testOffer);
+        when(taskRepository.save(testTask)).thenReturn(testTask);
+        when(taskMapper.toDTO(testTask)).thenReturn(testResponseDTO);
+
+        // When
+        taskService.updateTask(1L, testRequestDTO);
+
+        // Then
+        verify(changeFeed).recordReassignment(SyncResource.TASK, 1L, 3L, 4L);
+    }
+
     @Test
     @DisplayName("Should throw exception when updating non-existent task")
     void shouldThrowExceptionWhenUpdatingNonExistentTask() {
@@ -431,6 +484,26 @@ class TaskServiceTest {
         verify(taskRepository, never()).save(any());
     }
 
+    @Test
+    @DisplayName("Should refuse a status change of a task assigned to another user")
+    void shouldRefuseStatusChangeOfOthersTask() {
+        // Given
+        testTask.setAssigneeId(2L);
+        when(taskRepository.findById(1L)).thenReturn(Optional.of(testTask));
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                "user", null, AuthorityUtils.createAuthorityList("ROLE_USER")));
+
+        // When & Then
+        try {
+            assertThrows(AccessDeniedException.class,
+                    () -> taskService.updateTaskStatus(1L, TaskStatus.DONE));
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+        assertEquals(TaskStatus.TODO, testTask.getStatus());
+        verify(taskRepository, never()).save(any());
+    }
+
     @Test
     @DisplayName("Should delete task successfully")
     void shouldDeleteTaskSuccessfully() {
@@ -443,6 +516,7 @@ class TaskServiceTest {
         // Then
         verify(taskRepository).existsById(1L);
         verify(taskRepository).deleteById(1L);
+        verify(outboxPublisher).record(OutboxPublisher.TASK, 1L, OutboxEventType.DELETED, Map.of("id", 1L));
     }
 
     @Test